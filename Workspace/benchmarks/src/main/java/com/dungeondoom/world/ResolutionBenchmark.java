@@ -0,0 +1,148 @@
+package com.dungeondoom.world;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author Roshan Munjal
+ * The ResolutionBenchmark times the phases of a tick that change the
+ * world: killing the ghosts the player's attack hits, picking up coins,
+ * and spawning. These take microseconds, which is too short for JMH to
+ * time a setup around each call without skewing the result, so each call
+ * runs a batch of BATCH of them and is reported per operation.
+ *
+ * Killing ghosts and picking up coins would have nothing left to do if
+ * they were run twice on the same world, so each operation in the batch
+ * first puts the ghosts or coins back as they were when the contacts were
+ * found. That copy is part of the time, and is timed on its own by the
+ * restoreGhosts and restoreCoins benchmarks, which are taken away from
+ * the others to get the cost of the phase itself. Spawning only takes
+ * away what it spawned.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolutionBenchmark {
+
+	// The number of ghosts, coins and obstacle tiles in the world.
+	@Param({ "100", "1000", "10000" })
+	public int ghosts;
+
+	@Param({ "10", "100", "1000" })
+	public int coins;
+
+	@Param({ "0", "500", "4000" })
+	public int obstacles;
+
+	// The number of operations in each call.
+	private static final int BATCH = 16;
+
+	private Scenario scenario;
+	private GameWorld world;
+
+	/**
+	 * Builds the world, once for each set of parameters.
+	 */
+	@Setup(Level.Trial)
+	public void createWorld() {
+		scenario = new Scenario(ghosts, coins, obstacles, 1);
+		world = scenario.world;
+	}
+
+	/**
+	 * Puts the world back where it started before each iteration.
+	 */
+	@Setup(Level.Iteration)
+	public void resetWorld() {
+		scenario.reset();
+	}
+
+	/**
+	 * Shuts down any threads the world used.
+	 */
+	@TearDown(Level.Trial)
+	public void disposeWorld() {
+		world.dispose();
+	}
+
+	/**
+	 * Puts the ghosts back, which is the part of attackResolution that is not the phase.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void restoreGhosts() {
+		for (int i = 0; i < BATCH; i++) {
+			scenario.restoreGhosts();
+		}
+	}
+
+	/**
+	 * Puts the coins back, which is the part of coinPickup that is not the phase.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void restoreCoins() {
+		for (int i = 0; i < BATCH; i++) {
+			scenario.restoreCoins();
+		}
+	}
+
+	/**
+	 * Kills the ghosts that the player's attack hits, and spawns a faster ghost for each of them.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void attackResolution() {
+		for (int i = 0; i < BATCH; i++) {
+			scenario.restoreGhosts();
+			world.ghostCharacterCollision();
+		}
+	}
+
+	/**
+	 * Picks up the coins that the player overlaps.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void coinPickup() {
+		for (int i = 0; i < BATCH; i++) {
+			scenario.restoreCoins();
+			world.characterCoinCollision();
+		}
+	}
+
+	/**
+	 * Spawns a ghost and a coin, and then takes them away again, so that the stores stay the same size.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void spawning() {
+		EntityStore ghosts = world.getGhosts(), coins = world.getCoins();
+		for (int i = 0; i < BATCH; i++) {
+			world.spawnEnemy();
+			world.spawnCoin();
+		}
+		for (int i = 0; i < BATCH; i++) {
+			ghosts.remove(ghosts.size - 1);
+			coins.remove(coins.size - 1);
+		}
+	}
+
+}
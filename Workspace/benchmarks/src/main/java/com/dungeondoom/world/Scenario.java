@@ -0,0 +1,165 @@
+package com.dungeondoom.world;
+
+import java.util.Random;
+
+import com.dungeondoom.actors.Direction;
+import com.dungeondoom.actors.Player;
+import com.dungeondoom.currency.Coin;
+import com.dungeondoom.effects.EffectSystem;
+import com.dungeondoom.enemies.Ghost;
+
+/**
+ * @author Roshan Munjal
+ * A Scenario is a GameWorld set up for the benchmarks, without a window.
+ * The map is a big grid with obstacles scattered over it, the player
+ * stands in the middle attacking to the right, and the ghosts and coins
+ * are spread over the map, with one in every ten of them right next to
+ * the player, so that every phase of a tick has some contacts to resolve.
+ * Everything is placed from a seed, and reset puts it all back where it
+ * started, so each measurement starts from the same world. Reset also saves
+ * the ghosts and coins, so that restoreGhosts and restoreCoins can put them
+ * back much faster than spawning them again, with the contacts that were
+ * found still pointing at the right ones.
+ */
+class Scenario {
+
+	// The size of the map, in tiles of 32 pixels.
+	static final int GRID_SIZE = 128;
+	static final float TILE_SIZE = 32;
+
+	// The sizes of the player, a ghost and a coin, which are the sizes of their sprites.
+	static final float PLAYER_SIZE = 64, GHOST_SIZE = 32, COIN_SIZE = 27;
+
+	// One in this many ghosts and coins is placed right next to the player.
+	static final int NEAR_SHARE = 10;
+
+	// The tiles around the middle that are kept free of obstacles, so the player is never inside one.
+	private static final int CLEAR_RADIUS = 4;
+
+	// The speed the ghosts are spawned at.
+	private static final float GHOST_SPEED = 70;
+
+	// The world and its player.
+	final GameWorld world;
+	final Player player;
+
+	// Where the player, the ghosts and the coins start.
+	private float playerX, playerY;
+	private float[] ghostX, ghostY, coinX, coinY;
+
+	// The ghosts and coins as they were at the end of the last reset.
+	private EntityStore savedGhosts, savedCoins;
+
+	/**
+	 * Constructor for the Scenario class.
+	 * @param ghosts : the number of ghosts
+	 * @param coins : the number of coins
+	 * @param obstacles : the number of tiles that are obstacles
+	 * @param seed : where everything is placed from
+	 */
+	Scenario(int ghosts, int coins, int obstacles, long seed) {
+		Random random = new Random(seed);
+		CollisionGrid grid = createGrid(obstacles, random);
+
+		player = new Player("Benchmark");
+		player.setBoundingSize(PLAYER_SIZE, PLAYER_SIZE);
+		world = new GameWorld(grid, player, new Ghost(GHOST_SIZE, GHOST_SIZE), new Coin(COIN_SIZE, COIN_SIZE),
+				new EffectSystem(null), new Random(seed));
+		playerX = world.getWidth() / 2;
+		playerY = world.getHeight() / 2;
+
+		ghostX = new float[ghosts];
+		ghostY = new float[ghosts];
+		place(grid, ghostX, ghostY, GHOST_SIZE, random);
+		coinX = new float[coins];
+		coinY = new float[coins];
+		place(grid, coinX, coinY, COIN_SIZE, random);
+		savedGhosts = new EntityStore(ghosts);
+		savedCoins = new EntityStore(coins);
+
+		reset();
+	}
+
+	/**
+	 * Puts everything back where it started, and gets the world ready for the phases of a tick.
+	 */
+	void reset() {
+		// The player stands in the middle, at full health, attacking to the right.
+		player.setPosition(playerX, playerY);
+		player.savePreviousPosition();
+		player.setPlayerAlive(true);
+		player.setHealthPercentage(100);
+		player.setTimeSinceAttacked(0);
+		player.setDirection(Direction.RIGHT);
+		player.setAttacking(true);
+
+		EntityStore ghosts = world.getGhosts();
+		ghosts.clear();
+		for (int i = 0; i < ghostX.length; i++) {
+			world.getGhostKind().spawn(ghosts, ghostX[i], ghostY[i], GHOST_SPEED);
+		}
+		EntityStore coins = world.getCoins();
+		coins.clear();
+		for (int i = 0; i < coinX.length; i++) {
+			world.getCoinKind().spawn(coins, coinX[i], coinY[i]);
+		}
+
+		// Builds the broadphase and finds the contacts, which the later phases of a tick need.
+		world.beginTick();
+		world.findContacts();
+		savedGhosts.set(ghosts);
+		savedCoins.set(coins);
+	}
+
+	/**
+	 * Puts the ghosts back as they were at the end of the last reset, and gets rid of the effects of the ones that were killed.
+	 */
+	void restoreGhosts() {
+		world.getGhosts().set(savedGhosts);
+		world.getEffects().clear();
+	}
+
+	/**
+	 * Puts the coins back as they were at the end of the last reset.
+	 */
+	void restoreCoins() {
+		world.getCoins().set(savedCoins);
+	}
+
+	/**
+	 * Creates a grid with obstacles scattered over it, except around the middle.
+	 */
+	private static CollisionGrid createGrid(int obstacles, Random random) {
+		CollisionGrid grid = new CollisionGrid(GRID_SIZE, GRID_SIZE, TILE_SIZE, TILE_SIZE);
+		int middle = GRID_SIZE / 2;
+		int placed = 0;
+		while (placed < obstacles) {
+			int x = random.nextInt(GRID_SIZE), y = random.nextInt(GRID_SIZE);
+			boolean middleTile = Math.abs(x - middle) <= CLEAR_RADIUS && Math.abs(y - middle) <= CLEAR_RADIUS;
+			if (middleTile == false && grid.isSolid(x, y) == false) {
+				grid.setSolid(x, y, true);
+				placed++;
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * Picks places that are not inside an obstacle, with one in every NEAR_SHARE of them next to the player.
+	 */
+	private void place(CollisionGrid grid, float[] x, float[] y, float size, Random random) {
+		float mapSize = GRID_SIZE * TILE_SIZE;
+		for (int i = 0; i < x.length; i++) {
+			if (i % NEAR_SHARE == 0) {
+				x[i] = playerX + (random.nextFloat() * 2 - 1) * PLAYER_SIZE;
+				y[i] = playerY + (random.nextFloat() * 2 - 1) * PLAYER_SIZE;
+			} else {
+				do {
+					x[i] = random.nextFloat() * (mapSize - size);
+					y[i] = random.nextFloat() * (mapSize - size);
+				} while (grid.overlaps(x[i], y[i], size, size));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.dungeondoom.world;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dungeondoom.actors.Direction;
+import com.dungeondoom.actors.PlayerInput;
+
+/**
+ * @author Roshan Munjal
+ * The SimulationBenchmark times the phases of a tick that can be run
+ * over and over on the same world: the obstacle checks, finding which
+ * ghosts and coins overlap the player, steering the ghosts, and a whole
+ * tick. The world is put back where it started before each iteration.
+ * The phases that change the world too much to repeat, such as killing
+ * ghosts, are timed by the ResolutionBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+
+	// The number of ghosts, coins and obstacle tiles in the world.
+	@Param({ "100", "1000", "10000" })
+	public int ghosts;
+
+	@Param({ "10", "100", "1000" })
+	public int coins;
+
+	@Param({ "0", "500", "4000" })
+	public int obstacles;
+
+	private Scenario scenario;
+	private GameWorld world;
+	private PlayerInput input = new PlayerInput();
+
+	/**
+	 * Builds the world, once for each set of parameters.
+	 */
+	@Setup(Level.Trial)
+	public void createWorld() {
+		scenario = new Scenario(ghosts, coins, obstacles, 1);
+		world = scenario.world;
+
+		// The player walks right while attacking, so every phase of a whole tick has work to do.
+		input.setMove(Direction.RIGHT);
+		input.setAttack(true);
+	}
+
+	/**
+	 * Puts the world back where it started before each iteration.
+	 */
+	@Setup(Level.Iteration)
+	public void resetWorld() {
+		scenario.reset();
+	}
+
+	/**
+	 * Shuts down any threads the world used.
+	 */
+	@TearDown(Level.Trial)
+	public void disposeWorld() {
+		world.dispose();
+	}
+
+	/**
+	 * Tests the player and every ghost against the obstacles.
+	 */
+	@Benchmark
+	public void obstacleCollision() {
+		world.characterObstacleCollision();
+	}
+
+	/**
+	 * Rebuilds the broadphase and finds the ghosts and coins that overlap the player.
+	 */
+	@Benchmark
+	public void ghostPlayerOverlap() {
+		world.beginTick();
+		world.findContacts();
+	}
+
+	/**
+	 * Steers every ghost along the flow field and moves it by one tick.
+	 */
+	@Benchmark
+	public void ghostSteering() {
+		world.getEnemySystem().update(world.getGhosts(), world.getGhostKind(), scenario.player, GameWorld.TIME_STEP);
+	}
+
+	/**
+	 * Runs a whole tick. The player is healed first, so that it never dies and stops the ticks.
+	 */
+	@Benchmark
+	public void tick() {
+		scenario.player.setHealthPercentage(100);
+		world.tick(input);
+	}
+
+}
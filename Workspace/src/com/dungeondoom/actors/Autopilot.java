@@ -0,0 +1,85 @@
+package com.dungeondoom.actors;
+
+import com.dungeondoom.world.EntityStore;
+import com.dungeondoom.world.GameWorld;
+
+/**
+ * @author Roshan Munjal
+ * The Autopilot plays the game instead of the keyboard, so that games can
+ * be run without anyone at the keys. It is a simple player: it walks to
+ * the nearest coin, running while it has the stamina, and turns to attack
+ * any ghost that gets close. It only decides what the player wants to do,
+ * in a PlayerInput, so the game treats it exactly like the keyboard.
+ */
+public class Autopilot {
+
+	// How close a ghost has to be to turn and attack it, in pixels.
+	private static final float ATTACK_RANGE = 48;
+
+	// The stamina that the autopilot keeps in hand, and only runs with what is above it.
+	private static final int STAMINA_RESERVE = 100;
+
+	/**
+	 * Decides what the player does in the next tick: it attacks a ghost that is close, or else walks to the nearest coin.
+	 * @param world : the world the player is in
+	 * @param input : where what the player wants to do is put
+	 */
+	public void play(GameWorld world, PlayerInput input) {
+		Player player = world.getPlayer();
+		float x = player.getX() + player.getBoundingRectangle().width / 2;
+		float y = player.getY() + player.getBoundingRectangle().height / 2;
+		input.clear();
+
+		// Turns towards the closest ghost in range, and attacks once it is facing it.
+		EntityStore ghosts = world.getGhosts();
+		int ghost = nearest(ghosts, x, y);
+		if (ghost >= 0) {
+			float dx = ghosts.x[ghost] - x, dy = ghosts.y[ghost] - y;
+			if (dx * dx + dy * dy < ATTACK_RANGE * ATTACK_RANGE) {
+				Direction facing = towards(dx, dy);
+				if (player.getDirection() == facing) {
+					input.setAttack(player.isAttacking() == false);
+				} else {
+					input.setMove(facing);
+				}
+				return;
+			}
+		}
+
+		// Walks to the nearest coin, running while it has the stamina.
+		EntityStore coins = world.getCoins();
+		int coin = nearest(coins, x, y);
+		if (coin >= 0) {
+			input.setMove(towards(coins.x[coin] - x, coins.y[coin] - y));
+			input.setSprint(player.getStamina() > STAMINA_RESERVE);
+		}
+	}
+
+	/**
+	 * Finds the entity that is closest to a position.
+	 * @return index : the index of the entity, or -1 if there are none
+	 */
+	private static int nearest(EntityStore store, float x, float y) {
+		int best = -1;
+		float bestDistance = Float.MAX_VALUE;
+		for (int i = 0; i < store.size; i++) {
+			float dx = store.x[i] - x, dy = store.y[i] - y;
+			if (dx * dx + dy * dy < bestDistance) {
+				bestDistance = dx * dx + dy * dy;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Gets the direction that goes most directly along an offset.
+	 */
+	private static Direction towards(float dx, float dy) {
+		if (Math.abs(dx) > Math.abs(dy)) {
+			return dx > 0 ? Direction.RIGHT : Direction.LEFT;
+		}
+		return dy > 0 ? Direction.UP : Direction.DOWN;
+	}
+
+}
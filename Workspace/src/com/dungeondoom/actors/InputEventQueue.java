@@ -0,0 +1,117 @@
+package com.dungeondoom.actors;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Roshan Munjal
+ * The InputEventQueue holds the key events that have not been read by a
+ * tick yet, each with the key, whether it went down or up, and when. It is
+ * a ring buffer of plain arrays, so it never allocates, and one thread can
+ * add to it while another reads from it without a lock: only the writer
+ * moves the tail and only the reader moves the head, and each publishes its
+ * index after it has finished with the slot. If the reader falls so far
+ * behind that the ring is full, new events are dropped and counted.
+ */
+class InputEventQueue {
+
+	// The events, in a ring whose size is a power of two.
+	private final int[] keys;
+	private final boolean[] downs;
+	private final long[] times;
+	private final int mask;
+
+	// The next event to read, and the next slot to write.
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+
+	// The number of events that were dropped because the ring was full.
+	private volatile int dropped = 0;
+
+	// The event that was read last.
+	private int key;
+	private boolean down;
+	private long time;
+
+	/**
+	 * Constructor for the InputEventQueue class.
+	 * @param capacity : the most events that can wait at once, which is rounded up to a power of two
+	 */
+	InputEventQueue(int capacity) {
+		int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+		keys = new int[size];
+		downs = new boolean[size];
+		times = new long[size];
+		mask = size - 1;
+	}
+
+	/**
+	 * Adds an event, which is only ever done by one thread.
+	 * @param key : the key code
+	 * @param down : true if the key went down, false if it went up
+	 * @param time : when it happened, in nanoseconds
+	 * @return added : false if the ring was full and the event was dropped
+	 */
+	boolean offer(int key, boolean down, long time) {
+		long slot = tail.get();
+		if (slot - head.get() > mask) {
+			dropped++;
+			return false;
+		}
+		int index = (int) slot & mask;
+		keys[index] = key;
+		downs[index] = down;
+		times[index] = time;
+		tail.lazySet(slot + 1);
+		return true;
+	}
+
+	/**
+	 * Reads the oldest event, which is only ever done by one thread. The event is then given by getKey, isDown and getTime.
+	 * @return read : false if there were no events
+	 */
+	boolean poll() {
+		long slot = head.get();
+		if (slot == tail.get()) {
+			return false;
+		}
+		int index = (int) slot & mask;
+		key = keys[index];
+		down = downs[index];
+		time = times[index];
+		head.lazySet(slot + 1);
+		return true;
+	}
+
+	/**
+	 * Gets the key of the event that was read last.
+	 * @return key
+	 */
+	int getKey() {
+		return key;
+	}
+
+	/**
+	 * Checks if the key of the event that was read last went down.
+	 * @return down
+	 */
+	boolean isDown() {
+		return down;
+	}
+
+	/**
+	 * Gets when the event that was read last happened.
+	 * @return time : the time in nanoseconds
+	 */
+	long getTime() {
+		return time;
+	}
+
+	/**
+	 * Gets the number of events that were dropped because the ring was full.
+	 * @return dropped
+	 */
+	int getDropped() {
+		return dropped;
+	}
+
+}
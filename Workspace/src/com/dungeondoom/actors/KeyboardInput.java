@@ -0,0 +1,145 @@
+package com.dungeondoom.actors;
+
+import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * @author Roshan Munjal
+ * The KeyboardInput turns the keys the player presses into a PlayerInput.
+ * Rather than asking the keyboard once a frame which keys are held, which
+ * misses a key that is pressed and let go between two frames, it is told
+ * about every key that goes down or up, and queues the event with the time
+ * it happened. Each tick then reads the queue in order and works out what
+ * the player wants from it: a key that went down since the last tick
+ * counts for that tick even if it is already back up, and an attack is
+ * only started once for each press of J. Since the PlayerInput only comes
+ * from the events, the same events always give the same ticks, so a game
+ * can be played again by sending the events to keyDown and keyUp.
+ */
+public class KeyboardInput extends InputAdapter {
+
+	// The most events that can wait for a tick, which is far more than anyone can press in a frame.
+	private static final int CAPACITY = 256;
+
+	// The things the player can do, and the keys that do them.
+	private static final int LEFT = 0, RIGHT = 1, UP = 2, DOWN = 3, SPRINT = 4, ATTACK = 5, QUIT = 6;
+	private static final int COMMANDS = 7;
+
+	// The events that have not been read by a tick yet.
+	private InputEventQueue events = new InputEventQueue(CAPACITY);
+
+	// Which keys are held, and which went down since the last tick.
+	private boolean[] held = new boolean[COMMANDS];
+	private boolean[] pressed = new boolean[COMMANDS];
+
+	// How long the oldest event that the last tick read had waited for it, in nanoseconds.
+	private long latency = 0;
+
+	/**
+	 * Gets what a key does.
+	 * @param key : the key code
+	 * @return command : the thing the key does, or -1 if it does nothing in the game
+	 */
+	private static int getCommand(int key) {
+		switch (key) {
+		case Keys.A:
+			return LEFT;
+		case Keys.D:
+			return RIGHT;
+		case Keys.W:
+			return UP;
+		case Keys.S:
+			return DOWN;
+		case Keys.SPACE:
+			return SPRINT;
+		case Keys.J:
+			return ATTACK;
+		case Keys.ESCAPE:
+			return QUIT;
+		default:
+			return -1;
+		}
+	}
+
+	@Override
+	public boolean keyDown(int keycode) {
+		return getCommand(keycode) >= 0 && events.offer(keycode, true, TimeUtils.nanoTime());
+	}
+
+	@Override
+	public boolean keyUp(int keycode) {
+		return getCommand(keycode) >= 0 && events.offer(keycode, false, TimeUtils.nanoTime());
+	}
+
+	/**
+	 * Reads the events since the last tick and sets what the player wants to do in this tick.
+	 * @param input : the input of the tick
+	 */
+	public void read(PlayerInput input) {
+		for (int i = 0; i < COMMANDS; i++) {
+			pressed[i] = false;
+		}
+		latency = 0;
+		long now = TimeUtils.nanoTime();
+		while (events.poll()) {
+			latency = Math.max(latency, now - events.getTime());
+			int command = getCommand(events.getKey());
+			held[command] = events.isDown();
+			if (events.isDown()) {
+				pressed[command] = true;
+			}
+		}
+
+		// Walks in the first direction that is wanted, in the same order as ever: left, right, up and then down.
+		input.clear();
+		if (isWanted(LEFT)) {
+			input.setMove(Direction.LEFT);
+		} else if (isWanted(RIGHT)) {
+			input.setMove(Direction.RIGHT);
+		} else if (isWanted(UP)) {
+			input.setMove(Direction.UP);
+		} else if (isWanted(DOWN)) {
+			input.setMove(Direction.DOWN);
+		}
+		input.setSprint(isWanted(SPRINT));
+		input.setAttack(pressed[ATTACK]);
+		input.setQuit(isWanted(QUIT));
+	}
+
+	/**
+	 * Checks if a key is held, or went down since the last tick.
+	 */
+	private boolean isWanted(int command) {
+		return held[command] || pressed[command];
+	}
+
+	/**
+	 * Forgets every key, such as when the window loses focus and the keys that are let go are never heard about.
+	 */
+	public void reset() {
+		while (events.poll()) {
+		}
+		for (int i = 0; i < COMMANDS; i++) {
+			held[i] = false;
+			pressed[i] = false;
+		}
+	}
+
+	/**
+	 * Gets how long the oldest event that the last tick read had waited for it, which is the delay between a key and what it does.
+	 * @return latency : the time in nanoseconds, or 0 if the last tick read no events
+	 */
+	public long getLatency() {
+		return latency;
+	}
+
+	/**
+	 * Gets the number of events that were dropped because no tick read them in time.
+	 * @return dropped
+	 */
+	public int getDropped() {
+		return events.getDropped();
+	}
+
+}
@@ -1,15 +1,17 @@
 package com.dungeondoom.actors;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.scenes.scene2d.Actor;
-import com.dungeondoom.screens.PlayScreen;
+import com.dungeondoom.assets.AnimationLibrary;
+import com.dungeondoom.assets.AnimationState;
+import com.dungeondoom.assets.Archetype;
+import com.dungeondoom.main.DungeonDoom;
 import com.dungeondoom.weapons.Weapon;
+import com.dungeondoom.world.SweptCollider;
 import com.dungeondoom.weapons.WeaponType;
 
 /**
@@ -24,24 +26,15 @@ public class Player extends Actor {
 
 	// Important textures to draw the player.
 	private Rectangle boundary;
+	private float boundaryWidth = 0, boundaryHeight = 0; // The size of the boundary, once it is known.
 	private String playerName;
 
-	// Variables to know the number of columns and rows in the sprite sheet.
-	private static final int FRAME_COLS = 9, FRAME_ROWS = 4;
-
 	// Variable to account the amount of time that has passed.
 	private float elapsedTime = 0;
-
-	// Animations for the character.
-	private Animation walkLeftAnimation, walkRightAnimation, walkUpAnimation, walkDownAnimation;
-
-	// Textures and TextureRegions needed for main character.
-	private Texture walkSheet;
-	private TextureRegion[][] allWalkFrames;
-	private TextureRegion[] walkUpFrames = new TextureRegion[9];
-	private TextureRegion[] walkDownFrames = new TextureRegion[9];
-	private TextureRegion[] walkRightFrames = new TextureRegion[9];
-	private TextureRegion[] walkLeftFrames = new TextureRegion[9];
+	
+	// The position at the previous tick, and the position the player is drawn at in this frame.
+	private float previousX = 0, previousY = 0;
+	private float drawX = 0, drawY = 0;
 
 	// Properties of the main character.
 	private boolean playerAlive = true; // Checks if the player alive.
@@ -60,6 +53,8 @@ public class Player extends Actor {
 	private boolean overlapsWithObstacles = false; // Checks if the player overlaps with obstacles.
 	private boolean overlapsWithCoins = false; // Checks if the player overlaps with coins.
 	private float timeSinceAttacked = 0; //  The time since the player was attacked.
+	private SweptCollider collider; // Moves the player without letting it go into obstacles.
+	private float worldWidth = 0, worldHeight = 0; // The size of the world the player is kept inside.
 
 	/**
 	 * This is the constructor for the player class.
@@ -78,27 +73,6 @@ public class Player extends Actor {
 		
 		// Creates the boundary for the Player.
 		boundary = new Rectangle();
-
-		// Initializes the walking sprite sheet.
-		walkSheet = new Texture(Gdx.files.internal("assets/MainCharacterWalkingSprite.png"));
-
-		// Initializes all the walk frames.
-		allWalkFrames = TextureRegion.split(walkSheet, walkSheet.getWidth() / FRAME_COLS,
-				walkSheet.getHeight() / FRAME_ROWS);
-
-		// Initializing frames to be used to create the animations.
-		for (int i = 0; i < FRAME_COLS; i++) {
-			walkUpFrames[i] = allWalkFrames[0][i];
-			walkLeftFrames[i] = allWalkFrames[1][i];
-			walkDownFrames[i] = allWalkFrames[2][i];
-			walkRightFrames[i] = allWalkFrames[3][i];
-		}
-
-		// Creating all animations for the walking sprite.
-		walkUpAnimation = new Animation(1 / 15f, walkUpFrames);
-		walkLeftAnimation = new Animation(1 / 15f, walkLeftFrames);
-		walkDownAnimation = new Animation(1 / 15f, walkDownFrames);
-		walkRightAnimation = new Animation(1 / 15f, walkRightFrames);
 		
 		// Sets the current weapon to NONE.
 		currentWeapon = new Weapon(WeaponType.NONE);
@@ -106,126 +80,110 @@ public class Player extends Actor {
 	}
 	
 	/**
-	 * Tells the character to move.
+	 * Tells the character to move by one tick. If it has a collider, it is swept
+	 * through the obstacles, and slides along any wall it walks into.
 	 * @param delta : a variable to keep track of time passed;
 	 */
 	public void act(float delta) {
-		moveBy(velocityX * delta, velocityY * delta);
+		elapsedTime += delta; // Calculates time that has passed. Needed for animations.
+		if (collider != null) {
+			Rectangle bounds = getBoundingRectangle();
+			collider.move(bounds.x, bounds.y, bounds.width, bounds.height, velocityX * delta, velocityY * delta);
+			this.setPosition(collider.getX(), collider.getY());
+		} else {
+			moveBy(velocityX * delta, velocityY * delta);
+		}
+		
+		// The attack is played out while the character is standing still.
+		if (this.isMoving() == false && this.isAttacking() == true) {
+			currentWeapon.update(delta, this);
+		}
+
+		// bound main character to the rectangle defined by mapWidth, mapHeight
+		this.setX(MathUtils.clamp(this.getX(), 20, worldWidth - this.getWidth() - 80));
+		this.setY(MathUtils.clamp(this.getY(), 30, worldHeight - this.getHeight() - 60));
+	}
+	
+	/**
+	 * Sets the size of the world that the player is kept inside.
+	 * @param worldWidth : the width of the world in pixels
+	 * @param worldHeight : the height of the world in pixels
+	 */
+	public void setWorldSize(float worldWidth, float worldHeight) {
+		this.worldWidth = worldWidth;
+		this.worldHeight = worldHeight;
+	}
+	
+	/**
+	 * Sets the collider that moves the player through the obstacles of the map.
+	 * @param collider : the collider, or null to let the player move through everything
+	 */
+	public void setCollider(SweptCollider collider) {
+		this.collider = collider;
+	}
+	
+	/**
+	 * Remembers the current position as the position at the previous tick. This is called
+	 * at the start of every tick, and whenever the player is placed somewhere new.
+	 */
+	public void savePreviousPosition() {
+		previousX = this.getX();
+		previousY = this.getY();
+		drawX = previousX;
+		drawY = previousY;
+	}
+	
+	/**
+	 * Works out where the player is drawn, between its position at the previous tick and now.
+	 * @param alpha : how far the frame is between the ticks, from 0 to 1
+	 */
+	public void interpolate(float alpha) {
+		drawX = previousX + (this.getX() - previousX) * alpha;
+		drawY = previousY + (this.getY() - previousY) * alpha;
 	}
 
 	/**
 	 * This is the draw method for the player. This checks for the current state of the player and then draws an image based on that state.
-	 * @param batch : the batch to draw all the images to the screen
+	 * The player is drawn at its interpolated position, and nothing about its state is changed here.
+	 * @param batch : the batch to draw all the images to the screen, which must already be begun
 	 */
 	public void draw(SpriteBatch batch) {
-		batch.begin();
-		elapsedTime += Gdx.graphics.getDeltaTime(); // Calculates time that has passed. Needed for animations.
+		AnimationLibrary animations = ((DungeonDoom) Gdx.app.getApplicationListener()).getAnimations();
 		
-		// Checks if the player overlaps with obstacles.
-		if (this.getOverlapsWithObstacles() == false) {
-			// Checks if the player is currently moving (normal or fast speed).
-			if (this.isMoving() == true) {
-				// If the player is going left.
-				if (this.getDirection() == Direction.LEFT) {
-					// If the player is moving quickly.
-					if (this.isMovingFast() == true) {
-						walkLeftAnimation.setFrameDuration(1 / 30f); // Increases the frame rate of the animation.
-					} else {
-						walkLeftAnimation.setFrameDuration(1 / 15f); // Keeps the standard frame rate of the animation.
-					}
-					
-					// Draws the key frame in the animation.
-					batch.draw(walkLeftAnimation.getKeyFrame(elapsedTime, true), this.getX(), this.getY());
-				} 
-				// If the player is going right.
-				else if (this.getDirection() == Direction.RIGHT) {
-					// If the player is moving quickly.
-					if (this.isMovingFast() == true) {
-						walkRightAnimation.setFrameDuration(1 / 30f);
-					} else {
-						walkRightAnimation.setFrameDuration(1 / 15f);
-					}
-					
-					// Draws the key frame in the animation.
-					batch.draw(walkRightAnimation.getKeyFrame(elapsedTime, true), this.getX(), this.getY());
-				}
-				// If the player is going up.
-				else if (this.getDirection() == Direction.UP) {
-					// If the player is moving quickly.
-					if (this.isMovingFast() == true) {
-						walkUpAnimation.setFrameDuration(1 / 30f);
-					} else {
-						walkUpAnimation.setFrameDuration(1 / 15f);
-					}
-					
-					// Draws the key frame in the animation.
-					batch.draw(walkUpAnimation.getKeyFrame(elapsedTime, true), this.getX(), this.getY());
-				}
-				// If the player is going down.
-				else if (this.getDirection() == Direction.DOWN) {
-					// If the character is moving quickly.
-					if (this.isMovingFast() == true) {
-						walkDownAnimation.setFrameDuration(1 / 30f);
-					} else {
-						walkDownAnimation.setFrameDuration(1 / 15f);
-					}
-					
-					// Draws the key frame in the animation.
-					batch.draw(walkDownAnimation.getKeyFrame(elapsedTime, true), this.getX(), this.getY());
-				}
-			}
-			// If the character is not moving, but attacking.
-			else if (this.isAttacking() == true) {
-				batch.end();
-				currentWeapon.draw(batch);
-				batch.begin();
-			}
-			// If the character is stationary.
-			else {
-				// If the character is looking left.
-				if (this.getDirection() == Direction.LEFT) {
-					batch.draw(walkLeftFrames[0], this.getX(), this.getY());
-				}
-				// If the character is looking right.
-				else if (this.getDirection() == Direction.RIGHT) {
-					batch.draw(walkRightFrames[0], this.getX(), this.getY());
-				}
-				// If the character is looking up.
-				else if (this.getDirection() == Direction.UP) {
-					batch.draw(walkUpFrames[0], this.getX(), this.getY());
-				}
-				// If the character is looking down.
-				else if (this.getDirection() == Direction.DOWN) {
-					batch.draw(walkDownFrames[0], this.getX(), this.getY());
-				}
-			}
+		// Checks if the player is currently moving (normal or fast speed).
+		if (this.isMoving() == true) {
+			// Running uses the faster animation for the direction the player is going in.
+			AnimationState state = this.isMovingFast() ? AnimationState.RUN : AnimationState.WALK;
+			
+			// Draws the key frame in the animation.
+			batch.draw(animations.get(Archetype.PLAYER, state, this.getDirection()).getKeyFrame(elapsedTime, true),
+					drawX, drawY);
+		}
+		// If the character is not moving, but attacking.
+		else if (this.isAttacking() == true) {
+			currentWeapon.draw(batch, this);
 		}
-		// If the character overlaps with obstacles.
+		// If the character is stationary, it is drawn looking in its direction.
 		else {
-			// If the character is facing right.
-			if (this.getDirection() == Direction.RIGHT) {
-				// Shifts the character back and draws the appropriate frame.
-				this.setX(this.getX() - 1);
-				batch.draw(walkRightFrames[0], this.getX(), this.getY());
-			} else if (this.getDirection() == Direction.LEFT) {
-				// Shifts the character back and draws the appropriate frame.
-				this.setX(this.getX() + 1);
-				batch.draw(walkLeftFrames[0], this.getX(), this.getY());
-			} else if (this.getDirection() == Direction.UP) {
-				// Shifts the character back and draws the appropriate frame.
-				this.setY(this.getY() - 1);
-				batch.draw(walkUpFrames[0], this.getX(), this.getY());
-			} else if (this.getDirection() == Direction.DOWN) {
-				// Shifts the character back and draws the appropriate frame.
-				this.setY(this.getY() + 1);
-				batch.draw(walkDownFrames[0], this.getX(), this.getY());
-			}
+			batch.draw(animations.getFirstFrame(Archetype.PLAYER, AnimationState.WALK, this.getDirection()),
+					drawX, drawY);
 		}
-		batch.end();
-
-		// bound main character to the rectangle defined by mapWidth, mapHeight
-		this.setX(MathUtils.clamp(this.getX(), 20, PlayScreen.getWidth() - this.getWidth() - 80));
-		this.setY(MathUtils.clamp(this.getY(), 30, PlayScreen.getHeight() - this.getHeight() - 60));
+	}
+	
+	/**
+	 * Gets the x-position that the player is drawn at in this frame.
+	 * @return drawX
+	 */
+	public float getDrawX() {
+		return drawX;
+	}
+	
+	/**
+	 * Gets the y-position that the player is drawn at in this frame.
+	 * @return drawY
+	 */
+	public float getDrawY() {
+		return drawY;
 	}
 	
 	/**
@@ -233,10 +191,26 @@ public class Player extends Actor {
 	 * @return boundary : returns the boundary of the player
 	 */
 	public Rectangle getBoundingRectangle() {
-		boundary.set(this.getX(), this.getY(), walkLeftFrames[0].getRegionWidth(), walkLeftFrames[0].getRegionHeight());
+		// The size is the size of the first frame, unless it was set.
+		if (boundaryWidth == 0) {
+			TextureRegion frame = ((DungeonDoom) Gdx.app.getApplicationListener()).getAnimations()
+					.getFirstFrame(Archetype.PLAYER, AnimationState.WALK, Direction.LEFT);
+			setBoundingSize(frame.getRegionWidth(), frame.getRegionHeight());
+		}
+		boundary.set(this.getX(), this.getY(), boundaryWidth, boundaryHeight);
 		return boundary;
 	}
 
+	/**
+	 * Sets the size of the bounding rectangle, for a player that is never drawn.
+	 * @param width : the width of the boundary
+	 * @param height : the height of the boundary
+	 */
+	public void setBoundingSize(float width, float height) {
+		boundaryWidth = width;
+		boundaryHeight = height;
+	}
+
 	/**
 	 * Returns the player.
 	 * @return player
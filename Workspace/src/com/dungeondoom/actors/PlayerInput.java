@@ -0,0 +1,94 @@
+package com.dungeondoom.actors;
+
+/**
+ * @author Roshan Munjal
+ * The PlayerInput is what the player wants to do during one tick: which
+ * way to walk, whether to run, attack or quit. The game only reads the
+ * player's wishes from here, so it does not matter whether they came from
+ * the keyboard or from a program playing the game without a window.
+ */
+public class PlayerInput {
+
+	// The direction to walk in, or null to stand still.
+	private Direction move;
+
+	// Whether the player runs (if it has the stamina), starts an attack, or gives up.
+	private boolean sprint = false;
+	private boolean attack = false;
+	private boolean quit = false;
+
+	/**
+	 * Forgets everything, which leaves the player standing still.
+	 */
+	public void clear() {
+		move = null;
+		sprint = false;
+		attack = false;
+		quit = false;
+	}
+
+	/**
+	 * Gets the direction to walk in.
+	 * @return move : the direction, or null to stand still
+	 */
+	public Direction getMove() {
+		return move;
+	}
+
+	/**
+	 * Sets the direction to walk in.
+	 * @param move : the direction, or null to stand still
+	 */
+	public void setMove(Direction move) {
+		this.move = move;
+	}
+
+	/**
+	 * Checks if the player wants to run.
+	 * @return sprint
+	 */
+	public boolean isSprint() {
+		return sprint;
+	}
+
+	/**
+	 * Sets whether the player wants to run.
+	 * @param sprint : true to run
+	 */
+	public void setSprint(boolean sprint) {
+		this.sprint = sprint;
+	}
+
+	/**
+	 * Checks if the player wants to start an attack.
+	 * @return attack
+	 */
+	public boolean isAttack() {
+		return attack;
+	}
+
+	/**
+	 * Sets whether the player wants to start an attack.
+	 * @param attack : true to attack
+	 */
+	public void setAttack(boolean attack) {
+		this.attack = attack;
+	}
+
+	/**
+	 * Checks if the player wants to give up.
+	 * @return quit
+	 */
+	public boolean isQuit() {
+		return quit;
+	}
+
+	/**
+	 * Sets whether the player wants to give up.
+	 * @param quit : true to give up
+	 */
+	public void setQuit(boolean quit) {
+		this.quit = quit;
+	}
+
+}
@@ -0,0 +1,200 @@
+package com.dungeondoom.assets;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.utils.Disposable;
+import com.dungeondoom.actors.Direction;
+
+/**
+ * @author Roshan Munjal
+ * The AnimationLibrary holds every animation in the game. The sprite
+ * sheets are only cut up once, and every player, ghost and weapon looks
+ * up its animation by archetype, state and direction instead of building
+ * its own. This means an entity only has to keep track of how long it
+ * has been animating. The animations are shared, so they must never be
+ * changed (for example with setFrameDuration) by the classes using them.
+ * All the sheets are regions of the game atlas, which also holds the other
+ * gameplay sprites, such as the coin.
+ */
+public class AnimationLibrary implements Disposable {
+
+	// The regions of the game atlas that the animations are cut from.
+	private static final String PLAYER_SHEET = "MainCharacterWalkingSprite";
+	private static final String GHOST_SHEET = "EnemySpriteSheet1";
+	private static final String LIGHT_GHOST_SHEET = "EnemySpriteSheet1Light";
+	private static final String WEAPON_SHEET = "MainCharacterPhysicalAttackSprite";
+
+	// Variables to know the number of columns and rows in each sprite sheet.
+	private static final int PLAYER_COLS = 9, PLAYER_ROWS = 4;
+	private static final int GHOST_COLS = 12, GHOST_ROWS = 8, GHOST_FRAMES = 9;
+	private static final int WEAPON_COLS = 6, WEAPON_ROWS = 4;
+
+	// The number of frames in an attack, and the time each one is shown for. The attack ends on its last frame.
+	public static final int ATTACK_FRAMES = WEAPON_COLS;
+	public static final float ATTACK_FRAME_TIME = 1 / 40f;
+
+	// The number of archetypes, states and directions, used to index the animations.
+	private static final int STATES = AnimationState.values().length;
+	private static final int DIRECTIONS = Direction.values().length;
+
+	// The registry that holds the game atlas.
+	private AssetRegistry assets;
+	private TextureAtlas atlas;
+
+	// Every animation, stored by archetype, then state, then direction.
+	private Animation[] animations;
+
+	/**
+	 * Constructor for the AnimationLibrary class.
+	 * @param assets : the registry to load the sprite sheets from
+	 */
+	public AnimationLibrary(AssetRegistry assets) {
+		this.assets = assets;
+		atlas = assets.acquireAtlas(AssetRegistry.GAME_ATLAS);
+		animations = new Animation[Archetype.values().length * STATES * DIRECTIONS];
+		create();
+	}
+
+	/**
+	 * Cuts up all the sprite sheets and creates the animations.
+	 */
+	private void create() {
+		// The rows of the player sheet go up, left, down and right.
+		TextureRegion[][] playerFrames = split(PLAYER_SHEET, PLAYER_COLS, PLAYER_ROWS);
+		addRows(Archetype.PLAYER, AnimationState.WALK, playerFrames, PLAYER_COLS, 1 / 15f,
+				Direction.UP, Direction.LEFT, Direction.DOWN, Direction.RIGHT);
+		addRows(Archetype.PLAYER, AnimationState.RUN, playerFrames, PLAYER_COLS, 1 / 30f,
+				Direction.UP, Direction.LEFT, Direction.DOWN, Direction.RIGHT);
+
+		// The rows of the ghost sheets go down, left, right and up.
+		addRows(Archetype.GHOST, AnimationState.WALK, split(GHOST_SHEET, GHOST_COLS, GHOST_ROWS), GHOST_FRAMES, 1 / 5f,
+				Direction.DOWN, Direction.LEFT, Direction.RIGHT, Direction.UP);
+		addRows(Archetype.GHOST, AnimationState.PHASE, split(LIGHT_GHOST_SHEET, GHOST_COLS, GHOST_ROWS), GHOST_FRAMES, 1 / 5f,
+				Direction.DOWN, Direction.LEFT, Direction.RIGHT, Direction.UP);
+
+		// The rows of the attack sheet go up, left, down and right.
+		addRows(Archetype.WEAPON, AnimationState.ATTACK, split(WEAPON_SHEET, WEAPON_COLS, WEAPON_ROWS), ATTACK_FRAMES, ATTACK_FRAME_TIME,
+				Direction.UP, Direction.LEFT, Direction.DOWN, Direction.RIGHT);
+	}
+
+	/**
+	 * Cuts up a sprite sheet from the atlas into frames.
+	 * @param regionName : the sprite sheet
+	 * @param cols : the number of columns in the sheet
+	 * @param rows : the number of rows in the sheet
+	 * @return frames : the frames, by row and then column
+	 */
+	private TextureRegion[][] split(String regionName, int cols, int rows) {
+		TextureRegion sheet = getRegion(regionName);
+		return sheet.split(sheet.getRegionWidth() / cols, sheet.getRegionHeight() / rows);
+	}
+
+	/**
+	 * Gets the size of a frame of an archetype from the description of the game atlas, without
+	 * loading any textures. This is the size the sheets are cut into, for running the game without a window.
+	 * @param atlasData : the description of the game atlas
+	 * @param archetype : the archetype
+	 * @return size : the width and height of a frame
+	 */
+	public static GridPoint2 getFrameSize(TextureAtlasData atlasData, Archetype archetype) {
+		GridPoint2 size;
+		switch (archetype) {
+		case PLAYER:
+			size = getRegionSize(atlasData, PLAYER_SHEET);
+			return size.set(size.x / PLAYER_COLS, size.y / PLAYER_ROWS);
+		case GHOST:
+			size = getRegionSize(atlasData, GHOST_SHEET);
+			return size.set(size.x / GHOST_COLS, size.y / GHOST_ROWS);
+		default:
+			size = getRegionSize(atlasData, WEAPON_SHEET);
+			return size.set(size.x / WEAPON_COLS, size.y / WEAPON_ROWS);
+		}
+	}
+
+	/**
+	 * Gets the size of a sprite from the description of the game atlas, without loading any textures.
+	 * @param atlasData : the description of the game atlas
+	 * @param regionName : the name of the image the sprite was packed from
+	 * @return size : the width and height of the sprite
+	 */
+	public static GridPoint2 getRegionSize(TextureAtlasData atlasData, String regionName) {
+		for (TextureAtlasData.Region region : atlasData.getRegions()) {
+			if (region.name.equals(regionName)) {
+				return region.rotate ? new GridPoint2(region.height, region.width) : new GridPoint2(region.width, region.height);
+			}
+		}
+		throw new IllegalArgumentException("The game atlas has no region called " + regionName);
+	}
+
+	/**
+	 * Gets a sprite from the game atlas.
+	 * @param regionName : the name of the image the sprite was packed from
+	 * @return region : the region of the atlas
+	 */
+	public TextureRegion getRegion(String regionName) {
+		TextureRegion region = atlas.findRegion(regionName);
+		if (region == null) {
+			throw new IllegalArgumentException("The game atlas has no region called " + regionName);
+		}
+		return region;
+	}
+
+	/**
+	 * Creates one animation for each row of frames.
+	 * @param archetype : the archetype the animations belong to
+	 * @param state : the state the animations show
+	 * @param frames : the frames of the sprite sheet
+	 * @param length : the number of frames in each animation
+	 * @param frameDuration : the time each frame is shown for
+	 * @param rowDirections : the direction of each row in the sheet
+	 */
+	private void addRows(Archetype archetype, AnimationState state, TextureRegion[][] frames, int length,
+			float frameDuration, Direction... rowDirections) {
+		for (int row = 0; row < rowDirections.length; row++) {
+			TextureRegion[] rowFrames = new TextureRegion[length];
+			System.arraycopy(frames[row], 0, rowFrames, 0, length);
+			animations[index(archetype, state, rowDirections[row])] = new Animation(frameDuration, rowFrames);
+		}
+	}
+
+	/**
+	 * Gets the position of an animation in the array of animations.
+	 */
+	private static int index(Archetype archetype, AnimationState state, Direction direction) {
+		return (archetype.ordinal() * STATES + state.ordinal()) * DIRECTIONS + direction.ordinal();
+	}
+
+	/**
+	 * Gets a shared animation.
+	 * @param archetype : the thing being animated
+	 * @param state : the state it is in
+	 * @param direction : the direction it is facing
+	 * @return animation : the animation, or null if the archetype has no such state
+	 */
+	public Animation get(Archetype archetype, AnimationState state, Direction direction) {
+		return animations[index(archetype, state, direction)];
+	}
+
+	/**
+	 * Gets the first frame of an animation, which is used when standing still.
+	 * @param archetype : the thing being animated
+	 * @param state : the state it is in
+	 * @param direction : the direction it is facing
+	 * @return frame : the first frame
+	 */
+	public TextureRegion getFirstFrame(Archetype archetype, AnimationState state, Direction direction) {
+		return animations[index(archetype, state, direction)].getKeyFrames()[0];
+	}
+
+	/**
+	 * Releases the game atlas.
+	 */
+	@Override
+	public void dispose() {
+		assets.release(AssetRegistry.GAME_ATLAS);
+	}
+
+}
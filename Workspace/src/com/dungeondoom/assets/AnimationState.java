@@ -0,0 +1,14 @@
+package com.dungeondoom.assets;
+
+/**
+ * @author Roshan Munjal
+ * The enumeration AnimationState lists the states that an
+ * archetype can be animated in. Not every archetype has every
+ * state (for example, only the ghost can phase through walls).
+ */
+public enum AnimationState {
+	WALK,
+	RUN,
+	PHASE,
+	ATTACK
+}
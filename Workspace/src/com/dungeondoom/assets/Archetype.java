@@ -0,0 +1,13 @@
+package com.dungeondoom.assets;
+
+/**
+ * @author Roshan Munjal
+ * The enumeration Archetype lists every kind of animated
+ * thing in the game. Every instance of an archetype shares
+ * the same animations from the AnimationLibrary.
+ */
+public enum Archetype {
+	PLAYER,
+	GHOST,
+	WEAPON
+}
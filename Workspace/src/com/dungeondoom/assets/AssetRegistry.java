@@ -0,0 +1,287 @@
+package com.dungeondoom.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * @author Roshan Munjal
+ * The AssetRegistry is the one place in the game where textures are
+ * loaded. Every texture is only decoded and uploaded once, no matter
+ * how many coins, ghosts or screens use it. Each user acquires the
+ * texture and releases it when it is done, and the texture is disposed
+ * once the last user has released it. The AssetManager underneath only
+ * ever holds one reference per file, and the registry keeps the count of
+ * users itself. Most sprites are packed into texture atlases by the
+ * AtlasPacker, and are looked up as regions of those atlases.
+ *
+ * Assets can also be preloaded in the background. The AssetManager decodes
+ * images and parses maps on its own thread, and the registry is updated by
+ * the LoadingScreen once per frame to upload what is ready to the GPU,
+ * within a time budget. The time each asset took to load is recorded.
+ */
+public class AssetRegistry implements Disposable {
+
+	// The atlas with every sprite drawn during gameplay.
+	public static final String GAME_ATLAS = "assets/game.atlas";
+	
+	// The atlas with the buttons and icons of the menu screens.
+	public static final String UI_ATLAS = "assets/ui.atlas";
+
+	// The font of the HUD, which the FontBaker bakes at the size it is drawn at.
+	public static final String HUD_FONT = "assets/hud.fnt";
+
+	// The asset manager that actually loads and stores the assets.
+	private AssetManager manager;
+
+	// The number of users of each file that is loaded.
+	private ObjectIntMap<String> referenceCounts;
+	
+	// The files that are being preloaded, and the time they were queued at.
+	private Array<String> pending = new Array<>();
+	private ObjectFloatMap<String> queuedAt = new ObjectFloatMap<>();
+	
+	// The time in milliseconds that each file took to load.
+	private ObjectFloatMap<String> loadTimes = new ObjectFloatMap<>();
+	
+	// The time that the registry was created at, which preload times are measured from.
+	private long createdAt = TimeUtils.nanoTime();
+
+	/**
+	 * Constructor for the AssetRegistry class.
+	 */
+	public AssetRegistry() {
+		manager = new AssetManager();
+		referenceCounts = new ObjectIntMap<>();
+	}
+
+	/**
+	 * Gets a shared texture, loading it the first time it is asked for.
+	 * Every call must be matched by a call to release.
+	 * @param fileName : the internal path of the texture
+	 * @return texture : the shared texture
+	 */
+	public Texture acquireTexture(String fileName) {
+		return acquire(fileName, Texture.class);
+	}
+
+	/**
+	 * Gets a shared texture atlas, loading it the first time it is asked for.
+	 * Every call must be matched by a call to release.
+	 * @param fileName : the internal path of the .atlas file
+	 * @return atlas : the shared atlas
+	 */
+	public TextureAtlas acquireAtlas(String fileName) {
+		return acquire(fileName, TextureAtlas.class);
+	}
+
+	/**
+	 * Gets a shared bitmap font, loading it the first time it is asked for.
+	 * Every call must be matched by a call to release.
+	 * @param fileName : the internal path of the .fnt file
+	 * @return font : the shared font
+	 */
+	public BitmapFont acquireFont(String fileName) {
+		return acquire(fileName, BitmapFont.class);
+	}
+
+	/**
+	 * Gets a shared TiledMap, loading it the first time it is asked for.
+	 * Every call must be matched by a call to release.
+	 * @param fileName : the internal path of the .tmx file
+	 * @return map : the shared map
+	 */
+	public TiledMap acquireMap(String fileName) {
+		return acquire(fileName, TiledMap.class);
+	}
+
+	/**
+	 * Gets a shared asset, loading it the first time it is asked for.
+	 * @param fileName : the internal path of the asset
+	 * @param type : the class of the asset
+	 * @return asset : the shared asset
+	 */
+	private <T> T acquire(String fileName, Class<T> type) {
+		// The asset is queued by the first user, the same way as a preload.
+		preload(fileName, type);
+		
+		// If the asset is not ready yet, the rest of the loading is done right now.
+		if (!manager.isLoaded(fileName, type)) {
+			manager.finishLoading();
+			recordLoaded();
+		}
+		return manager.get(fileName, type);
+	}
+
+	/**
+	 * Starts loading an asset in the background. The preload counts as a user of the
+	 * asset, so it must be released once the screen that needs it has acquired it.
+	 * @param fileName : the internal path of the asset
+	 * @param type : the class of the asset
+	 */
+	public void preload(String fileName, Class<?> type) {
+		if (referenceCounts.getAndIncrement(fileName, 0, 1) == 0) {
+			manager.load(fileName, type);
+			pending.add(fileName);
+			queuedAt.put(fileName, millisSinceCreated(TimeUtils.nanoTime()));
+		}
+	}
+
+	/**
+	 * Carries on loading the preloaded assets. This must be called on the render thread,
+	 * because that is where the textures are uploaded to the GPU.
+	 * @param budgetMillis : the longest time to spend loading during this call
+	 * @return done : true once every preloaded asset is loaded
+	 */
+	public boolean update(int budgetMillis) {
+		boolean done = manager.update(budgetMillis);
+		recordLoaded();
+		return done;
+	}
+
+	/**
+	 * Gets how much of the preloading is done.
+	 * @return progress : between 0 and 1
+	 */
+	public float getProgress() {
+		return manager.getProgress();
+	}
+
+	/**
+	 * Gets the time an asset took to load, from being queued to being ready.
+	 * @param fileName : the internal path of the asset
+	 * @return loadMillis : the time in milliseconds, or -1 if it has not been loaded
+	 */
+	public float getLoadMillis(String fileName) {
+		return loadTimes.get(fileName, -1);
+	}
+
+	/**
+	 * Records the load time of the pending assets that have finished loading.
+	 */
+	private void recordLoaded() {
+		for (int i = pending.size - 1; i >= 0; i--) {
+			String fileName = pending.get(i);
+			if (manager.isLoaded(fileName)) {
+				float millis = millisSinceCreated(TimeUtils.nanoTime()) - queuedAt.get(fileName, 0);
+				loadTimes.put(fileName, millis);
+				queuedAt.remove(fileName, 0);
+				pending.removeIndex(i);
+				Gdx.app.log("AssetRegistry", fileName + " loaded in " + millis + " ms");
+			}
+		}
+	}
+
+	/**
+	 * Gets the time in milliseconds between the registry being created and the given time.
+	 */
+	private float millisSinceCreated(long nanoTime) {
+		return (nanoTime - createdAt) / 1000000f;
+	}
+
+	/**
+	 * Releases an asset that was acquired. The asset is disposed once nobody uses it.
+	 * @param fileName : the internal path of the asset
+	 */
+	public void release(String fileName) {
+		int count = referenceCounts.get(fileName, 0);
+		
+		// The texture is unloaded (and disposed) when the last user releases it.
+		if (count == 1) {
+			referenceCounts.remove(fileName, 0);
+			pending.removeValue(fileName, false);
+			queuedAt.remove(fileName, 0);
+			manager.unload(fileName);
+		} else if (count > 1) {
+			referenceCounts.put(fileName, count - 1);
+		}
+	}
+
+	/**
+	 * Gets the amount of users that currently hold an asset.
+	 * @param fileName : the internal path of the asset
+	 * @return referenceCount : 0 if the asset is not loaded
+	 */
+	public int getReferenceCount(String fileName) {
+		return referenceCounts.get(fileName, 0);
+	}
+
+	/**
+	 * Gets the number of textures that are currently alive, including the pages of atlases.
+	 * @return liveTextures
+	 */
+	public int getLiveTextureCount() {
+		int count = 0;
+		Array<String> names = manager.getAssetNames();
+		for (int i = 0; i < names.size; i++) {
+			if (manager.getAssetType(names.get(i)) == Texture.class) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Gets an estimate of the memory used by all the textures that are alive.
+	 * @return liveBytes : the number of bytes used by live textures
+	 */
+	public long getLiveTextureBytes() {
+		long bytes = 0;
+		Array<String> names = manager.getAssetNames();
+		for (int i = 0; i < names.size; i++) {
+			if (manager.getAssetType(names.get(i)) == Texture.class) {
+				Texture texture = manager.get(names.get(i), Texture.class);
+				bytes += (long) texture.getWidth() * texture.getHeight() * getBytesPerPixel(texture);
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Gets the asset manager behind the registry.
+	 * @return manager
+	 */
+	public AssetManager getManager() {
+		return manager;
+	}
+
+	/**
+	 * Gets the number of bytes that one pixel of the texture uses on the GPU.
+	 * @param texture : the texture to check
+	 * @return bytesPerPixel
+	 */
+	private static int getBytesPerPixel(Texture texture) {
+		switch (texture.getTextureData().getFormat()) {
+		case Alpha:
+		case Intensity:
+			return 1;
+		case LuminanceAlpha:
+		case RGB565:
+		case RGBA4444:
+			return 2;
+		case RGB888:
+			return 3;
+		default:
+			return 4;
+		}
+	}
+
+	/**
+	 * Disposes every asset that is still loaded.
+	 */
+	@Override
+	public void dispose() {
+		referenceCounts.clear();
+		pending.clear();
+		manager.dispose();
+	}
+
+}
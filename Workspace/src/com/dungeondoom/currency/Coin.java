@@ -1,51 +1,67 @@
 package com.dungeondoom.currency;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.dungeondoom.main.DungeonDoom;
+import com.dungeondoom.world.EntityStore;
 
 /**
  * @author Roshan Munjal
  * The Coin class is used to represent Coin objects in an abstract
- * way in the game itself. All the properties of Coin are stored
- * here for convenience and to implement the Waterfall effect.
+ * way in the game itself. The coins themselves are kept in an
+ * EntityStore, and one Coin object holds what they all share:
+ * the sprite and the size they are drawn at.
  */
-public class Coin extends Actor {
-	
-	// Important textures to draw the coin.
-	private Rectangle boundary;
-	
-	// The coin texture.
-	private Texture coinTexture;
-	
+public class Coin {
+
+	// The coin sprite in the game atlas, which is shared by all the coins.
+	public static final String COIN_REGION = "CoinImage";
+	private TextureRegion coinRegion;
+
+	// The size of a coin, which is an eighth of the sprite.
+	public static final int SPRITE_SCALE = 8;
+	private float width, height;
+
 	/**
 	 * Constructor for the Coin class.
 	 */
 	public Coin() {
-		// Sets the boundary and the coin texture.
-		boundary = new Rectangle();
-		coinTexture = new Texture(Gdx.files.internal("assets/CoinImage.png"));
+		// Sets the coin sprite and its size.
+		coinRegion = ((DungeonDoom) Gdx.app.getApplicationListener()).getAnimations().getRegion(COIN_REGION);
+		width = coinRegion.getRegionWidth() / SPRITE_SCALE;
+		height = coinRegion.getRegionHeight() / SPRITE_SCALE;
+	}
+
+	/**
+	 * Constructor for the Coin class without a sprite, for running coins that are never drawn.
+	 * @param width : the width of a coin
+	 * @param height : the height of a coin
+	 */
+	public Coin(float width, float height) {
+		this.width = width;
+		this.height = height;
 	}
-	
+
 	/**
-	 * Gets the bounding rectangle.
-	 * @return boundary : the bounding rectangle
+	 * Adds a new coin to a store.
+	 * @param store : the store the coins live in
+	 * @param x : the x-position of the coin
+	 * @param y : the y-position of the coin
+	 * @return handle : the handle of the new coin
 	 */
-	public Rectangle getBoundingRectangle() {
-		boundary.set(this.getX(), this.getY(), coinTexture.getWidth() / 8, coinTexture.getHeight() / 8);
-		return boundary;
+	public int spawn(EntityStore store, float x, float y) {
+		return store.add(x, y, width, height);
 	}
-	
+
 	/**
-	 * Draws the coin as needed.
-	 * @param batch : the batch needed to draw the coin.
+	 * Draws a coin.
+	 * @param batch : the batch needed to draw the coin, which must already be begun.
+	 * @param store : the store the coins live in
+	 * @param index : the index of the coin in the store
 	 */
-	public void draw(SpriteBatch batch) {
-		batch.begin();
-		batch.draw(coinTexture, this.getX(), this.getY(), coinTexture.getWidth() / 8, coinTexture.getHeight() / 8);
-		batch.end();
+	public void draw(SpriteBatch batch, EntityStore store, int index) {
+		batch.draw(coinRegion, store.x[index], store.y[index], width, height);
 	}
-	
+
 }
@@ -0,0 +1,59 @@
+package com.dungeondoom.effects;
+
+import com.badlogic.gdx.utils.Pool.Poolable;
+import com.dungeondoom.actors.Direction;
+
+/**
+ * @author Roshan Munjal
+ * An Effect is a short animation that plays once at a spot in the world,
+ * such as a ghost fading away after it is killed. Effects come from a pool
+ * in the EffectSystem, so they are reused instead of being created for
+ * every kill. Resetting an effect puts it back the way it was before it
+ * was spawned.
+ */
+public class Effect implements Poolable {
+
+	// Where the effect is, which way it faces, and how long it lasts.
+	float x, y;
+	Direction direction;
+	float duration;
+
+	// The time the effect has been playing for.
+	float elapsedTime;
+
+	/**
+	 * Constructor for the Effect class. Effects are only created by the pool.
+	 */
+	Effect() {
+		reset();
+	}
+
+	/**
+	 * Gets how far through the effect is.
+	 * @return progress : between 0 and 1
+	 */
+	public float getProgress() {
+		return duration <= 0 ? 1 : Math.min(1, elapsedTime / duration);
+	}
+
+	/**
+	 * Checks if the effect has finished playing.
+	 * @return finished
+	 */
+	public boolean isFinished() {
+		return elapsedTime >= duration;
+	}
+
+	/**
+	 * Puts the effect back in its spawn state.
+	 */
+	@Override
+	public void reset() {
+		x = 0;
+		y = 0;
+		direction = Direction.DOWN;
+		duration = 0;
+		elapsedTime = 0;
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.dungeondoom.effects;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.dungeondoom.actors.Direction;
+import com.dungeondoom.assets.AnimationLibrary;
+import com.dungeondoom.assets.AnimationState;
+import com.dungeondoom.assets.Archetype;
+import com.dungeondoom.world.TrackedPool;
+
+/**
+ * @author Roshan Munjal
+ * The EffectSystem plays the short effects of the game, which for now is a
+ * ghost fading away where it was killed. The effects are taken from a pool
+ * that is filled before the game starts, moved on every tick, and given
+ * back to the pool when they finish, so playing effects creates nothing
+ * while the game runs. The effects are drawn into the frame batch.
+ */
+public class EffectSystem {
+
+	// The number of effects that are created before the game starts.
+	private static final int PREWARM_COUNT = 16;
+
+	// The time a killed ghost takes to fade away, in seconds.
+	private static final float GHOST_FADE_TIME = 0.4f;
+
+	// The effects that are playing, and the pool they come from.
+	private Array<Effect> active = new Array<>(false, PREWARM_COUNT);
+	private TrackedPool<Effect> pool = new TrackedPool<Effect>(PREWARM_COUNT, 256) {
+		@Override
+		protected Effect newObject() {
+			return new Effect();
+		}
+	};
+
+	// The animations the effects are drawn with.
+	private AnimationLibrary animations;
+
+	/**
+	 * Constructor for the EffectSystem class.
+	 * @param animations : the animations the effects are drawn with
+	 */
+	public EffectSystem(AnimationLibrary animations) {
+		this.animations = animations;
+		pool.prewarm(PREWARM_COUNT);
+	}
+
+	/**
+	 * Starts a ghost fading away.
+	 * @param x : the x-position of the ghost
+	 * @param y : the y-position of the ghost
+	 * @param direction : the direction the ghost was facing
+	 */
+	public void spawnGhostFade(float x, float y, Direction direction) {
+		Effect effect = pool.obtain();
+		effect.x = x;
+		effect.y = y;
+		effect.direction = direction;
+		effect.duration = GHOST_FADE_TIME;
+		active.add(effect);
+	}
+
+	/**
+	 * Moves every effect on by one tick, and gives the finished ones back to the pool.
+	 * @param delta : the length of the tick
+	 */
+	public void update(float delta) {
+		for (int i = active.size - 1; i >= 0; i--) {
+			Effect effect = active.get(i);
+			effect.elapsedTime += delta;
+			if (effect.isFinished()) {
+				active.removeIndex(i);
+				pool.free(effect);
+			}
+		}
+	}
+
+	/**
+	 * Draws every effect. The batch must already be begun.
+	 * @param batch : the batch to draw with
+	 */
+	public void draw(SpriteBatch batch) {
+		float previousColor = batch.getPackedColor();
+		for (int i = 0; i < active.size; i++) {
+			Effect effect = active.get(i);
+			TextureRegion frame = animations.getFirstFrame(Archetype.GHOST, AnimationState.PHASE, effect.direction);
+			batch.setColor(1, 1, 1, 1 - effect.getProgress());
+			batch.draw(frame, effect.x, effect.y);
+		}
+		batch.setColor(previousColor);
+	}
+
+	/**
+	 * Gives every playing effect back to the pool.
+	 */
+	public void clear() {
+		pool.freeAll(active);
+		active.clear();
+	}
+
+	/**
+	 * Gets the number of effects that are playing.
+	 * @return activeCount
+	 */
+	public int getActiveCount() {
+		return active.size;
+	}
+
+	/**
+	 * Gets the pool the effects come from, which counts its hits and peak size.
+	 * @return pool
+	 */
+	public TrackedPool<Effect> getPool() {
+		return pool;
+	}
+
+}
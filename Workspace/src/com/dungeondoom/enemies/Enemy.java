@@ -1,134 +1,74 @@
 package com.dungeondoom.enemies;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.dungeondoom.actors.Direction;
+import com.dungeondoom.actors.Player;
+import com.dungeondoom.world.EntityStore;
+import com.dungeondoom.world.FlowField;
 
 /**
  * @author Roshan Munjal
  * This is an abstract class originally meant for enemies to
  * be derived from. However, now, it just serves as a filler
- * class, since the only enemy implemented is Ghost.
+ * class, since the only enemy implemented is Ghost. An Enemy
+ * holds no state of its own: the enemies themselves live in an
+ * EntityStore, and one Enemy object describes how every enemy
+ * of its kind behaves and looks. Every enemy is updated in two
+ * steps by the EnemySystem: think decides where it wants to go,
+ * and the store then moves it there. Drawing an enemy never
+ * changes it.
  */
-public abstract class Enemy extends Actor {
-	
-	// Declares the necessary values for every Enemy.
-	protected TextureRegion region;
-	protected Rectangle boundary;
-	protected float velocityX;
-	protected float velocityY;
-	protected Direction direction;
-	protected boolean overlapsWithObstacles;
+public abstract class Enemy {
+
+	// The directions, by ordinal, which is how the store keeps them.
+	protected static final Direction[] DIRECTIONS = Direction.values();
+
+	// The damage this kind of enemy does.
 	private int damageRating;
-	
+
 	/**
 	 * Empty constructor for abstract Enemy.
 	 */
 	protected Enemy() {
-		
-	}
-	
-	/*
-	 * Tells the enemy to act (move).
-	 */
-	public void act(float dt) {
-		super.act(dt);
-		moveBy(velocityX * dt, velocityY * dt);
-	}
 
-	/**
-	 * Sets the texture of the enemy.
-	 * @param texture : the assigned texture
-	 */
-	public void setTexture(Texture texture) {
-		int w = texture.getWidth();
-		int h = texture.getHeight();
-		setWidth(w);
-		setHeight(h);
-		region.setRegion(texture);
-	}
-	
-	/**
-	 * Draws the texture on the screen (abstract).
-	 * @param batch : the batch needed to draw textures
-	 */
-	public abstract void draw(SpriteBatch batch);
-	
-	/**
-	 * Gets the x-velocity of the enemy.
-	 * @return velocityX
-	 */
-	public float getVelocityX() {
-		return this.velocityX;
-	}
-	
-	/**
-	 * Sets the x-velocity of the enemy.
-	 * @param velocityX : the velocity to be set for the x-direction
-	 */
-	public void setVelocityX(float velocityX) {
-		this.velocityX = velocityX;
-	}
-	
-	/**
-	 * Gets the y-velocity of the enemy.
-	 * @return velocityY
-	 */
-	public float getVelocityY() {
-		return this.velocityY;
-	}
-	
-	/**
-	 * Sets the y-velocity of the enemy.
-	 * @param velocityY : the velocity to be set for the y-direction
-	 */
-	public void setVelocityY(float velocityY) {
-		this.velocityY = velocityY;
-	}
-	
-	/**
-	 * Gets the direction of the enemy.
-	 * @return direction
-	 */
-	public Direction getDirection() {
-		return direction;
 	}
 
 	/**
-	 * Sets the direction of the enemy.
-	 * @param direction : the direction the enemy should go in.
+	 * Adds a new enemy of this kind to a store.
+	 * @param store : the store the enemy lives in
+	 * @param x : the x-position of the enemy
+	 * @param y : the y-position of the enemy
+	 * @param speed : the speed the enemy moves at
+	 * @return handle : the handle of the new enemy
 	 */
-	public void setDirection(Direction direction) {
-		this.direction = direction;
-	}
+	public abstract int spawn(EntityStore store, float x, float y, float speed);
 
 	/**
-	 * Gets the bounding rectangle around the enemy.
-	 * @return boundary
+	 * Checks if this kind of enemy is stopped by obstacles. Solid enemies are moved
+	 * with the collider of the EnemySystem, and slide along walls.
+	 * @return solid
 	 */
-	public Rectangle getBoundingRectangle() {
-		boundary.set(this.getX(), this.getY(), this.getWidth(), this.getHeight());
-		return boundary;
+	public boolean isSolid() {
+		return true;
 	}
 
 	/**
-	 * Checks if the enemy overlaps with obstacles.
-	 * @return overlapsWithObstacles
+	 * Decides how an enemy moves during the next tick, by setting its velocity and direction.
+	 * @param store : the store the enemy lives in
+	 * @param index : the index of the enemy in the store
+	 * @param target : the player that the enemy is after
+	 * @param field : the way to the player around the obstacles, or null if there is none
 	 */
-	public boolean overlapsWithObstacles() {
-		return overlapsWithObstacles;
-	}
+	public abstract void think(EntityStore store, int index, Player target, FlowField field);
 
 	/**
-	 * Sets if the enemy overlaps with obstacles.
-	 * @param overlapsWithObstacles : the variable to set if the enemy overlaps with obstacles
+	 * Draws an enemy on the screen (abstract). This must only read the state of the enemy.
+	 * @param batch : the batch needed to draw textures, which must already be begun
+	 * @param store : the store the enemy lives in
+	 * @param index : the index of the enemy in the store
+	 * @param alpha : how far the frame is between the last two ticks, from 0 to 1
 	 */
-	public void setOverlapsWithObstacles(boolean overlapsWithObstacles) {
-		this.overlapsWithObstacles = overlapsWithObstacles;
-	}
+	public abstract void draw(SpriteBatch batch, EntityStore store, int index, float alpha);
 
 	/**
 	 * Gets the damage rating.
@@ -145,5 +85,5 @@ public abstract class Enemy extends Actor {
 	public void setDamageRating(int damageRating) {
 		this.damageRating = damageRating;
 	}
-	
+
 }
@@ -0,0 +1,269 @@
+package com.dungeondoom.enemies;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.dungeondoom.actors.Player;
+import com.dungeondoom.world.CollisionGrid;
+import com.dungeondoom.world.EntityStore;
+import com.dungeondoom.world.FlowField;
+import com.dungeondoom.world.ParallelSweep;
+import com.dungeondoom.world.SweptCollider;
+
+/**
+ * @author Roshan Munjal
+ * The EnemySystem is the update phase of the enemies. Every tick, before
+ * anything is drawn, it lets each enemy think (choose its velocity and
+ * direction) and then moves it. The two steps can also be run on their own,
+ * so the AI can be timed or benchmarked without the rest of the game. An
+ * active area can be set, and enemies outside of it skip thinking and keep
+ * going the way they were going, which is useful when they are off screen.
+ * Both steps are straight sweeps through the arrays of an EntityStore.
+ * If a flow field is set, it is moved to the player once at the start of
+ * thinking, and every enemy reads its way around the walls from it.
+ *
+ * Every step only changes the enemy it is working on, so each one is run
+ * through a ParallelSweep, which splits the enemies across threads when it
+ * is in parallel mode. Each thread moves its enemies with its own copy of
+ * the collider.
+ */
+public class EnemySystem {
+
+	// The area that enemies have to be in to think, or null for everywhere.
+	private Rectangle activeArea;
+
+	// Moves solid enemies through the obstacles, or null to let everything through.
+	private SweptCollider collider;
+
+	// A copy of the collider for each thread, for moving in parallel.
+	private ThreadLocal<SweptCollider> threadColliders;
+
+	// The way to the player around the obstacles, or null to chase in a straight line.
+	private FlowField flowField;
+
+	// Runs the steps over the enemies, on one thread or many.
+	private ParallelSweep sweep = new ParallelSweep();
+
+	// What the steps are working on, while they run.
+	private EntityStore currentStore;
+	private Enemy currentKind;
+	private Player currentTarget;
+	private CollisionGrid currentGrid;
+	private float currentDelta;
+	private AtomicInteger thoughts = new AtomicInteger();
+
+	// Counters for the last update.
+	private int thinkCount = 0; // The number of enemies that thought.
+	private int skipCount = 0; // The number of enemies that were outside the active area.
+	private long thinkNanos = 0; // The time spent thinking.
+	private long moveNanos = 0; // The time spent moving.
+
+	// Lets each enemy in a range think, if it is in the active area.
+	private ParallelSweep.Range thinkRange = new ParallelSweep.Range() {
+		@Override
+		public void run(int from, int to) {
+			int count = 0;
+			for (int i = from; i < to; i++) {
+				if (activeArea == null || currentStore.overlaps(i, activeArea)) {
+					currentKind.think(currentStore, i, currentTarget, flowField);
+					count++;
+				}
+			}
+			thoughts.addAndGet(count);
+		}
+	};
+
+	// Moves each enemy in a range, sweeping it through the obstacles if it is solid.
+	private ParallelSweep.Range moveRange = new ParallelSweep.Range() {
+		@Override
+		public void run(int from, int to) {
+			if (collider != null && currentKind.isSolid()) {
+				SweptCollider rangeCollider = sweep.isParallel() ? threadColliders.get() : collider;
+				rangeCollider.moveRange(currentStore, from, to, currentDelta);
+			} else {
+				currentStore.integrate(from, to, currentDelta);
+			}
+		}
+	};
+
+	// Marks each enemy in a range that is inside an obstacle.
+	private ParallelSweep.Range obstacleRange = new ParallelSweep.Range() {
+		@Override
+		public void run(int from, int to) {
+			EntityStore store = currentStore;
+			for (int i = from; i < to; i++) {
+				store.setFlag(i, EntityStore.FLAG_OVERLAPS_OBSTACLES, currentGrid.overlaps(store.x[i], store.y[i], store.width[i], store.height[i]));
+			}
+		}
+	};
+
+	/**
+	 * Runs one tick of the enemies: all of them think first, then all of them move.
+	 * @param store : the enemies to update
+	 * @param kind : the kind of enemy that is in the store
+	 * @param target : the player that the enemies are after
+	 * @param delta : the length of the tick
+	 */
+	public void update(EntityStore store, Enemy kind, Player target, float delta) {
+		think(store, kind, target);
+		move(store, kind, delta);
+	}
+
+	/**
+	 * Lets every enemy in the active area decide how it moves.
+	 * @param store : the enemies to update
+	 * @param kind : the kind of enemy that is in the store
+	 * @param target : the player that the enemies are after
+	 */
+	public void think(EntityStore store, Enemy kind, Player target) {
+		long start = TimeUtils.nanoTime();
+
+		// Moves the flow field to the middle of the player, once for every enemy.
+		if (flowField != null) {
+			Rectangle bounds = target.getBoundingRectangle();
+			flowField.update(bounds.x + bounds.width / 2, bounds.y + bounds.height / 2);
+		}
+
+		currentStore = store;
+		currentKind = kind;
+		currentTarget = target;
+		thoughts.set(0);
+		sweep.run(store.size, thinkRange);
+		thinkCount = thoughts.get();
+		skipCount = store.size - thinkCount;
+		thinkNanos = TimeUtils.nanoTime() - start;
+	}
+
+	/**
+	 * Moves every enemy by its velocity. Solid enemies are swept through the obstacles.
+	 * @param store : the enemies to move
+	 * @param kind : the kind of enemy that is in the store
+	 * @param delta : the length of the tick
+	 */
+	public void move(EntityStore store, Enemy kind, float delta) {
+		long start = TimeUtils.nanoTime();
+		currentStore = store;
+		currentKind = kind;
+		currentDelta = delta;
+		sweep.run(store.size, moveRange);
+		moveNanos = TimeUtils.nanoTime() - start;
+	}
+
+	/**
+	 * Marks every enemy that is inside an obstacle with EntityStore.FLAG_OVERLAPS_OBSTACLES.
+	 * @param store : the enemies to check
+	 * @param grid : the obstacles
+	 */
+	public void markObstacles(EntityStore store, CollisionGrid grid) {
+		currentStore = store;
+		currentGrid = grid;
+		sweep.run(store.size, obstacleRange);
+	}
+
+	/**
+	 * Sets the collider that solid enemies are moved with.
+	 * @param collider : the collider, or null to let every enemy move through obstacles
+	 */
+	public void setCollider(final SweptCollider collider) {
+		this.collider = collider;
+		if (collider == null) {
+			threadColliders = null;
+		} else {
+			threadColliders = new ThreadLocal<SweptCollider>() {
+				@Override
+				protected SweptCollider initialValue() {
+					return new SweptCollider(collider.getGrid());
+				}
+			};
+		}
+	}
+
+	/**
+	 * Sets the flow field that enemies find their way to the player with.
+	 * @param flowField : the flow field, or null to chase the player in a straight line
+	 */
+	public void setFlowField(FlowField flowField) {
+		this.flowField = flowField;
+	}
+
+	/**
+	 * Gets the flow field that enemies find their way to the player with.
+	 * @return flowField
+	 */
+	public FlowField getFlowField() {
+		return flowField;
+	}
+
+	/**
+	 * Gets the sweep that the steps are run with, which can be switched to parallel mode.
+	 * @return sweep
+	 */
+	public ParallelSweep getSweep() {
+		return sweep;
+	}
+
+	/**
+	 * Sets the sweep that the steps are run with.
+	 * @param sweep : the sweep
+	 */
+	public void setSweep(ParallelSweep sweep) {
+		this.sweep = sweep;
+	}
+
+	/**
+	 * Sets the area that enemies have to be in to think.
+	 * @param activeArea : the area, or null to let every enemy think
+	 */
+	public void setActiveArea(Rectangle activeArea) {
+		this.activeArea = activeArea;
+	}
+
+	/**
+	 * Gets the area that enemies have to be in to think.
+	 * @return activeArea
+	 */
+	public Rectangle getActiveArea() {
+		return activeArea;
+	}
+
+	/**
+	 * Gets the number of enemies that thought in the last update.
+	 * @return thinkCount
+	 */
+	public int getThinkCount() {
+		return thinkCount;
+	}
+
+	/**
+	 * Gets the number of enemies that were outside the active area in the last update.
+	 * @return skipCount
+	 */
+	public int getSkipCount() {
+		return skipCount;
+	}
+
+	/**
+	 * Gets the time the enemies spent thinking in the last update, in nanoseconds.
+	 * @return thinkNanos
+	 */
+	public long getThinkNanos() {
+		return thinkNanos;
+	}
+
+	/**
+	 * Gets the time spent moving the enemies in the last update, in nanoseconds.
+	 * @return moveNanos
+	 */
+	public long getMoveNanos() {
+		return moveNanos;
+	}
+
+	/**
+	 * Shuts down the threads of the sweep, if it made any.
+	 */
+	public void dispose() {
+		sweep.dispose();
+	}
+
+}
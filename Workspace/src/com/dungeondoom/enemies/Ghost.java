@@ -1,13 +1,17 @@
 package com.dungeondoom.enemies;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.MathUtils;
 import com.dungeondoom.actors.Direction;
-import com.dungeondoom.screens.PlayScreen;
+import com.dungeondoom.actors.Player;
+import com.dungeondoom.assets.AnimationLibrary;
+import com.dungeondoom.assets.AnimationState;
+import com.dungeondoom.assets.Archetype;
+import com.dungeondoom.main.DungeonDoom;
+import com.dungeondoom.world.EntityStore;
+import com.dungeondoom.world.FlowField;
 
 /**
  * @author Roshan Munjal
@@ -15,212 +19,138 @@ import com.dungeondoom.screens.PlayScreen;
  * Enemy class. Thus, it is the only form of Enemy that was
  * created thus far. The Ghost is a special enemy that can
  * walk through walls and speeds up as more Ghosts die. The
- * only inappropriate thing about the Ghost class is that it
- * uses a static mainCharacter in order to access its positions.
- * This is needed for the game, and is only one instance of
- * bad programming principles.
+ * player that the Ghost chases is passed in by the EnemySystem,
+ * so the Ghost does not need to know about the PlayScreen. The
+ * ghosts themselves are kept in an EntityStore, and one Ghost
+ * object is shared by all of them. When there is a flow field,
+ * ghosts follow it around the walls instead of phasing through
+ * them, and they only chase in a straight line once they are in
+ * the player's tile or somewhere the field does not reach.
  */
 public class Ghost extends Enemy {
 
-	// Variables to track speed of the ghost and time.
-	private float elapsedTime = 0;
-	private float baseSpeed;
-
-	// Variables to know the number of columns and rows in the sprite sheet.
-	private static final int FRAME_COLS_GHOST = 12, FRAME_ROWS_GHOST = 8;
-
-	// Animations for the ghost.
-	private Animation ghostLeftAnimation, ghostRightAnimation, ghostUpAnimation, ghostDownAnimation;
-	private Animation lightGhostLeftAnimation, lightGhostRightAnimation, lightGhostUpAnimation, lightGhostDownAnimation;
-
-	// Textures and TextureRegions needed for ghosts.
-	private Texture lightGhostSheet;
-	private TextureRegion[][] allLightGhostFrames;
-	private TextureRegion[] lightGhostUpFrames = new TextureRegion[9];
-	private TextureRegion[] lightGhostDownFrames = new TextureRegion[9];
-	private TextureRegion[] lightGhostRightFrames = new TextureRegion[9];
-	private TextureRegion[] lightGhostLeftFrames = new TextureRegion[9];
-	
-	// Textures and TextureRegions needed for ghosts.
-	private Texture ghostSheet;
-	private TextureRegion[][] allGhostFrames;
-	private TextureRegion[] ghostUpFrames = new TextureRegion[9];
-	private TextureRegion[] ghostDownFrames = new TextureRegion[9];
-	private TextureRegion[] ghostRightFrames = new TextureRegion[9];
-	private TextureRegion[] ghostLeftFrames = new TextureRegion[9];
-
-	// Properties of the ghost.
-	private boolean isEnemyAlive = true;
+	// How far from the middle of its tile a ghost can be before it lines up again, in pixels.
+	private static final float ALIGN_DISTANCE = 2;
+
+	// The animations, and the size of a ghost, which is the size of its first frame.
+	private AnimationLibrary animations;
+	private float width, height;
 
 	/**
 	 * Constructor for Ghost class.
 	 */
 	public Ghost() {
 		super();
-		
-		// Creates all necessary textures and settings that need to be done.
-		this.region = new TextureRegion();
-		this.boundary = new Rectangle();
-		this.setDirection(Direction.DOWN);
+
+		// Gets the animations and the settings that every ghost shares.
+		animations = ((DungeonDoom) Gdx.app.getApplicationListener()).getAnimations();
+		TextureRegion frame = animations.getFirstFrame(Archetype.GHOST, AnimationState.WALK, Direction.DOWN);
+		width = frame.getRegionWidth();
+		height = frame.getRegionHeight();
 		this.setDamageRating(10);
-		
-		// Creates other variables.
-		create();
 	}
 
 	/**
-	 * Creates all necessary variables/animations/etc. needed for the Ghost.
+	 * Constructor for Ghost class without any animations, for running ghosts that are never drawn.
+	 * @param width : the width of a ghost
+	 * @param height : the height of a ghost
 	 */
-	public void create() {
-		// Initializes the sprite sheet of ghosts.
-		ghostSheet = new Texture(Gdx.files.internal("assets/EnemySpriteSheet1.png"));
-
-		// Cuts up the sprite sheet into frames.
-		allGhostFrames = TextureRegion.split(ghostSheet, ghostSheet.getWidth() / FRAME_COLS_GHOST,
-				ghostSheet.getHeight() / FRAME_ROWS_GHOST);
-
-		// Initializing frames to be used to create the animations.
-		for (int i = 0; i < 9; i++) {
-			ghostDownFrames[i] = allGhostFrames[0][i];
-			ghostLeftFrames[i] = allGhostFrames[1][i];
-			ghostRightFrames[i] = allGhostFrames[2][i];
-			ghostUpFrames[i] = allGhostFrames[3][i];
-		}
-
-		// Creating all animations for the walking sprite.
-		ghostUpAnimation = new Animation(1 / 5f, ghostUpFrames);
-		ghostLeftAnimation = new Animation(1 / 5f, ghostLeftFrames);
-		ghostDownAnimation = new Animation(1 / 5f, ghostDownFrames);
-		ghostRightAnimation = new Animation(1 / 5f, ghostRightFrames);
-		
-		// Creates the transparent ghost sheet.
-		lightGhostSheet = new Texture(Gdx.files.internal("assets/EnemySpriteSheet1Light.png"));
-
-		// Cuts the transparent ghost sheet into frames.
-		allLightGhostFrames = TextureRegion.split(lightGhostSheet, ghostSheet.getWidth() / FRAME_COLS_GHOST,
-				ghostSheet.getHeight() / FRAME_ROWS_GHOST);
-
-		// Initializing frames to be used to create the animations.
-		for (int i = 0; i < 9; i++) {
-			lightGhostDownFrames[i] = allLightGhostFrames[0][i];
-			lightGhostLeftFrames[i] = allLightGhostFrames[1][i];
-			lightGhostRightFrames[i] = allLightGhostFrames[2][i];
-			lightGhostUpFrames[i] = allLightGhostFrames[3][i];
-		}
-
-		// Creating all animations for the walking sprite.
-		lightGhostUpAnimation = new Animation(1 / 5f, lightGhostUpFrames);
-		lightGhostLeftAnimation = new Animation(1 / 5f, lightGhostLeftFrames);
-		lightGhostDownAnimation = new Animation(1 / 5f, lightGhostDownFrames);
-		lightGhostRightAnimation = new Animation(1 / 5f, lightGhostRightFrames);
+	public Ghost(float width, float height) {
+		super();
+		this.width = width;
+		this.height = height;
+		this.setDamageRating(10);
 	}
-	
+
 	/**
-	 * Draws and updates the Ghost based on its state.
-	 * @param batch : the batch used to draw things
+	 * Adds a new ghost to a store, facing down.
 	 */
 	@Override
-	public void draw(SpriteBatch batch) {
-		batch.begin();
-		elapsedTime += Gdx.graphics.getDeltaTime();
-
-		// If the main character is to the right more than to the up/down.
-		if (Math.abs(this.getX() - PlayScreen.mainCharacter.getX()) > Math.abs(this.getY() - PlayScreen.mainCharacter.getY())) {
-			if (this.getX() <= PlayScreen.mainCharacter.getX()) {
-				// The ghost moves horizontally right.
-				this.setVelocityX(baseSpeed);
-				this.setVelocityY(0);
-				this.setDirection(Direction.RIGHT);
-				
-				if (this.overlapsWithObstacles() == false) {
-					batch.draw(ghostRightAnimation.getKeyFrame(elapsedTime, true), this.getX(), this.getY());
-				}
-				else {
-					batch.draw(lightGhostRightAnimation.getKeyFrame(elapsedTime, true), this.getX(), this.getY());
-				}
-			} else if (this.getX() > PlayScreen.mainCharacter.getX()) {
-				// The ghost moves horizontally left.
-				this.setVelocityX(-baseSpeed);
-				this.setVelocityY(0);
-				this.setDirection(Direction.LEFT);
-				
-				if (this.overlapsWithObstacles() == false) {
-					batch.draw(ghostLeftAnimation.getKeyFrame(elapsedTime, true), this.getX(), this.getY());
-				}
-				else {
-					batch.draw(lightGhostLeftAnimation.getKeyFrame(elapsedTime, true), this.getX(), this.getY());
-				}
-			}
-		} else {
-			if (this.getY() <= PlayScreen.mainCharacter.getY()) {
-				// The ghost moves vertically up.
-				this.setVelocityX(0);
-				this.setVelocityY(baseSpeed);
-				this.setDirection(Direction.UP);
-				
-				if (this.overlapsWithObstacles() == false) {
-					batch.draw(ghostUpAnimation.getKeyFrame(elapsedTime, true), this.getX(), this.getY());
-				}
-				else {
-					batch.draw(lightGhostUpAnimation.getKeyFrame(elapsedTime, true), this.getX(), this.getY());
-				}
-			} else if (this.getY() > PlayScreen.mainCharacter.getY()) {
-				// The ghost moves vertically down.
-				this.setVelocityX(0);
-				this.setVelocityY(-baseSpeed);
-				this.setDirection(Direction.DOWN);
-				
-				if (this.overlapsWithObstacles() == false) {
-					batch.draw(ghostDownAnimation.getKeyFrame(elapsedTime, true), this.getX(), this.getY());
-				}
-				else {
-					batch.draw(lightGhostDownAnimation.getKeyFrame(elapsedTime, true), this.getX(), this.getY());
-				}
-			}
-		}
-
-		batch.end();
+	public int spawn(EntityStore store, float x, float y, float speed) {
+		int handle = store.add(x, y, width, height);
+		int index = store.indexOf(handle);
+		store.speed[index] = speed;
+		store.direction[index] = Direction.DOWN.ordinal();
+		return handle;
 	}
 
 	/**
-	 * Gets the bounding rectangle for the Ghost.
-	 * @return boundary
+	 * Ghosts go straight through walls, so they are never stopped by obstacles.
 	 */
-	public Rectangle getBoundingRectangle() {
-		boundary.set(this.getX(), this.getY(), allGhostFrames[0][0].getRegionWidth(), allGhostFrames[0][0].getRegionHeight());
-		return boundary;
+	@Override
+	public boolean isSolid() {
+		return false;
 	}
 
 	/**
-	 * Checks if the enemy is alive.
-	 * @return isEnemyAlive : boolean to test if the player is alive
+	 * Follows the flow field from the tile the middle of the ghost is in. The ghost lines up with
+	 * the middle of its tile before it turns, so that it does not cut through the corners of walls.
 	 */
-	public boolean isEnemyAlive() {
-		return isEnemyAlive;
+	@Override
+	public void think(EntityStore store, int index, Player target, FlowField field) {
+		if (field == null) {
+			chase(store, index, target);
+			return;
+		}
+		float tileWidth = field.getGrid().getTileWidth();
+		float tileHeight = field.getGrid().getTileHeight();
+		float centerX = store.x[index] + store.width[index] / 2;
+		float centerY = store.y[index] + store.height[index] / 2;
+		int tileX = MathUtils.floor(centerX / tileWidth);
+		int tileY = MathUtils.floor(centerY / tileHeight);
+
+		// Chases in a straight line in the player's tile, or where the field does not reach.
+		Direction step = field.getDirection(tileX, tileY);
+		if (step == null) {
+			chase(store, index, target);
+			return;
+		}
+
+		// Lines up across the way it is going before taking the step.
+		float offsetX = centerX - (tileX + 0.5f) * tileWidth;
+		float offsetY = centerY - (tileY + 0.5f) * tileHeight;
+		if ((step == Direction.LEFT || step == Direction.RIGHT) && Math.abs(offsetY) > ALIGN_DISTANCE) {
+			step = offsetY > 0 ? Direction.DOWN : Direction.UP;
+		} else if ((step == Direction.UP || step == Direction.DOWN) && Math.abs(offsetX) > ALIGN_DISTANCE) {
+			step = offsetX > 0 ? Direction.LEFT : Direction.RIGHT;
+		}
+		setHeading(store, index, step);
 	}
 
 	/**
-	 * Sets the enemy to alive (true) or not alive (false).
-	 * @param isEnemyAlive : sets the enemy to alive or not alive
+	 * Chases the player, going along whichever axis the player is further away on.
 	 */
-	public void setEnemyAlive(boolean isEnemyAlive) {
-		this.isEnemyAlive = isEnemyAlive;
+	private void chase(EntityStore store, int index, Player target) {
+		float x = store.x[index];
+		float y = store.y[index];
+
+		// If the main character is to the right more than to the up/down.
+		if (Math.abs(x - target.getX()) > Math.abs(y - target.getY())) {
+			setHeading(store, index, x <= target.getX() ? Direction.RIGHT : Direction.LEFT);
+		} else {
+			setHeading(store, index, y <= target.getY() ? Direction.UP : Direction.DOWN);
+		}
 	}
-	
+
 	/**
-	 * Gets the base speed of the ghost.
-	 * @return baseSpeed
+	 * Points a ghost in a direction, at its own speed.
 	 */
-	public float getBaseSpeed() {
-		return baseSpeed;
+	private void setHeading(EntityStore store, int index, Direction direction) {
+		float baseSpeed = store.speed[index];
+		store.velocityX[index] = direction == Direction.RIGHT ? baseSpeed : direction == Direction.LEFT ? -baseSpeed : 0;
+		store.velocityY[index] = direction == Direction.UP ? baseSpeed : direction == Direction.DOWN ? -baseSpeed : 0;
+		store.direction[index] = direction.ordinal();
 	}
 
 	/**
-	 * Sets the base speed of the ghost.
-	 * @param baseSpeed : the speed to set the ghost at
+	 * Draws a ghost based on its state.
 	 */
-	public void setBaseSpeed(float baseSpeed) {
-		this.baseSpeed = baseSpeed;
+	@Override
+	public void draw(SpriteBatch batch, EntityStore store, int index, float alpha) {
+		// The ghost is drawn transparent while it goes through an obstacle.
+		AnimationState state = store.hasFlag(index, EntityStore.FLAG_OVERLAPS_OBSTACLES) ? AnimationState.PHASE : AnimationState.WALK;
+		batch.draw(animations.get(Archetype.GHOST, state, DIRECTIONS[store.direction[index]]).getKeyFrame(store.animationTime[index], true),
+				store.getDrawX(index, alpha), store.getDrawY(index, alpha));
 	}
 
 }
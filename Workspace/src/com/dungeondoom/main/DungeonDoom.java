@@ -2,37 +2,90 @@ package com.dungeondoom.main;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.dungeondoom.screens.MainMenuScreen;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.dungeondoom.assets.AnimationLibrary;
+import com.dungeondoom.assets.AssetRegistry;
+import com.dungeondoom.render.FlushCountingBatch;
+import com.dungeondoom.screens.LoadingScreen;
+import com.dungeondoom.screens.LoadingScreen.Destination;
+import com.dungeondoom.telemetry.Telemetry;
+import com.dungeondoom.world.ScenarioConfig;
 
 /**
  * @author Roshan Munjal
  * This is the main DungeonDoom class that extends Game.
- * It contains objects such as the camera, the batch, and
- * the ShapeRenderer, all of which are objects that are
- * needed throughout all the classes.
+ * It contains objects such as the camera, the batch, the
+ * ShapeRenderer and the asset registry, all of which are
+ * objects that are needed throughout all the classes.
  */
 public class DungeonDoom extends Game {
 	
-	// This declares the mainMenu and the Orthographic camera needed.
-	public MainMenuScreen mainMenuScreen;
+	// This declares the Orthographic camera needed.
 	public OrthographicCamera camera;
 	
 	// The SpriteBatch and the ShapeRenderer are both initialized in this class.
-	public SpriteBatch batch;
+	public FlushCountingBatch batch;
 	public ShapeRenderer shapeRenderer;
 	
+	// The registry that shares textures between all the classes.
+	public AssetRegistry assets;
+	
+	// The animations that are shared by every player, ghost and weapon.
+	public AnimationLibrary animations;
+	
 	// Adds game music to the game.
 	public Music gameMusic;
 	
+	// The numbers that set up a game, which is a stress test if one was given on the command line.
+	private ScenarioConfig scenario;
+	
+	// Records what happens in the session, and the screens of a change of screen in this frame.
+	private Telemetry telemetry;
+	private String previousScreen, nextScreen;
+	
 	/**
 	 * Constructor for the DungeonDoom Game.
 	 */
 	public DungeonDoom() {
-		
+		this(new ScenarioConfig());
+	}
+	
+	/**
+	 * Constructor for the DungeonDoom Game, which plays a scenario.
+	 * @param scenario : the numbers that set up a game
+	 */
+	public DungeonDoom(ScenarioConfig scenario) {
+		this(scenario, new Telemetry());
+	}
+	
+	/**
+	 * Constructor for the DungeonDoom Game, which plays a scenario and records it.
+	 * @param scenario : the numbers that set up a game
+	 * @param telemetry : where what happens in the session is recorded
+	 */
+	public DungeonDoom(ScenarioConfig scenario, Telemetry telemetry) {
+		this.scenario = scenario;
+		this.telemetry = telemetry;
+	}
+
+	/**
+	 * Gets the numbers that set up a game.
+	 * @return scenario
+	 */
+	public ScenarioConfig getScenario() {
+		return scenario;
+	}
+
+	/**
+	 * Gets where what happens in the session is recorded.
+	 * @return telemetry
+	 */
+	public Telemetry getTelemetry() {
+		return telemetry;
 	}
 
 	/**
@@ -59,11 +112,31 @@ public class DungeonDoom extends Game {
 		return shapeRenderer;
 	}
 
+	/**
+	 * Returns the asset registry that every texture is loaded through.
+	 * @return assets
+	 */
+	public AssetRegistry getAssets() {
+		return assets;
+	}
+
+	/**
+	 * Returns the library of shared animations. The library is only created the first time
+	 * it is needed, so that the game atlas can be loaded by the loading screen first.
+	 * @return animations
+	 */
+	public AnimationLibrary getAnimations() {
+		if (animations == null) {
+			animations = new AnimationLibrary(assets);
+		}
+		return animations;
+	}
+
 	/**
 	 * Returns the sprite batch (the only one in the project) to be used my classes.
 	 * @return batch : the sprite batch used to draw things
 	 */
-	public SpriteBatch getBatch() {
+	public FlushCountingBatch getBatch() {
 		return batch;
 	}
 
@@ -73,12 +146,12 @@ public class DungeonDoom extends Game {
 	public void create() {
 		// Creates a camera, a batch, and a shapeRenderer.
 		camera = new OrthographicCamera();
-		batch = new SpriteBatch();
+		batch = new FlushCountingBatch();
 		shapeRenderer = new ShapeRenderer();
+		assets = new AssetRegistry();
 		
-		// Creates the main menu, sets it to the current screen, and runs the music.
-		mainMenuScreen = new MainMenuScreen(this);
-		setScreen(mainMenuScreen);
+		// Loads the main menu, or the game straight away for a stress test, sets the loading screen to the current screen, and runs the music.
+		setScreen(new LoadingScreen(this, scenario.isStressTest() ? Destination.PLAY : Destination.MAIN_MENU));
 		gameMusic = Gdx.audio.newMusic(Gdx.files.internal("music/Theme Music.mp3"));
 	}
 
@@ -86,11 +159,31 @@ public class DungeonDoom extends Game {
 	 * Renders the objects needed to be rendered.
 	 */
 	public void render() {
+		long start = TimeUtils.nanoTime();
 		super.render();
 		
 		// Constantly loops the music around.
 		gameMusic.setLooping(true);
 		gameMusic.play();
+		
+		// Records a change of screen with the whole frame it happened in, which includes making the new screen.
+		if (nextScreen != null) {
+			telemetry.screenChange(previousScreen, nextScreen, TimeUtils.nanoTime() - start);
+			nextScreen = null;
+		}
+	}
+
+	/**
+	 * Changes the screen, and remembers the change so that it is recorded at the end of the frame.
+	 * @param screen : the new screen
+	 */
+	@Override
+	public void setScreen(Screen screen) {
+		if (nextScreen == null) {
+			previousScreen = getScreen() == null ? "none" : getScreen().getClass().getSimpleName();
+		}
+		nextScreen = screen == null ? "none" : screen.getClass().getSimpleName();
+		super.setScreen(screen);
 	}
 
 	public void resize(int width, int height) {
@@ -99,6 +192,11 @@ public class DungeonDoom extends Game {
 
 	public void dispose() {
 		super.dispose();
+		telemetry.close();
+		if (animations != null) {
+			animations.dispose();
+		}
+		assets.dispose();
 	}
 
 	public void pause() {
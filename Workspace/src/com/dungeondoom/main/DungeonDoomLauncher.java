@@ -1,34 +1,52 @@
 package com.dungeondoom.main;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
+import com.dungeondoom.telemetry.Telemetry;
+import com.dungeondoom.world.ScenarioConfig;
 
 /**
  * @author Roshan Munjal
  * This is simply the launcher class for the DungeonDoom game.
  * It configures the size of the application and launcher it.
+ * With --scenario on the command line, it starts a stress test
+ * instead of the main menu, as described in ScenarioConfig, and with
+ * --telemetry <file> it writes every frame to the file, as described in
+ * Telemetry. The window and how fast it draws are set up from a profile,
+ * launcher.properties and the command line, as described in LaunchConfig.
  */
 public class DungeonDoomLauncher {
 
 	/**
 	 * The only main method in this project, because it needs to be called first.
-	 * @param args
+	 * @param args : --scenario, and the file and overrides of the scenario, to start a stress test, --telemetry and a file to record to, and the launch settings
 	 */
 	public static void main(String[] args) {
 
-		// Creates new game called my Duneoon.
-		DungeonDoom myProgram = new DungeonDoom();
+		// Creates new game called my Duneoon, which plays the scenario on the command line if there is one.
+		// It also writes every frame to a file if --telemetry is given.
+		ScenarioConfig scenario = ScenarioConfig.parse(args);
+		DungeonDoom myProgram = new DungeonDoom(scenario, Telemetry.parse(args));
 		
 		// Creates the jwlApplicatio to l
 		LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
 		
-		// Creates a title, initial widthand height of the student, and wait sof him t
+		// Creates a title, and sets up the size, frame rates, anti-aliasing and audio of this machine.
 		config.title = "Dungeon Doom";
-		config.width = 1280;
-		config.height = 960;
+		LaunchConfig launch = LaunchConfig.parse(args);
+		launch.apply(config);
+		
+		// A stress test can draw frames as fast as it is able to, rather than waiting for the screen, whatever the profile.
+		if (scenario.isVsync() == false) {
+			config.vSyncEnabled = false;
+			config.foregroundFPS = 0;
+			config.backgroundFPS = 0;
+		}
 		
 		// Starts the new application.
 		new LwjglApplication(myProgram, config);
+		Gdx.app.log("DungeonDoomLauncher", "Launched with " + launch.describe());
 
 	}
 
@@ -0,0 +1,314 @@
+package com.dungeondoom.main;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Properties;
+
+import com.badlogic.gdx.Graphics.DisplayMode;
+import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * @author Roshan Munjal
+ * The LaunchConfig holds how the window of the game is set up on this
+ * machine: its size, whether it is fullscreen, how fast frames are drawn
+ * in front and in the background, vsync, anti-aliasing and the audio
+ * buffers. It starts from a profile, which is a named set of these, is
+ * then changed by the file launcher.properties in the working folder, if
+ * there is one, and then by the command line, so each machine can be tuned
+ * without building the game again. Every key can be given on the command
+ * line as --key value, the same as in the file:
+ *     --profile battery-saver --config laptop.properties --width 1600 --height 900 --vsync false
+ */
+public class LaunchConfig {
+
+	// The command line flags that pick the profile and the file.
+	public static final String PROFILE_FLAG = "--profile", CONFIG_FLAG = "--config";
+
+	// The file that is read when none is given, if it is there.
+	public static final String DEFAULT_CONFIG = "launcher.properties";
+
+	// The keys of the properties.
+	public static final String PROFILE = "profile", WIDTH = "width", HEIGHT = "height", FULLSCREEN = "fullscreen", VSYNC = "vsync",
+			FOREGROUND_FPS = "foregroundFps", BACKGROUND_FPS = "backgroundFps", SAMPLES = "samples", AUDIO_BUFFER_SIZE = "audioBufferSize",
+			AUDIO_BUFFER_COUNT = "audioBufferCount", AUDIO_SOURCES = "audioSources";
+
+	// The keys that can be given on the command line.
+	private static final String[] KEYS = {WIDTH, HEIGHT, FULLSCREEN, VSYNC, FOREGROUND_FPS, BACKGROUND_FPS, SAMPLES, AUDIO_BUFFER_SIZE,
+			AUDIO_BUFFER_COUNT, AUDIO_SOURCES};
+
+	/**
+	 * The profiles, which each change some of the defaults.
+	 */
+	public enum Profile {
+		// The game as it has always been set up.
+		DEFAULT("default", ""),
+		// Draws as fast as it can and keeps the audio buffers short, for the least delay between a key and the screen.
+		LOW_LATENCY("low-latency", "vsync=false foregroundFps=0 backgroundFps=30 audioBufferSize=256 audioBufferCount=6"),
+		// Draws at 30 frames a second, and not at all while the window is in the background.
+		BATTERY_SAVER("battery-saver", "vsync=true foregroundFps=30 backgroundFps=-1 samples=0"),
+		// Never waits for the screen or slows down in the background, so that frame times can be compared.
+		BENCHMARK("benchmark", "vsync=false foregroundFps=0 backgroundFps=0 samples=0");
+
+		// The name of the profile, and what it changes.
+		private final String label;
+		private final String settings;
+
+		Profile(String label, String settings) {
+			this.label = label;
+			this.settings = settings;
+		}
+
+		/**
+		 * Gets the name the profile is picked with.
+		 * @return label
+		 */
+		public String getLabel() {
+			return label;
+		}
+
+		/**
+		 * Gets what the profile changes.
+		 * @return properties
+		 */
+		public Properties getProperties() {
+			Properties properties = new Properties();
+			for (String setting : settings.split(" ")) {
+				int equals = setting.indexOf('=');
+				if (equals > 0) {
+					properties.setProperty(setting.substring(0, equals), setting.substring(equals + 1));
+				}
+			}
+			return properties;
+		}
+
+		/**
+		 * Gets a profile by its name.
+		 * @param label : the name of the profile
+		 * @return profile
+		 */
+		public static Profile forLabel(String label) {
+			StringBuilder labels = new StringBuilder();
+			for (Profile profile : values()) {
+				if (profile.label.equals(label.trim())) {
+					return profile;
+				}
+				labels.append(labels.length() == 0 ? "" : ", ").append(profile.label);
+			}
+			throw new IllegalArgumentException("There is no launch profile called " + label + ", only " + labels);
+		}
+	}
+
+	// The profile the rest was changed from.
+	private Profile profile = Profile.DEFAULT;
+
+	// The size of the window, where 0 takes the size of the desktop, and whether it fills the screen.
+	private int width = 1280;
+	private int height = 960;
+	private boolean fullscreen = false;
+
+	// Checks if the frames wait for the screen to refresh.
+	private boolean vsync = true;
+
+	// The most frames a second in front and in the background, where 0 does not limit them and -1 in the background stops drawing.
+	private int foregroundFps = 60;
+	private int backgroundFps = 60;
+
+	// The number of samples of anti-aliasing, where 0 turns it off.
+	private int samples = 0;
+
+	// The size and number of the audio buffers, and the number of sounds that can play at once.
+	private int audioBufferSize = 512;
+	private int audioBufferCount = 9;
+	private int audioSources = 16;
+
+	/**
+	 * Reads the launch settings from the profile, the file and the command line, in that order.
+	 * @param args : the command line
+	 * @return config : the settings
+	 */
+	public static LaunchConfig parse(String[] args) {
+		// Reads the flags on the command line, and leaves the ones that belong to something else.
+		Properties flags = new Properties();
+		String fileName = null;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].startsWith("--") == false) {
+				continue;
+			}
+			String key = args[i].substring(2);
+			boolean known = args[i].equals(PROFILE_FLAG) || args[i].equals(CONFIG_FLAG);
+			for (int k = 0; k < KEYS.length && known == false; k++) {
+				known = KEYS[k].equals(key);
+			}
+			if (known) {
+				if (i + 1 >= args.length || args[i + 1].startsWith("--")) {
+					throw new IllegalArgumentException(args[i] + " needs a value");
+				}
+				if (args[i].equals(CONFIG_FLAG)) {
+					fileName = args[i + 1];
+				} else {
+					flags.setProperty(key, args[i + 1]);
+				}
+				i++;
+			}
+		}
+
+		// Reads the file, which must be there if it was given.
+		Properties file = new Properties();
+		FileHandle handle = new FileHandle(fileName != null ? fileName : DEFAULT_CONFIG);
+		if (fileName != null || handle.exists()) {
+			load(file, handle);
+		}
+
+		// Starts from the profile, which the command line picks over the file.
+		LaunchConfig config = new LaunchConfig();
+		String label = flags.getProperty(PROFILE, file.getProperty(PROFILE));
+		if (label != null) {
+			config.profile = Profile.forLabel(label);
+		}
+		config.set(config.profile.getProperties());
+		config.set(file);
+		config.set(flags);
+		return config;
+	}
+
+	/**
+	 * Reads the properties of a file.
+	 */
+	private static void load(Properties properties, FileHandle file) {
+		Reader reader = null;
+		try {
+			reader = file.reader();
+			properties.load(reader);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("The launch settings " + file.path() + " could not be read", e);
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (IOException e) {
+					// Nothing was written, so there is nothing to lose.
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets everything that the properties give, and leaves the rest as it was.
+	 * @param properties : the launch settings
+	 */
+	public void set(Properties properties) {
+		width = getInt(properties, WIDTH, width, 0);
+		height = getInt(properties, HEIGHT, height, 0);
+		fullscreen = getBoolean(properties, FULLSCREEN, fullscreen);
+		vsync = getBoolean(properties, VSYNC, vsync);
+		foregroundFps = getInt(properties, FOREGROUND_FPS, foregroundFps, 0);
+		backgroundFps = getInt(properties, BACKGROUND_FPS, backgroundFps, -1);
+		samples = getInt(properties, SAMPLES, samples, 0);
+		audioBufferSize = getInt(properties, AUDIO_BUFFER_SIZE, audioBufferSize, 1);
+		audioBufferCount = getInt(properties, AUDIO_BUFFER_COUNT, audioBufferCount, 1);
+		audioSources = getInt(properties, AUDIO_SOURCES, audioSources, 1);
+	}
+
+	/**
+	 * Gets a whole number from the properties.
+	 */
+	private static int getInt(Properties properties, String key, int defaultValue, int min) {
+		String value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			int number = Integer.parseInt(value.trim());
+			if (number < min) {
+				throw new IllegalArgumentException("The launch setting " + key + " cannot be less than " + min + ": " + value);
+			}
+			return number;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("The launch setting " + key + " is not a whole number: " + value);
+		}
+	}
+
+	/**
+	 * Gets true or false from the properties.
+	 */
+	private static boolean getBoolean(Properties properties, String key, boolean defaultValue) {
+		String value = properties.getProperty(key);
+		return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+	}
+
+	/**
+	 * Sets up the window with the settings.
+	 * @param config : the configuration of the window
+	 */
+	public void apply(LwjglApplicationConfiguration config) {
+		if (width == 0 || height == 0) {
+			DisplayMode desktop = LwjglApplicationConfiguration.getDesktopDisplayMode();
+			config.width = width == 0 ? desktop.width : width;
+			config.height = height == 0 ? desktop.height : height;
+		} else {
+			config.width = width;
+			config.height = height;
+		}
+		config.fullscreen = fullscreen;
+		config.vSyncEnabled = vsync;
+		config.foregroundFPS = foregroundFps;
+		config.backgroundFPS = backgroundFps;
+		config.samples = samples;
+		config.audioDeviceBufferSize = audioBufferSize;
+		config.audioDeviceBufferCount = audioBufferCount;
+		config.audioDeviceSimultaneousSources = audioSources;
+	}
+
+	/**
+	 * Describes the settings in one line, for the log.
+	 * @return description
+	 */
+	public String describe() {
+		return "profile " + profile.getLabel() + ", " + (width == 0 ? "desktop width" : width) + "x" + (height == 0 ? "desktop height" : height)
+				+ (fullscreen ? " fullscreen" : " windowed") + ", vsync " + (vsync ? "on" : "off") + ", " + describeFps(foregroundFps)
+				+ " in front, " + describeFps(backgroundFps) + " in the background, " + samples + " samples, audio " + audioBufferCount + "x"
+				+ audioBufferSize + " with " + audioSources + " sources";
+	}
+
+	/**
+	 * Describes a limit on the frames a second.
+	 */
+	private static String describeFps(int fps) {
+		return fps < 0 ? "paused" : fps == 0 ? "unlimited fps" : fps + " fps";
+	}
+
+	/**
+	 * Gets the profile the settings were changed from.
+	 * @return profile
+	 */
+	public Profile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Checks if the frames wait for the screen to refresh.
+	 * @return vsync
+	 */
+	public boolean isVsync() {
+		return vsync;
+	}
+
+	/**
+	 * Gets the most frames a second while the window is in front.
+	 * @return foregroundFps : the limit, or 0 if there is none
+	 */
+	public int getForegroundFps() {
+		return foregroundFps;
+	}
+
+	/**
+	 * Gets the most frames a second while the window is in the background.
+	 * @return backgroundFps : the limit, 0 if there is none, or -1 if nothing is drawn
+	 */
+	public int getBackgroundFps() {
+		return backgroundFps;
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.dungeondoom.render;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * @author Roshan Munjal
+ * The FlushCountingBatch is the SpriteBatch of the game, which also counts
+ * how many of its flushes were caused by a change of texture. The batch
+ * itself only counts every flush, which also includes the ones made
+ * because it was full and the one at the end, so this tells how much the
+ * order things are drawn in costs, rather than how much is drawn.
+ */
+public class FlushCountingBatch extends SpriteBatch {
+
+	// The number of flushes caused by a change of texture since the batch was begun.
+	private int textureFlushes = 0;
+
+	@Override
+	public void begin() {
+		super.begin();
+		textureFlushes = 0;
+	}
+
+	@Override
+	protected void switchTexture(Texture texture) {
+		// Only counts the switch if something was waiting to be drawn with the old texture.
+		int calls = renderCalls;
+		super.switchTexture(texture);
+		if (renderCalls > calls) {
+			textureFlushes++;
+		}
+	}
+
+	/**
+	 * Gets the number of flushes caused by a change of texture since the batch was last begun.
+	 * @return textureFlushes
+	 */
+	public int getTextureFlushes() {
+		return textureFlushes;
+	}
+
+}
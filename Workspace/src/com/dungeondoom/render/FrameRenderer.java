@@ -0,0 +1,122 @@
+package com.dungeondoom.render;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * @author Roshan Munjal
+ * The FrameRenderer is the stage of the PlayScreen that draws a frame.
+ * The batch is begun once at the start of the frame and ended once at the
+ * end, and everything in between (the map, the characters, the coins and
+ * the HUD) is submitted to that one batch. The batch then only flushes
+ * when the texture changes or when it is full. The health and stamina bars
+ * are drawn with a stretched white pixel instead of a ShapeRenderer, so
+ * they do not need a pass of their own. The pixel is part of the game
+ * atlas, so drawing the bars does not switch textures either. The frame
+ * counts its draw calls and, apart from them, the flushes that a change of
+ * texture caused, which are the ones the order of drawing can save.
+ */
+public class FrameRenderer {
+
+	// The batch that everything is drawn with.
+	private FlushCountingBatch batch;
+
+	// A single white pixel, used to draw bars and outlines.
+	private TextureRegion pixel;
+
+	// The colour of the batch before a bar is drawn.
+	private Color previousColor = new Color();
+
+	// Counters for the last frame that was drawn.
+	private int drawCalls = 0; // The number of draw calls, including the other renderers in the frame.
+	private int flushes = 0; // The number of times the batch was flushed because the texture changed.
+	private int extraDrawCalls = 0; // The draw calls made outside of the batch during the frame.
+
+	/**
+	 * Constructor for the FrameRenderer class.
+	 * @param batch : the batch to draw everything with
+	 * @param pixel : a region of a single white pixel
+	 */
+	public FrameRenderer(FlushCountingBatch batch, TextureRegion pixel) {
+		this.batch = batch;
+		this.pixel = pixel;
+	}
+
+	/**
+	 * Begins the frame. This should be called once, before anything is drawn.
+	 * @param camera : the camera the frame is viewed through
+	 */
+	public void begin(OrthographicCamera camera) {
+		extraDrawCalls = 0;
+		batch.setProjectionMatrix(camera.combined);
+		batch.begin();
+	}
+
+	/**
+	 * Ends the frame and records its counters. This should be called once, after everything is drawn.
+	 */
+	public void end() {
+		batch.end();
+
+		// The counters of the batch are reset every time it is begun.
+		flushes = batch.getTextureFlushes();
+		drawCalls = batch.renderCalls + extraDrawCalls;
+	}
+
+	/**
+	 * Records draw calls made by a renderer that does not use the batch.
+	 * @param calls : the number of draw calls made
+	 */
+	public void addDrawCalls(int calls) {
+		extraDrawCalls += calls;
+	}
+
+	/**
+	 * Draws a filled rectangle in the given colour.
+	 */
+	public void drawFilledRect(float x, float y, float width, float height, Color color) {
+		previousColor.set(batch.getColor());
+		batch.setColor(color);
+		batch.draw(pixel, x, y, width, height);
+		batch.setColor(previousColor);
+	}
+
+	/**
+	 * Draws the outline of a rectangle in the given colour.
+	 */
+	public void drawRectOutline(float x, float y, float width, float height, Color color) {
+		previousColor.set(batch.getColor());
+		batch.setColor(color);
+		batch.draw(pixel, x, y, width, 1);
+		batch.draw(pixel, x, y + height - 1, width, 1);
+		batch.draw(pixel, x, y, 1, height);
+		batch.draw(pixel, x + width - 1, y, 1, height);
+		batch.setColor(previousColor);
+	}
+
+	/**
+	 * Gets the batch that the frame is drawn with.
+	 * @return batch
+	 */
+	public FlushCountingBatch getBatch() {
+		return batch;
+	}
+
+	/**
+	 * Gets the number of draw calls in the last frame.
+	 * @return drawCalls
+	 */
+	public int getDrawCalls() {
+		return drawCalls;
+	}
+
+	/**
+	 * Gets the number of times the batch was flushed because the texture changed in the last frame.
+	 * @return flushes
+	 */
+	public int getFlushes() {
+		return flushes;
+	}
+
+}
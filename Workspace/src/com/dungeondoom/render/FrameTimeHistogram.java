@@ -0,0 +1,135 @@
+package com.dungeondoom.render;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * @author Roshan Munjal
+ * The FrameTimeHistogram counts how long the frames took, in buckets of a
+ * tenth of a millisecond, so that a run of any length takes the same small
+ * amount of memory and recording a frame costs almost nothing. From the
+ * buckets it gives the percentiles of the frame times, such as the median
+ * and the slowest one in a hundred, which say much more about stutter than
+ * the average does. The slowest frame is kept exactly.
+ */
+public class FrameTimeHistogram {
+
+	// The width of a bucket, and the longest frame time with a bucket of its own, in milliseconds.
+	public static final float BUCKET_MILLIS = 0.1f;
+	public static final float MAX_MILLIS = 250;
+
+	// The number of frames in each bucket. The last bucket holds every frame longer than MAX_MILLIS.
+	private int[] buckets = new int[(int) (MAX_MILLIS / BUCKET_MILLIS) + 1];
+
+	// The number of frames, their total time and the longest one, in milliseconds.
+	private int count = 0;
+	private double totalMillis = 0;
+	private float maxMillis = 0;
+
+	/**
+	 * Records how long a frame took.
+	 * @param seconds : the length of the frame
+	 */
+	public void record(float seconds) {
+		float millis = seconds * 1000;
+		buckets[Math.min((int) (millis / BUCKET_MILLIS), buckets.length - 1)]++;
+		count++;
+		totalMillis += millis;
+		maxMillis = Math.max(maxMillis, millis);
+	}
+
+	/**
+	 * Forgets every frame.
+	 */
+	public void clear() {
+		Arrays.fill(buckets, 0);
+		count = 0;
+		totalMillis = 0;
+		maxMillis = 0;
+	}
+
+	/**
+	 * Gets the frame time that a share of the frames were no longer than.
+	 * @param percentile : the share of the frames, from 0 to 100
+	 * @return millis : the top of the bucket the percentile falls in, or the longest frame if that is shorter
+	 */
+	public float getPercentile(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(percentile / 100 * count);
+		long seen = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			seen += buckets[i];
+			if (seen >= rank && seen > 0) {
+				return Math.min((i + 1) * BUCKET_MILLIS, maxMillis);
+			}
+		}
+		return maxMillis;
+	}
+
+	/**
+	 * Describes the frame times in one line.
+	 * @return description
+	 */
+	public String describe() {
+		return String.format("%d frames, mean %.2f ms, p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms", count, getMeanMillis(),
+				getPercentile(50), getPercentile(95), getPercentile(99), maxMillis);
+	}
+
+	/**
+	 * Writes the frame times to a file: a line for the percentiles, then the number of frames in each bucket that has any.
+	 * @param file : the file to write to
+	 * @param title : the first line of the file, such as what was being run
+	 */
+	public void write(FileHandle file, String title) {
+		Writer writer = file.writer(false, "UTF-8");
+		try {
+			writer.write(title + "\n");
+			writer.write(describe() + "\n");
+			writer.write("millis\tframes\n");
+			for (int i = 0; i < buckets.length; i++) {
+				if (buckets[i] > 0) {
+					writer.write(String.format("%.1f\t%d\n", i * BUCKET_MILLIS, buckets[i]));
+				}
+			}
+		} catch (IOException e) {
+			throw new GdxRuntimeException("The frame times could not be written to " + file.path(), e);
+		} finally {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				throw new GdxRuntimeException("The frame times could not be written to " + file.path(), e);
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of frames.
+	 * @return count
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the average frame time.
+	 * @return meanMillis
+	 */
+	public float getMeanMillis() {
+		return count == 0 ? 0 : (float) (totalMillis / count);
+	}
+
+	/**
+	 * Gets the longest frame time.
+	 * @return maxMillis
+	 */
+	public float getMaxMillis() {
+		return maxMillis;
+	}
+
+}
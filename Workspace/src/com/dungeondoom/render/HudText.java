@@ -0,0 +1,84 @@
+package com.dungeondoom.render;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+
+/**
+ * @author Roshan Munjal
+ * A HudText is one piece of text on the HUD, such as the number of coins or
+ * the label next to it. Drawing text straight from a font works out where
+ * every glyph goes each time it is drawn, although the HUD hardly ever
+ * changes, so each piece of text is laid out once into a font cache of its
+ * own, and only laid out again when its number changes. Drawing it is then
+ * just a copy of the vertices that are already in the cache.
+ */
+public class HudText {
+
+	// The glyphs of the text, already laid out.
+	private BitmapFontCache cache;
+
+	// The digits of the number, if the text is a number.
+	private NumberText number = new NumberText();
+
+	// The number the text was last laid out for, and if it needs to be laid out again.
+	private int value;
+	private boolean dirty = true;
+
+	// Where the text is drawn, from its top left.
+	private float x, y;
+
+	/**
+	 * Constructor for the HudText class.
+	 * @param font : the font the text is written in
+	 * @param x : the left of the text
+	 * @param y : the top of the text
+	 */
+	public HudText(BitmapFont font, float x, float y) {
+		cache = new BitmapFontCache(font, font.usesIntegerPositions());
+		this.x = x;
+		this.y = y;
+	}
+
+	/**
+	 * Constructor for the HudText class, with text that never changes.
+	 * @param font : the font the text is written in
+	 * @param text : the text
+	 * @param x : the left of the text
+	 * @param y : the top of the text
+	 */
+	public HudText(BitmapFont font, CharSequence text, float x, float y) {
+		this(font, x, y);
+		setText(text);
+	}
+
+	/**
+	 * Lays out the text.
+	 * @param text : the text
+	 */
+	public void setText(CharSequence text) {
+		cache.setText(text, x, y);
+		dirty = true;
+	}
+
+	/**
+	 * Lays out the text of a number, if it is not already laid out for it.
+	 * @param value : the number
+	 */
+	public void setNumber(int value) {
+		if (dirty || value != this.value) {
+			this.value = value;
+			cache.setText(number.set(value), x, y);
+			dirty = false;
+		}
+	}
+
+	/**
+	 * Draws the text.
+	 * @param batch : the batch to draw with, which must already be begun
+	 */
+	public void draw(Batch batch) {
+		cache.draw(batch);
+	}
+
+}
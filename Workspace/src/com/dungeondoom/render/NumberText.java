@@ -0,0 +1,43 @@
+package com.dungeondoom.render;
+
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * @author Roshan Munjal
+ * A NumberText is the text of a number that is drawn every frame, such as
+ * the number of coins on the HUD. Integer.toString makes a new string each
+ * time it is called, which every frame adds up to a steady stream of
+ * garbage, so the digits are written into a buffer of their own instead,
+ * and only when the number changes. The text can be drawn straight from
+ * the buffer, since a font draws any CharSequence.
+ */
+public class NumberText {
+
+	// The digits of the number.
+	private StringBuilder text = new StringBuilder(12);
+
+	// The number the text was last written for.
+	private int value;
+
+	/**
+	 * Constructor for the NumberText class.
+	 */
+	public NumberText() {
+		text.append(value);
+	}
+
+	/**
+	 * Gets the text of a number, which is only rewritten if the number has changed.
+	 * @param value : the number
+	 * @return text : the digits of the number, which change the next time this is called
+	 */
+	public CharSequence set(int value) {
+		if (value != this.value) {
+			this.value = value;
+			text.setLength(0);
+			text.append(value);
+		}
+		return text;
+	}
+
+}
@@ -0,0 +1,257 @@
+package com.dungeondoom.render;
+
+import java.lang.management.ManagementFactory;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * @author Roshan Munjal
+ * The PerformanceOverlay shows where the time of a frame goes: how long
+ * each phase of the frame took on the CPU, averaged over the last second
+ * along with the slowest frame in it, how much the GPU was asked to do,
+ * how many things are alive in the world, and how much memory is used and
+ * allocated. The numbers come from the last frame, since a frame cannot
+ * show its own draw calls. It is cheap enough to leave on while measuring:
+ * the text is only rebuilt four times a second, into a font cache with
+ * no new strings, and is then drawn every frame with a single call. The
+ * GL profiler, which slows every GL call a little, only runs while the
+ * overlay is shown.
+ */
+public class PerformanceOverlay {
+
+	/**
+	 * The phases of a frame that are timed.
+	 */
+	public enum Phase {
+		INPUT("input"),
+		COLLISION("collision"),
+		AI("ai"),
+		MAP("map"),
+		ENTITIES("entities"),
+		HUD("hud"),
+		OVERLAY("overlay");
+
+		// The name the phase is shown with.
+		private final String label;
+
+		Phase(String label) {
+			this.label = label;
+		}
+
+		/**
+		 * Gets the name the phase is shown with.
+		 * @return label
+		 */
+		public String getLabel() {
+			return label;
+		}
+	}
+
+	// The phases, by ordinal.
+	private static final Phase[] PHASES = Phase.values();
+
+	// The number of frames the timings are averaged over.
+	private static final int WINDOW = 60;
+
+	// The time between rebuilding the text, in seconds.
+	private static final float REFRESH_TIME = 0.25f;
+
+	// Checks if the overlay is shown.
+	private boolean visible = false;
+
+	// The time of each phase in each of the last WINDOW frames, and in the frame that is being timed.
+	private long[][] samples = new long[PHASES.length][WINDOW];
+	private long[] current = new long[PHASES.length];
+	private int frame = 0;
+
+	// What the GPU was asked to do in the last frame.
+	private int drawCalls, textureBindings, shaderSwitches, glCalls;
+
+	// The number of things alive in the world.
+	private int ghosts, coins, effects;
+
+	// The allocations of the render thread, if the JVM can count them, and when they were last looked at.
+	private com.sun.management.ThreadMXBean allocations;
+	private long allocatedBytes = -1;
+	private float allocationRate = 0;
+	private float sinceRefresh = 0;
+
+	// The text, which is laid out into the cache when it is rebuilt.
+	private BitmapFontCache cache;
+	private StringBuilder text = new StringBuilder(512);
+	private float x, y;
+
+	/**
+	 * Constructor for the PerformanceOverlay class.
+	 * @param font : the font the overlay is written in
+	 * @param x : the left of the overlay
+	 * @param y : the top of the overlay
+	 */
+	public PerformanceOverlay(BitmapFont font, float x, float y) {
+		cache = new BitmapFontCache(font);
+		this.x = x;
+		this.y = y;
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+			allocations = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+			if (allocations.isThreadAllocatedMemorySupported() == false) {
+				allocations = null;
+			}
+		}
+	}
+
+	/**
+	 * Shows or hides the overlay, and starts or stops the GL profiler with it.
+	 * @param visible : true to show the overlay
+	 */
+	public void setVisible(boolean visible) {
+		if (visible != this.visible) {
+			this.visible = visible;
+			if (visible) {
+				GLProfiler.enable();
+				sinceRefresh = REFRESH_TIME;
+			} else {
+				GLProfiler.disable();
+			}
+		}
+	}
+
+	/**
+	 * Checks if the overlay is shown.
+	 * @return visible
+	 */
+	public boolean isVisible() {
+		return visible;
+	}
+
+	/**
+	 * Starts timing a frame.
+	 */
+	public void beginFrame() {
+		if (visible) {
+			GLProfiler.reset();
+		}
+	}
+
+	/**
+	 * Adds time to a phase of the frame that is being timed. A phase can be added to more than once.
+	 * @param phase : the phase
+	 * @param nanos : the time in nanoseconds
+	 */
+	public void add(Phase phase, long nanos) {
+		current[phase.ordinal()] += nanos;
+	}
+
+	/**
+	 * Sets the number of things alive in the world.
+	 * @param ghosts : the number of ghosts
+	 * @param coins : the number of coins
+	 * @param effects : the number of effects
+	 */
+	public void setEntityCounts(int ghosts, int coins, int effects) {
+		this.ghosts = ghosts;
+		this.coins = coins;
+		this.effects = effects;
+	}
+
+	/**
+	 * Finishes timing a frame, once everything in it has been drawn, and rebuilds the text if it is time to.
+	 * @param delta : the length of the frame in seconds
+	 */
+	public void endFrame(float delta) {
+		int slot = frame % WINDOW;
+		for (int i = 0; i < PHASES.length; i++) {
+			samples[i][slot] = current[i];
+			current[i] = 0;
+		}
+		frame++;
+		if (visible == false) {
+			return;
+		}
+
+		drawCalls = GLProfiler.drawCalls;
+		textureBindings = GLProfiler.textureBindings;
+		shaderSwitches = GLProfiler.shaderSwitches;
+		glCalls = GLProfiler.calls;
+
+		sinceRefresh += delta;
+		if (sinceRefresh >= REFRESH_TIME) {
+			updateAllocationRate(sinceRefresh);
+			sinceRefresh = 0;
+			rebuildText();
+		}
+	}
+
+	/**
+	 * Works out how fast the render thread has been allocating since the text was last rebuilt.
+	 */
+	private void updateAllocationRate(float seconds) {
+		if (allocations == null) {
+			return;
+		}
+		long allocated = allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+		if (allocatedBytes >= 0) {
+			allocationRate = (allocated - allocatedBytes) / seconds;
+		}
+		allocatedBytes = allocated;
+	}
+
+	/**
+	 * Writes the numbers into the text and lays it out into the cache.
+	 */
+	private void rebuildText() {
+		int frames = Math.min(frame, WINDOW);
+		text.setLength(0);
+		text.append("fps ").append(Gdx.graphics.getFramesPerSecond()).append('\n');
+		text.append("phase: mean / max ms\n");
+		for (int i = 0; i < PHASES.length; i++) {
+			long total = 0, max = 0;
+			for (int f = 0; f < frames; f++) {
+				total += samples[i][f];
+				max = Math.max(max, samples[i][f]);
+			}
+			text.append(PHASES[i].label).append(": ");
+			appendMillis(frames == 0 ? 0 : total / frames);
+			text.append(" / ");
+			appendMillis(max);
+			text.append('\n');
+		}
+		text.append("draw calls ").append(drawCalls).append(", texture binds ").append(textureBindings).append('\n');
+		text.append("shader switches ").append(shaderSwitches).append(", gl calls ").append(glCalls).append('\n');
+		text.append("ghosts ").append(ghosts).append(", coins ").append(coins).append(", effects ").append(effects).append('\n');
+		Runtime runtime = Runtime.getRuntime();
+		text.append("heap ").append((int) ((runtime.totalMemory() - runtime.freeMemory()) >> 20)).append(" MB");
+		if (allocations != null) {
+			text.append(", alloc ").append((int) (allocationRate / 1024)).append(" KB/s");
+		}
+		cache.setMultiLineText(text, x, y);
+	}
+
+	/**
+	 * Writes a time in nanoseconds as milliseconds with two decimals, without making a new string.
+	 */
+	private void appendMillis(long nanos) {
+		long hundredths = nanos / 10000;
+		text.append((int) (hundredths / 100)).append('.');
+		int fraction = (int) (hundredths % 100);
+		if (fraction < 10) {
+			text.append('0');
+		}
+		text.append(fraction);
+	}
+
+	/**
+	 * Draws the overlay, if it is shown.
+	 * @param batch : the batch to draw with, which must already be begun
+	 */
+	public void draw(Batch batch) {
+		if (visible) {
+			cache.draw(batch);
+		}
+	}
+
+}
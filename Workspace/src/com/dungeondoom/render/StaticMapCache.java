@@ -0,0 +1,264 @@
+package com.dungeondoom.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * @author Roshan Munjal
+ * The StaticMapCache bakes the tile layers of a TiledMap that never change
+ * into SpriteCaches when the map is loaded. After that, drawing the map
+ * does not walk through any cells; it only draws the cached geometry. The
+ * tiles are cached in world coordinates, so the cache stays correct when
+ * the camera moves. The map is split into square chunks of tiles, which
+ * are kept in a grid by their position. Each frame only the cells of the
+ * grid that the camera can see are looked at, and only the caches that
+ * hold one of those chunks are begun, so a big map costs about the same
+ * per frame as a small one. A tile layer can be left out of the
+ * cache by giving it the property dynamic=true in Tiled.
+ *
+ * The layers of a chunk are stacked in one cache, in the order of the map,
+ * and drawn with alpha blending, the same as the map renderer's batch, so
+ * the see-through pixels of a layer show the layers under it. Each layer
+ * is tinted with its opacity when it is cached.
+ */
+public class StaticMapCache implements Disposable {
+
+	// The number of tiles along each side of a chunk.
+	private static final int CHUNK_SIZE = 32;
+
+	// The most sprites one SpriteCache can hold (it uses short indices).
+	private static final int CACHE_CAPACITY = 8191;
+
+	// The caches that the chunks are stored in.
+	private Array<SpriteCache> caches = new Array<>();
+	
+	// The number of tiles in each cache.
+	private IntArray cacheSizes = new IntArray();
+
+	// The chunks by their column and row, or null where a chunk has no tiles, and the number of columns and rows.
+	private Chunk[] chunks;
+	private int columns, rows;
+
+	// The size of a chunk in the world.
+	private float chunkWidth, chunkHeight;
+
+	// For every cache, the ids of its chunks that are drawn in this frame, and the caches that have any.
+	private Array<IntArray> visibleIds = new Array<>();
+	private IntArray visibleCaches = new IntArray();
+
+	// The number of draw calls made the last time the map was drawn.
+	private int renderCalls = 0;
+
+	/**
+	 * A square of tiles that is cached and drawn together.
+	 */
+	private static class Chunk {
+		int cache;
+		int cacheId;
+	}
+
+	/**
+	 * Constructor for the StaticMapCache class. This builds all of the caches.
+	 * @param map : the map to cache
+	 */
+	public StaticMapCache(TiledMap map) {
+		// Finds the tile layers that are static.
+		Array<TiledMapTileLayer> layers = new Array<>();
+		int mapWidth = 0, mapHeight = 0;
+		for (MapLayer layer : map.getLayers()) {
+			if (layer instanceof TiledMapTileLayer && layer.isVisible() && !isDynamic(layer)) {
+				TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+				layers.add(tileLayer);
+				mapWidth = Math.max(mapWidth, tileLayer.getWidth());
+				mapHeight = Math.max(mapHeight, tileLayer.getHeight());
+				chunkWidth = Math.max(chunkWidth, CHUNK_SIZE * tileLayer.getTileWidth());
+				chunkHeight = Math.max(chunkHeight, CHUNK_SIZE * tileLayer.getTileHeight());
+			}
+		}
+
+		// Caches every chunk of the map into the grid.
+		columns = (mapWidth + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		rows = (mapHeight + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		chunks = new Chunk[columns * rows];
+		for (int column = 0; column < columns; column++) {
+			for (int row = 0; row < rows; row++) {
+				chunks[column + row * columns] = buildChunk(layers, column * CHUNK_SIZE, row * CHUNK_SIZE);
+			}
+		}
+	}
+
+	/**
+	 * Checks if a layer has been marked as dynamic, which leaves it out of the cache.
+	 * @param layer : the layer to check
+	 * @return dynamic
+	 */
+	public static boolean isDynamic(MapLayer layer) {
+		return Boolean.parseBoolean(layer.getProperties().get("dynamic", "false", String.class));
+	}
+
+	/**
+	 * Adds the tiles of one chunk of every static layer to a cache.
+	 * @param layers : the static layers
+	 * @param chunkX : the column of the first tile in the chunk
+	 * @param chunkY : the row of the first tile in the chunk
+	 * @return chunk : the chunk, or null if it has no tiles
+	 */
+	private Chunk buildChunk(Array<TiledMapTileLayer> layers, int chunkX, int chunkY) {
+		// Counts the tiles in the chunk first, so the chunk goes into a cache with room for it.
+		int tiles = 0;
+		for (TiledMapTileLayer layer : layers) {
+			for (int x = chunkX; x < Math.min(chunkX + CHUNK_SIZE, layer.getWidth()); x++) {
+				for (int y = chunkY; y < Math.min(chunkY + CHUNK_SIZE, layer.getHeight()); y++) {
+					Cell cell = layer.getCell(x, y);
+					if (cell != null && cell.getTile() != null) {
+						tiles++;
+					}
+				}
+			}
+		}
+		if (tiles == 0) {
+			return null;
+		}
+		if (tiles > CACHE_CAPACITY) {
+			throw new IllegalStateException("The map has too many static layers to cache");
+		}
+
+		Chunk chunk = new Chunk();
+		chunk.cache = findCache(tiles);
+		SpriteCache cache = caches.get(chunk.cache);
+
+		cache.beginCache();
+		for (TiledMapTileLayer layer : layers) {
+			float tileWidth = layer.getTileWidth();
+			float tileHeight = layer.getTileHeight();
+			cache.setColor(1, 1, 1, layer.getOpacity());
+
+			for (int x = chunkX; x < Math.min(chunkX + CHUNK_SIZE, layer.getWidth()); x++) {
+				for (int y = chunkY; y < Math.min(chunkY + CHUNK_SIZE, layer.getHeight()); y++) {
+					Cell cell = layer.getCell(x, y);
+					if (cell == null || cell.getTile() == null) {
+						continue;
+					}
+					TextureRegion region = cell.getTile().getTextureRegion();
+
+					// Flips and rotations are done around the middle of the tile.
+					cache.add(region, x * tileWidth, y * tileHeight, tileWidth / 2, tileHeight / 2, tileWidth, tileHeight,
+							cell.getFlipHorizontally() ? -1 : 1, cell.getFlipVertically() ? -1 : 1, cell.getRotation() * 90);
+				}
+			}
+		}
+		cache.setColor(1, 1, 1, 1);
+		chunk.cacheId = cache.endCache();
+		return chunk;
+	}
+
+	/**
+	 * Finds a cache with enough room left for a chunk, creating a new one if needed.
+	 * @param tiles : the number of tiles in the chunk
+	 * @return cacheIndex : the position of the cache in the list of caches
+	 */
+	private int findCache(int tiles) {
+		if (caches.size == 0 || cacheSizes.peek() + tiles > CACHE_CAPACITY) {
+			caches.add(new SpriteCache(CACHE_CAPACITY, false));
+			cacheSizes.add(0);
+			visibleIds.add(new IntArray());
+		}
+		cacheSizes.incr(caches.size - 1, tiles);
+		return caches.size - 1;
+	}
+
+	/**
+	 * Draws the chunks that the camera can see. This must not be called while a batch is drawing.
+	 * @param camera : the camera the map is viewed through
+	 */
+	public void render(OrthographicCamera camera) {
+		renderCalls = 0;
+
+		// Works out the part of the world the camera can see.
+		float viewWidth = camera.viewportWidth * camera.zoom;
+		float viewHeight = camera.viewportHeight * camera.zoom;
+		float viewX = camera.position.x - viewWidth / 2;
+		float viewY = camera.position.y - viewHeight / 2;
+
+		if (chunks.length == 0) {
+			return;
+		}
+
+		// Works out the columns and rows of the chunks that the view overlaps.
+		int firstColumn = Math.max(0, (int) Math.floor(viewX / chunkWidth));
+		int lastColumn = Math.min(columns - 1, (int) Math.floor((viewX + viewWidth) / chunkWidth));
+		int firstRow = Math.max(0, (int) Math.floor(viewY / chunkHeight));
+		int lastRow = Math.min(rows - 1, (int) Math.floor((viewY + viewHeight) / chunkHeight));
+
+		// Sorts the chunks in view by the cache they are in.
+		visibleCaches.clear();
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				Chunk chunk = chunks[column + row * columns];
+				if (chunk != null) {
+					IntArray ids = visibleIds.get(chunk.cache);
+					if (ids.size == 0) {
+						visibleCaches.add(chunk.cache);
+					}
+					ids.add(chunk.cacheId);
+				}
+			}
+		}
+		if (visibleCaches.size == 0) {
+			return;
+		}
+
+		// Blends the layers over each other, which the caches do not turn on by themselves.
+		Gdx.gl.glEnable(GL20.GL_BLEND);
+		Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+		// Draws the caches in the order they were filled, and only begins the ones that have a chunk in view.
+		visibleCaches.sort();
+		for (int i = 0; i < visibleCaches.size; i++) {
+			SpriteCache cache = caches.get(visibleCaches.get(i));
+			IntArray ids = visibleIds.get(visibleCaches.get(i));
+			cache.setProjectionMatrix(camera.combined);
+			cache.begin();
+			for (int j = 0; j < ids.size; j++) {
+				cache.draw(ids.get(j));
+			}
+			cache.end();
+			renderCalls += cache.renderCalls;
+			ids.clear();
+		}
+		Gdx.gl.glDisable(GL20.GL_BLEND);
+	}
+
+	/**
+	 * Gets the number of draw calls made the last time the map was drawn.
+	 * @return renderCalls
+	 */
+	public int getRenderCalls() {
+		return renderCalls;
+	}
+
+	/**
+	 * Disposes all the caches.
+	 */
+	@Override
+	public void dispose() {
+		for (SpriteCache cache : caches) {
+			cache.dispose();
+		}
+		caches.clear();
+		cacheSizes.clear();
+		visibleIds.clear();
+		chunks = new Chunk[0];
+	}
+
+}
@@ -8,6 +8,9 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.dungeondoom.assets.AssetRegistry;
 import com.dungeondoom.main.DungeonDoom;
 
 /**
@@ -24,14 +27,17 @@ public class InstructionsScreen implements Screen {
 	private SpriteBatch batch;
 	private BitmapFont font;
 	
+	// The background is too big for the UI atlas, so it has a texture of its own.
+	private static final String BACKGROUND_TEXTURE = "assets/BackgroundDungeon.jpg";
+	
 	// Initializes the background.
 	private Texture background;
 	
-	// Initializes the different textures needed in the screen.
-	private Texture wasdKeys;
-	private Texture spacebar;
-	private Texture jKey;
-	private Texture escKey;
+	// Initializes the different regions of the UI atlas needed in the screen.
+	private TextureRegion wasdKeys;
+	private TextureRegion spacebar;
+	private TextureRegion jKey;
+	private TextureRegion escKey;
 	
 	// This sets the base values for the x and y of the options and images.
 	private int baseX = 50;
@@ -45,9 +51,9 @@ public class InstructionsScreen implements Screen {
 	// This is a boolean to check if the mouse is hovering over this button.
 	private boolean lightBack = false;
 	
-	// Gets the textures for the "Back" button and the lighter version.
-	private Texture backButton;
-	private Texture backButtonLight;
+	// Gets the regions for the "Back" button and the lighter version.
+	private TextureRegion backButton;
+	private TextureRegion backButtonLight;
 	
 	/**
 	 * Constructor for the InstructionsScreen class.
@@ -60,27 +66,37 @@ public class InstructionsScreen implements Screen {
 		font = new BitmapFont(); // Initizlies a bitmap font.
 		font.setScale(1.5f);
 		
-		// Initializes the textures.
-		background = new Texture(Gdx.files.internal("assets/BackgroundDungeon.jpg"));
-		wasdKeys = new Texture(Gdx.files.internal("assets/WASD.png"));
-		spacebar = new Texture(Gdx.files.internal("assets/spacebar.png"));
-		jKey = new Texture(Gdx.files.internal("assets/letter-j-icon.png"));
-		escKey = new Texture(Gdx.files.internal("assets/esc-icon.png"));
+		// Initializes the background and finds the icons in the UI atlas.
+		background = game.getAssets().acquireTexture(BACKGROUND_TEXTURE);
+		TextureAtlas atlas = game.getAssets().acquireAtlas(AssetRegistry.UI_ATLAS);
+		wasdKeys = atlas.findRegion("WASD");
+		spacebar = atlas.findRegion("spacebar");
+		jKey = atlas.findRegion("letter-j-icon");
+		escKey = atlas.findRegion("esc-icon");
 		
-		backButton = new Texture(Gdx.files.internal("assets/Back.png"));
-		backButtonLight = new Texture(Gdx.files.internal("assets/Back_Light.png"));
+		backButton = atlas.findRegion("Back");
+		backButtonLight = atlas.findRegion("Back_Light");
 	}
 
+	/**
+	 * Releases the atlas, background and font of the screen.
+	 */
 	@Override
 	public void dispose() {
-		// TODO Auto-generated method stub
-		
+		if (background != null) {
+			game.getAssets().release(AssetRegistry.UI_ATLAS);
+			game.getAssets().release(BACKGROUND_TEXTURE);
+			background = null;
+			font.dispose();
+		}
 	}
 
+	/**
+	 * The screen is never shown again once it is hidden, so its textures are released.
+	 */
 	@Override
 	public void hide() {
-		// TODO Auto-generated method stub
-		
+		dispose();
 	}
 
 	@Override
@@ -92,8 +108,9 @@ public class InstructionsScreen implements Screen {
 	/**
 	 * Updates the state of the screen.
 	 * @param delta : the time that has passed
+	 * @return left : true if another screen was set, which has already hidden and disposed this one
 	 */
-	public void update(float delta) {
+	public boolean update(float delta) {
 		/*
 		if (Gdx.input.getX() > baseX && Gdx.input.getX() < baseX + width && Gdx.input.getY() > baseY && Gdx.input.getY() < baseY + height) {
 			lightBack = true;
@@ -114,6 +131,7 @@ public class InstructionsScreen implements Screen {
 			// When Left click is done in this region, then the game switches to the MainMenuScreen.
 			if (Gdx.input.isButtonPressed(Input.Buttons.LEFT)) {
 				((DungeonDoom) Gdx.app.getApplicationListener()).setScreen(new MainMenuScreen(game));
+				return true;
 			}
 		}
 		// If the mouse is not over the defined region, the button is not highlighted.
@@ -125,6 +143,7 @@ public class InstructionsScreen implements Screen {
 		if (Gdx.input.isKeyPressed(Keys.ESCAPE)) {
 			Gdx.app.exit();
 		}
+		return false;
 	}
 
 	@Override
@@ -133,16 +152,21 @@ public class InstructionsScreen implements Screen {
 		Gdx.gl.glClearColor(1f, 1f, 1f, 1f);
 		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 		
+		// Takes in user input, and stops if it left the screen, since its textures and font are already released.
+		if (update(delta)) {
+			return;
+		}
+		
 		// Begins the batch
 		batch.begin();
 		
 		// Draws all the textures in their respective locations.
 		batch.draw(background, 0, 0, background.getWidth(), background.getHeight());
 		
-		batch.draw(wasdKeys, 100, 500, wasdKeys.getWidth(), wasdKeys.getHeight());
-		batch.draw(spacebar, 500, 500, spacebar.getWidth(), spacebar.getHeight());
-		batch.draw(jKey, 950, 500, jKey.getWidth(), jKey.getHeight());
-		batch.draw(escKey, 950, 300, escKey.getWidth(), escKey.getHeight());
+		batch.draw(wasdKeys, 100, 500, wasdKeys.getRegionWidth(), wasdKeys.getRegionHeight());
+		batch.draw(spacebar, 500, 500, spacebar.getRegionWidth(), spacebar.getRegionHeight());
+		batch.draw(jKey, 950, 500, jKey.getRegionWidth(), jKey.getRegionHeight());
+		batch.draw(escKey, 950, 300, escKey.getRegionWidth(), escKey.getRegionHeight());
 		
 		// Draws some quick explanations beneath the textures.
 		font.draw(batch, "Move Up/Down, Left/Right", 110, 480);
@@ -151,9 +175,6 @@ public class InstructionsScreen implements Screen {
 		font.draw(batch, "Escape from the Dungeon", 900, 290);
 		font.draw(batch, "At Any Time", 960, 265);
 		
-		// Takes in user input.
-		update(delta);
-		
 		// Draws a back button, depending on if the user is hovering over it or not.
 		if (lightBack) {
 			batch.draw(backButtonLight, baseX, baseY);
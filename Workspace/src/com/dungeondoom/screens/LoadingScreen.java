@@ -0,0 +1,223 @@
+package com.dungeondoom.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.dungeondoom.assets.AssetRegistry;
+import com.dungeondoom.main.DungeonDoom;
+import com.dungeondoom.render.StaticMapCache;
+import com.dungeondoom.world.CollisionGrid;
+import com.dungeondoom.world.GameWorld;
+import com.dungeondoom.world.HierarchicalPathFinder;
+
+/**
+ * @author Roshan Munjal
+ * The LoadingScreen is shown while the assets of the next screen are loaded.
+ * The images are decoded and the map is parsed in the background, and every
+ * frame the screen gives the asset registry a small amount of time to upload
+ * what is ready to the GPU. This keeps the window responsive, and a progress
+ * bar shows how far along the loading is. Before the game is played, the
+ * parts of the level that go through the whole map are then built one step
+ * a frame, which the bar also counts: the grid of obstacles, the path
+ * finder, the cache of the static layers and the PlayScreen itself. Once
+ * everything is ready, the next screen is shown, and its first frame has
+ * nothing left to read or build.
+ */
+public class LoadingScreen implements Screen {
+
+	/**
+	 * The screens that can be loaded.
+	 */
+	public enum Destination {
+		MAIN_MENU,
+		PLAY
+	}
+
+	// The longest time spent uploading assets in one frame, in milliseconds.
+	private static final int UPLOAD_BUDGET_MILLIS = 8;
+
+	// The assets that each destination needs.
+	private static final String[] MAIN_MENU_FILES = { AssetRegistry.UI_ATLAS, MainMenuScreen.BACKGROUND_TEXTURE };
+	private static final Class<?>[] MAIN_MENU_TYPES = { TextureAtlas.class, Texture.class };
+	private static final Class<?>[] PLAY_TYPES = { TextureAtlas.class, BitmapFont.class, TiledMap.class };
+
+	// The steps that build the level once its assets are loaded, one in each frame.
+	private static final int BAKE_GRID = 0, BAKE_PATH_FINDER = 1, BAKE_MAP_CACHE = 2, BAKE_SCREEN = 3;
+	private static final int BAKE_STEPS = 4;
+
+	// References to the game, the batch and the shape renderer.
+	private DungeonDoom game;
+	private SpriteBatch batch;
+	private ShapeRenderer shapeRenderer;
+	private BitmapFont font;
+
+	// The screen being loaded and the files it needs.
+	private Destination destination;
+	private String[] files;
+
+	// Checks if the loading is finished and the next screen has been shown.
+	private boolean finished = false;
+
+	// The next step that builds the level, what has been built so far, and the screen that is shown once it is all built.
+	private int bakeStep = 0;
+	private CollisionGrid collisionGrid;
+	private HierarchicalPathFinder pathFinder;
+	private StaticMapCache mapCache;
+	private Screen next;
+
+	/**
+	 * Constructor for the LoadingScreen class. This starts loading the assets straight away.
+	 * @param game : the game that is common to all classes
+	 * @param destination : the screen to load
+	 */
+	public LoadingScreen(DungeonDoom game, Destination destination) {
+		this.game = game;
+		this.destination = destination;
+		batch = game.getBatch();
+		shapeRenderer = game.getShapeRenderer();
+		font = new BitmapFont();
+
+		// Queues every asset of the destination.
+		Class<?>[] types;
+		if (destination == Destination.PLAY) {
+			files = new String[] { AssetRegistry.GAME_ATLAS, AssetRegistry.HUD_FONT, game.getScenario().getMapFile() };
+			types = PLAY_TYPES;
+		} else {
+			files = MAIN_MENU_FILES;
+			types = MAIN_MENU_TYPES;
+		}
+		for (int i = 0; i < files.length; i++) {
+			game.getAssets().preload(files[i], types[i]);
+		}
+	}
+
+	/**
+	 * Uploads some of the assets and draws the progress bar.
+	 */
+	@Override
+	public void render(float delta) {
+		// Clears the screen and puts a black background.
+		Gdx.gl.glClearColor(0, 0, 0, 1);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+		// Gives the registry its time for this frame, and then builds one step of the level once the assets are all loaded.
+		boolean done = game.getAssets().update(UPLOAD_BUDGET_MILLIS);
+		float progress = game.getAssets().getProgress();
+		if (destination == Destination.PLAY) {
+			if (done && bakeStep < BAKE_STEPS) {
+				bake(bakeStep++);
+			}
+			progress = (progress + bakeStep) / (1 + BAKE_STEPS);
+			done = bakeStep == BAKE_STEPS;
+		}
+
+		// Draws the progress bar in the middle of the screen.
+		int barWidth = 400;
+		int barX = Gdx.graphics.getWidth() / 2 - barWidth / 2;
+		int barY = Gdx.graphics.getHeight() / 2 - 10;
+
+		shapeRenderer.begin(ShapeType.Filled);
+		shapeRenderer.setColor(Color.RED);
+		shapeRenderer.rect(barX, barY, barWidth * progress, 20);
+		shapeRenderer.end();
+
+		shapeRenderer.begin(ShapeType.Line);
+		shapeRenderer.setColor(Color.WHITE);
+		shapeRenderer.rect(barX, barY, barWidth, 20);
+		shapeRenderer.end();
+
+		batch.begin();
+		font.draw(batch, "Loading... " + (int) (progress * 100) + "%", barX, barY + 45);
+		batch.end();
+
+		// Shows the next screen once everything it needs is loaded.
+		if (done && !finished) {
+			finished = true;
+			if (destination == Destination.PLAY) {
+				game.setScreen(next);
+			} else {
+				game.setScreen(new MainMenuScreen(game));
+			}
+		}
+	}
+
+	/**
+	 * Builds one step of the level, which goes through the whole map.
+	 * @param step : the step to build
+	 */
+	private void bake(int step) {
+		String mapFile = game.getScenario().getMapFile();
+		switch (step) {
+		case BAKE_GRID:
+			collisionGrid = CollisionGrid.fromMap(game.getAssets().acquireMap(mapFile));
+			game.getAssets().release(mapFile);
+			break;
+		case BAKE_PATH_FINDER:
+			pathFinder = GameWorld.buildPathFinder(collisionGrid);
+			break;
+		case BAKE_MAP_CACHE:
+			mapCache = new StaticMapCache(game.getAssets().acquireMap(mapFile));
+			game.getAssets().release(mapFile);
+			break;
+		case BAKE_SCREEN:
+			next = new PlayScreen(game, collisionGrid, pathFinder, mapCache);
+			break;
+		}
+	}
+
+	/**
+	 * Releases the preloaded assets. The next screen has already acquired them by now.
+	 */
+	@Override
+	public void dispose() {
+		// Disposes the cache of the map if the game closed before the PlayScreen was made to own it.
+		if (mapCache != null && next == null) {
+			mapCache.dispose();
+			mapCache = null;
+		}
+		if (files != null) {
+			for (String fileName : files) {
+				game.getAssets().release(fileName);
+			}
+			files = null;
+			font.dispose();
+		}
+	}
+
+	/**
+	 * The screen is never shown again once it is hidden, so its assets are released.
+	 */
+	@Override
+	public void hide() {
+		dispose();
+	}
+
+	@Override
+	public void show() {
+
+	}
+
+	@Override
+	public void resize(int width, int height) {
+
+	}
+
+	@Override
+	public void pause() {
+
+	}
+
+	@Override
+	public void resume() {
+
+	}
+
+}
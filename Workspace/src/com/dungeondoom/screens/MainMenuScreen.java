@@ -7,7 +7,11 @@ import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.dungeondoom.assets.AssetRegistry;
 import com.dungeondoom.main.DungeonDoom;
+import com.dungeondoom.screens.LoadingScreen.Destination;
 
 /**
  * @author Roshan Munjal
@@ -33,18 +37,21 @@ public class MainMenuScreen implements Screen {
 	private boolean lightInstructions = false;
 	private boolean lightExit = false;
 	
+	// The background is too big for the UI atlas, so it has a texture of its own.
+	public static final String BACKGROUND_TEXTURE = "assets/BackgroundDungeon.jpg";
+	
 	// Texture for the background.
 	private Texture background;
 	
-	// Texture for the buttons.
-	private Texture beginButton;
-	private Texture instructionsButton;
-	private Texture exitButton;
+	// Regions of the UI atlas for the buttons.
+	private TextureRegion beginButton;
+	private TextureRegion instructionsButton;
+	private TextureRegion exitButton;
 	
-	// Texture for light buttons.
-	private Texture beginButtonLight;
-	private Texture instructionsButtonLight;
-	private Texture exitButtonLight;
+	// Regions of the UI atlas for light buttons.
+	private TextureRegion beginButtonLight;
+	private TextureRegion instructionsButtonLight;
+	private TextureRegion exitButtonLight;
 	
 	// Decides a base position of which to start.
 	private int baseX = 400;
@@ -66,19 +73,25 @@ public class MainMenuScreen implements Screen {
 		this.game = game;
 		batch = game.getBatch();
 		
-		// Loads textures for buttons and backgrounds.
-		beginButton = new Texture(Gdx.files.internal("assets/Begin.png"));
-		instructionsButton = new Texture(Gdx.files.internal("assets/Instructions.png"));
-		exitButton = new Texture(Gdx.files.internal("assets/Exit.png"));
+		// Finds the buttons in the UI atlas and loads the background.
+		TextureAtlas atlas = game.getAssets().acquireAtlas(AssetRegistry.UI_ATLAS);
+		beginButton = atlas.findRegion("Begin");
+		instructionsButton = atlas.findRegion("Instructions");
+		exitButton = atlas.findRegion("Exit");
 		
-		beginButtonLight = new Texture(Gdx.files.internal("assets/Begin_Light.png"));
-		instructionsButtonLight = new Texture(Gdx.files.internal("assets/Instructions_Light.png"));
-		exitButtonLight = new Texture(Gdx.files.internal("assets/Exit_Light.png"));
+		beginButtonLight = atlas.findRegion("Begin_Light");
+		instructionsButtonLight = atlas.findRegion("Instructions_Light");
+		exitButtonLight = atlas.findRegion("Exit_Light");
 		
-		background = new Texture(Gdx.files.internal("assets/BackgroundDungeon.jpg"));
+		background = game.getAssets().acquireTexture(BACKGROUND_TEXTURE);
 	}
 
-	public void update(float delta) {
+	/**
+	 * Updates the state of the screen from the mouse and keyboard.
+	 * @param delta : the time that has passed
+	 * @return left : true if another screen was set, which has already hidden and disposed this one
+	 */
+	public boolean update(float delta) {
 		/*
 		if (Gdx.input.getX() > baseX && Gdx.input.getX() < baseX + width && Gdx.input.getY() > baseY && Gdx.input.getY() < baseY + height) {
 			lightBegin = true;
@@ -102,9 +115,10 @@ public class MainMenuScreen implements Screen {
 		// If the mouse hovers over a button, it becomes more transparent.		
 		if (Gdx.input.getX() > baseX && Gdx.input.getX() < baseX + width && Gdx.input.getY() > baseY2 && Gdx.input.getY() < baseY2 + height) {
 			lightBegin = true;
-			// If the button is clicked, then a new screen is opened.
+			// If the button is clicked, then the game is loaded.
 			if (Gdx.input.isButtonPressed(Input.Buttons.LEFT)) {
-				((DungeonDoom) Gdx.app.getApplicationListener()).setScreen(new PlayScreen(game));
+				((DungeonDoom) Gdx.app.getApplicationListener()).setScreen(new LoadingScreen(game, Destination.PLAY));
+				return true;
 			}
 		}
 		// If the mouse hovers over a button, it becomes more transparent.		
@@ -113,6 +127,7 @@ public class MainMenuScreen implements Screen {
 			// If the button is clicked, then a new screen is opened.
 			if (Gdx.input.isButtonPressed(Input.Buttons.LEFT)) {
 				((DungeonDoom) Gdx.app.getApplicationListener()).setScreen(new InstructionsScreen(game));
+				return true;
 			}
 		}
 		// If the mouse hovers over a button, it becomes more transparent.		
@@ -134,17 +149,27 @@ public class MainMenuScreen implements Screen {
 		if (Gdx.input.isKeyPressed(Keys.ESCAPE)) {
 			Gdx.app.exit();
 		}
+		return false;
 	}
 
+	/**
+	 * Releases the atlas and background of the screen.
+	 */
 	@Override
 	public void dispose() {
-		
+		if (background != null) {
+			game.getAssets().release(AssetRegistry.UI_ATLAS);
+			game.getAssets().release(BACKGROUND_TEXTURE);
+			background = null;
+		}
 	}
 
+	/**
+	 * The screen is never shown again once it is hidden, so its textures are released.
+	 */
 	@Override
 	public void hide() {
-		// TODO Auto-generated method stub
-		
+		dispose();
 	}
 
 	@Override
@@ -162,8 +187,10 @@ public class MainMenuScreen implements Screen {
 		Gdx.gl.glClearColor(1f, 1f, 1f, 1f);
 		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 		
-		// Takes in user input.
-		update(delta);
+		// Takes in user input, and stops if it left the screen, since its textures are already released.
+		if (update(delta)) {
+			return;
+		}
 		
 		// Begins the batch.
 		batch.begin();
@@ -1,31 +1,48 @@
 package com.dungeondoom.screens;
 
-import java.util.ArrayList;
-
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
-import com.badlogic.gdx.maps.MapObject;
-import com.badlogic.gdx.maps.MapObjects;
-import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TiledMapRenderer;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
-import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.dungeondoom.actors.Autopilot;
+import com.dungeondoom.actors.KeyboardInput;
 import com.dungeondoom.actors.Player;
+import com.dungeondoom.actors.PlayerInput;
+import com.dungeondoom.assets.AssetRegistry;
 import com.dungeondoom.currency.Coin;
+import com.dungeondoom.effects.EffectSystem;
+import com.dungeondoom.enemies.EnemySystem;
 import com.dungeondoom.enemies.Ghost;
 import com.dungeondoom.main.DungeonDoom;
-import com.dungeondoom.actors.Direction;
+import com.dungeondoom.screens.LoadingScreen.Destination;
+import com.dungeondoom.render.FrameRenderer;
+import com.dungeondoom.render.FrameTimeHistogram;
+import com.dungeondoom.render.HudText;
+import com.dungeondoom.render.PerformanceOverlay;
+import com.dungeondoom.render.PerformanceOverlay.Phase;
+import com.dungeondoom.render.StaticMapCache;
+import com.dungeondoom.telemetry.Telemetry;
+import com.dungeondoom.tools.AtlasPacker;
+import com.dungeondoom.world.CollisionGrid;
+import com.dungeondoom.world.EntityStore;
+import com.dungeondoom.world.GameWorld;
+import com.dungeondoom.world.HierarchicalPathFinder;
+import com.dungeondoom.world.ParallelSweep;
+import com.dungeondoom.world.ScenarioConfig;
 
 /**
  * @author Roshan Munjal
@@ -34,107 +51,158 @@ import com.dungeondoom.actors.Direction;
  * it much easier to move between different screens simply using
  * buttons. Thus, a game state manager is not required, as the logic
  * is hard coded into each individual screen for navigating them.
+ * The game itself is run by a GameWorld, which the PlayScreen feeds
+ * with the keyboard and draws. In a stress test, the scenario can also
+ * let the autopilot play, and once it has run for long enough, the
+ * PlayScreen reports how long the frames took and closes the game.
  */
 public class PlayScreen implements Screen {
 	
 	// Makes a public static reference to main character so other classes can access its variables as needed.
 	public static Player mainCharacter;
 	
-	// Declares the base speed of the main character.
-	private float baseSpeed = 100;
-	
 	// The DungeonDoom game is passed through the constructor.
 	private DungeonDoom game;
 
+	// The file that the map of the level is loaded from, unless the scenario picks another.
+	public static final String MAP_FILE = ScenarioConfig.DEFAULT_MAP;
+	private String mapFile;
+	
+	// The scenario the game is set up by, and the autopilot if it plays instead of the keyboard.
+	private ScenarioConfig scenario;
+	private Autopilot autopilot;
+	
+	// How long the frames of a stress test take, and how long it has been running for.
+	private FrameTimeHistogram frameTimes = new FrameTimeHistogram();
+	private float elapsedTime = 0;
+
 	// Objects used to render the TiledMap and Images/Text on the screen.
 	private TiledMap map;
-	private TiledMapRenderer renderer;
+	private OrthogonalTiledMapRenderer renderer;
 	private BitmapFont font;
 	private OrthographicCamera camera;
 	private SpriteBatch batch;
-	private ShapeRenderer shapeRenderer;
-
-	// Objects to put the characters on the screen.
-	private ArrayList<Ghost> ghosts;
-	private ArrayList<Coin> groundCoins;
-	private Rectangle mainCharacterRectangle;
+	
+	// The stage that draws each frame in a single pass of the batch.
+	private FrameRenderer frameRenderer;
+	
+	// Shows where the time of each frame goes, when F3 is pressed.
+	private PerformanceOverlay overlay;
+	private BitmapFont overlayFont;
+	
+	// Records the timings of every frame, and the spawns, for looking at a slow session afterwards.
+	private Telemetry telemetry;
+	
+	// The static layers of the map are baked into a cache, and the rest are drawn with the batch.
+	private boolean cacheStaticLayers = true;
+	private StaticMapCache mapCache;
+	private Array<TiledMapTileLayer> batchedLayers = new Array<>();
 
-	// Used to detect obstacles on the screen.
-	private MapObjects obstacles;
+	// Sprites needed for additional features.
+	private TextureRegion coin;
+	
+	// The numbers on the HUD, which are only written out again when they change.
+	private HudText coinsText, healthText, killsLabel, killsText;
 
-	// Textures needed for additional features.
-	private Texture coin;
+	// The text of the death screen, laid out once the player has died.
+	private HudText accomplishedLabel, deathCoinsText, deathKillsLabel, deathKillsText;
+	
+	// Checks if the screen has already been disposed.
+	private boolean disposed = false;
 
 	// Variables to get the width and height of the screen.
 	private static int width = Gdx.graphics.getWidth();
 	private static int height = Gdx.graphics.getHeight();
-	private int speed = 70;
 	
-	// Counters to determine when certain numbers of frames.
-	private int lastCount = 0;
-	private int attackCount = 0; // Count since character was attacked.
-	private int coinCount = 0; // Count since a coin was spawned.
-	private int staminaCount = 0; // Count since stamina was used.
-
+	// The game itself, which the screen only feeds with input and draws.
+	private GameWorld world;
+	private PlayerInput input = new PlayerInput();
+	
+	// The length of one simulation tick, in seconds. The game logic always runs at this rate.
+	public static final float TIME_STEP = GameWorld.TIME_STEP;
+	
+	// The longest frame that is simulated, so that a long stall does not have to be caught up on.
+	private static final float MAX_FRAME_TIME = 0.25f;
+	
+	// The time that has passed but has not been simulated yet.
+	private float accumulator = 0;
+	
+	// Queues the keys the player presses until a tick reads them, behind the keys that only change the screen.
+	private KeyboardInput keyboard = new KeyboardInput();
+	private InputMultiplexer inputProcessor;
+	
 	/**
-	 * Constructor for the Play class.
+	 * Constructor for the Play class. The parts that go through the whole map have already been built by the loading screen.
 	 * @param game : the DungeonDoom game that is passed through from the game itself
+	 * @param collisionGrid : the obstacles of the map
+	 * @param pathFinder : the path finder for the obstacles
+	 * @param mapCache : the static layers of the map, which the screen disposes
 	 */
-	public PlayScreen(DungeonDoom game) {
+	public PlayScreen(DungeonDoom game, CollisionGrid collisionGrid, HierarchicalPathFinder pathFinder, StaticMapCache mapCache) {
 		
-		// Imports the game.
+		// Imports the game and the baked map.
 		this.game = game;
+		this.mapCache = mapCache;
 
 		// The create method initializes everything on the screen.
-		create();
+		create(collisionGrid, pathFinder);
 
 	}
 
 	/**
 	 * The create method initializes all the objects on the screen.
+	 * @param collisionGrid : the obstacles of the map
+	 * @param pathFinder : the path finder for the obstacles
 	 */
-	public void create() {
+	public void create(CollisionGrid collisionGrid, HierarchicalPathFinder pathFinder) {
 		// Initializing the sprite batch.
 		batch = game.getBatch();
 
-		// Initializing the map.
-		map = new TiledMap();
-
-		// Initializes the shape renderer.
-		shapeRenderer = game.getShapeRenderer();
-
-		// Initializing BitmapFont.
-		font = new BitmapFont();
-		font.setScale(2.0f);
+		// Acquires the map of the scenario, which the loading screen has already loaded.
+		scenario = game.getScenario();
+		mapFile = scenario.getMapFile();
+		map = game.getAssets().acquireMap(mapFile);
+
+		// Initializes the frame renderer, which draws everything with the batch.
+		frameRenderer = new FrameRenderer(game.getBatch(), game.getAnimations().getRegion(AtlasPacker.PIXEL_REGION));
+
+		// Acquires the font of the HUD, which is baked at the size it is drawn at, and lays out its text.
+		font = game.getAssets().acquireFont(AssetRegistry.HUD_FONT);
+		coinsText = new HudText(font, getWidth() - 150, getHeight() - 50);
+		healthText = new HudText(font, 220, getHeight() - 15);
+		killsLabel = new HudText(font, "Kills: ", getWidth() - 220, getHeight() - 10);
+		killsText = new HudText(font, getWidth() - 150, getHeight() - 10);
+		accomplishedLabel = new HudText(font, "You have accomplished: ", getWidth() / 2 - 160, getHeight() / 2 + 50);
+		deathCoinsText = new HudText(font, getWidth() / 2, getHeight() / 2);
+		deathKillsLabel = new HudText(font, "Kills: ", getWidth() / 2 - 50, getHeight() / 2 - 50);
+		deathKillsText = new HudText(font, getWidth() / 2 + 20, getHeight() / 2 - 50);
+		
+		// Initializes the overlay, which sits under the health and stamina bars.
+		overlayFont = new BitmapFont();
+		overlay = new PerformanceOverlay(overlayFont, 10, getHeight() - 90);
 
-		// Initializing the texture for the coin and health bar.
-		coin = new Texture(Gdx.files.internal("assets/CoinImage.png"));
+		// Initializing the sprite for the coin from the game atlas.
+		coin = game.getAnimations().getRegion(Coin.COIN_REGION);
 
-		// Initializing the main character.
+		// Initializing the main character and the world it plays in.
 		mainCharacter = new Player("Roshan");
-		mainCharacter.setPosition(getWidth() / 2 - 14, getHeight() / 2 - 90);
-
-		// Initializes the list of enemies.
-		ghosts = new ArrayList<>();
-
-		// Adds ghosts to an arrayList of ghosts.
-		for (int i = 0; i < 7; i++) {
-			Ghost ghost = new Ghost();
-			ghost.setBaseSpeed(speed);
-			ghost.setX(Math.round(Math.random()) * getWidth());
-			ghost.setY(Math.round(Math.random() * getHeight()));
-			ghosts.add(ghost);
+		world = new GameWorld(collisionGrid, pathFinder, mainCharacter, new Ghost(), new Coin(), new EffectSystem(game.getAnimations()),
+				scenario.createRandom(), scenario);
+		telemetry = game.getTelemetry();
+		world.setTelemetry(telemetry);
+		if (scenario.isAutopilot()) {
+			autopilot = new Autopilot();
 		}
 		
-		// Initializes the list of coins.
-		groundCoins = new ArrayList<>();
-		
-		// Adds coins to an arrayList of coins.
-		for (int i = 0; i < 10; i++) {
-			Coin coin = new Coin();
-			coin.setX((int) (30 + Math.random() * (getWidth() - 60)));
-			coin.setY((int) (30 + Math.random() * (getHeight() - 60)));
-			groundCoins.add(coin);
+		// Handles the keys that change the screen straight away, and queues the rest for the ticks.
+		inputProcessor = new InputMultiplexer(new InputAdapter() {
+			@Override
+			public boolean keyDown(int keycode) {
+				return toggle(keycode);
+			}
+		}, keyboard);
+		if (scenario.isStressTest()) {
+			Gdx.app.log("PlayScreen", "Scenario: " + scenario.describe());
 		}
 	}
 
@@ -143,7 +211,26 @@ public class PlayScreen implements Screen {
 	 */
 	@Override
 	public void dispose() {
-		
+		// Disposes the font and releases the map, which are the only things the screen owns.
+		if (disposed == false) {
+			disposed = true;
+			// Logs how the pools were used, so that their sizes can be tuned.
+			Gdx.app.log("PlayScreen", "Ghosts: " + world.getGhosts().describeUsage());
+			Gdx.app.log("PlayScreen", "Coins: " + world.getCoins().describeUsage());
+			Gdx.app.log("PlayScreen", "Effects: " + world.getEffects().getPool().describeUsage());
+			world.dispose();
+			
+			// Stops listening to the keyboard.
+			if (Gdx.input.getInputProcessor() == inputProcessor) {
+				Gdx.input.setInputProcessor(null);
+			}
+			game.getAssets().release(AssetRegistry.HUD_FONT);
+			overlay.setVisible(false);
+			overlayFont.dispose();
+			renderer.dispose();
+			mapCache.dispose();
+			game.getAssets().release(mapFile);
+		}
 	}
 
 	/**
@@ -159,18 +246,48 @@ public class PlayScreen implements Screen {
 	 */
 	@Override
 	public void pause() {
-		
+		// Forgets the keys that are held, since the ones that are let go while the game is paused are never heard about.
+		keyboard.reset();
 	}
 	
 	/**
-	 * The render method is used to draw everything on the screen.
+	 * The render method runs the simulation ticks that are due and then draws everything on the screen.
+	 * The game logic only ever moves forward in ticks of TIME_STEP, however fast or slow the frames are,
+	 * and the frame is drawn part of the way between the last two ticks.
 	 */
 	@Override
 	public void render(float delta) {
-		// Counts the number of frames that have passed.
-		coinCount++;
-		attackCount++;
-		staminaCount++;
+		// Starts timing the frame.
+		overlay.beginFrame();
+		
+		// Runs as many ticks as the time that has passed allows.
+		accumulator += Math.min(delta, MAX_FRAME_TIME);
+		while (accumulator >= TIME_STEP) {
+			long start = TimeUtils.nanoTime();
+			if (autopilot != null) {
+				autopilot.play(world, input);
+			} else {
+				keyboard.read(input);
+			}
+			addTime(Phase.INPUT, start);
+			world.tick(input);
+			record(Phase.COLLISION, world.getCollisionNanos());
+			record(Phase.AI, world.getAiNanos());
+			accumulator -= TIME_STEP;
+		}
+		
+		// Ends a stress test once it has run for long enough, or the player has died.
+		if (scenario.isStressTest()) {
+			frameTimes.record(delta);
+			elapsedTime += delta;
+			if (scenario.isFinished(world.getTickCount(), elapsedTime) || mainCharacter.isPlayerAlive() == false) {
+				finishScenario();
+				return;
+			}
+		}
+		
+		// How far the frame is between the previous tick and the current one.
+		float alpha = accumulator / TIME_STEP;
 
 		// Clears the screen and puts a black background.
 		Gdx.gl.glClearColor(0, 0, 0, 0);
@@ -179,399 +296,249 @@ public class PlayScreen implements Screen {
 		// Updates the camera.
 		camera.update();
 		renderer.setView(camera);
-		renderer.render();
 		
 		// Checks if the player is alive.
 		if (mainCharacter.isPlayerAlive() == false) {
-			lastCount++;
-			
-			// Clears the screen and puts a black background.
-			Gdx.gl.glClearColor(0, 0, 0, 0);
-			Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+			// Begins the single pass that the whole frame is drawn in.
+			frameRenderer.begin(camera);
 			
 			// Tells the player how many coins they have collected and how many kills they had.
-			batch.begin();
-			font.draw(batch, "You have accomplished: ", Gdx.graphics.getWidth() / 2 - 160, Gdx.graphics.getHeight() / 2 + 50);
+			accomplishedLabel.draw(batch);
 			
-			batch.draw(coin, Gdx.graphics.getWidth() / 2 - 50, Gdx.graphics.getHeight() / 2 - 30, coin.getWidth() / 5, coin.getHeight() / 5);
-			font.draw(batch, Integer.toString(mainCharacter.getCoinsCollected()), Gdx.graphics.getWidth() / 2, Gdx.graphics.getHeight() / 2);
+			batch.draw(coin, getWidth() / 2 - 50, getHeight() / 2 - 30, coin.getRegionWidth() / 5, coin.getRegionHeight() / 5);
+			deathCoinsText.setNumber(mainCharacter.getCoinsCollected());
+			deathCoinsText.draw(batch);
 			
-			font.draw(batch, "Kills: ", Gdx.graphics.getWidth() / 2 - 50, Gdx.graphics.getHeight() / 2 - 50);
-			font.draw(batch, Integer.toString(mainCharacter.getKills()), Gdx.graphics.getWidth() / 2 + 20, Gdx.graphics.getHeight() / 2 - 50);
-			batch.end();
+			deathKillsLabel.draw(batch);
+			deathKillsText.setNumber(mainCharacter.getKills());
+			deathKillsText.draw(batch);
+			frameRenderer.end();
 			
 			// Sets the screen to the main menu after a certain amount of time.
-			if (lastCount >= 300) {
-				((DungeonDoom) Gdx.app.getApplicationListener()).setScreen(new MainMenuScreen(game));
+			if (world.isOver()) {
+				((DungeonDoom) Gdx.app.getApplicationListener()).setScreen(new LoadingScreen(game, Destination.MAIN_MENU));
 			}
 		}
 		// If the player is alive.
 		else {
-			// Creates the bounding rectangle for the main character.
-			mainCharacterRectangle = mainCharacter.getBoundingRectangle();
+			// Works out where the player is drawn in this frame. The ghosts work it out as they are drawn.
+			mainCharacter.interpolate(alpha);
 			
-			// Adds to the stamina of the player if needed.
-			addStamina();
-	
-			// Checks if the character collides with an obstacle.
-			characterObstacleCollision();
-			
-			// Checks if a ghost collides with a character.
-			ghostCharacterCollision();
-			
-			// Checks if a character collides with a ghost.
-			characterGhostCollision();
+			// Draws the cached layers of the map underneath everything else, before the batch is begun.
+			long start = TimeUtils.nanoTime();
+			if (cacheStaticLayers) {
+				mapCache.render(camera);
+			}
 			
-			// Checks if a character overlaps with a coin.
-			characterCoinCollision();
+			// Begins the single pass that the rest of the frame is drawn in.
+			frameRenderer.begin(camera);
+			if (cacheStaticLayers) {
+				frameRenderer.addDrawCalls(mapCache.getRenderCalls());
+			}
 			
-			// Updates the state of the game and players by taking input.
-			update();
+			// Draws the tiles of the map that are not cached.
+			drawMap();
+			start = addTime(Phase.MAP, start);
 			
 			// Draws all the objects on the screen.
-			drawObjects(delta);
+			drawObjects(alpha);
+			start = addTime(Phase.ENTITIES, start);
 			
 			// Draws features like the health bar and stamina bar.
 			drawUI();
+			start = addTime(Phase.HUD, start);
+			
+			// Draws the timings on top of everything else, if they are shown.
+			overlay.setEntityCounts(world.getGhosts().size, world.getCoins().size, world.getEffects().getActiveCount());
+			overlay.draw(batch);
+			start = addTime(Phase.OVERLAY, start);
+			
+			// Ends the frame, which flushes whatever is left in the batch. This is timed with the HUD, which it mostly draws.
+			frameRenderer.end();
+			addTime(Phase.HUD, start);
 		}
+		
+		// Finishes timing the frame, once everything has been drawn.
+		overlay.endFrame(delta);
+		telemetry.endFrame(delta, world.getGhosts().size, world.getCoins().size, world.getEffects().getActiveCount());
 	}
 	
 	/**
-	 * Draws all the objects on the screen.
-	 * @param delta : the time that has passed
+	 * Adds the time since a phase of the frame started to the overlay and the telemetry.
+	 * @param phase : the phase that has just finished
+	 * @param start : when the phase started, in nanoseconds
+	 * @return now : when the phase finished, which is when the next one starts
 	 */
-	private void drawObjects(float delta) {
-		// All draw and act methods.
-		mainCharacter.act(delta);
-		mainCharacter.draw(batch);
-		
-		for (Coin coin : groundCoins) {
-			coin.act(delta);
-			coin.draw(batch);
-		}
-		
-		for (Ghost ghost : ghosts) {
-			ghost.act(delta);
-			ghost.draw(batch);
-		}
+	private long addTime(Phase phase, long start) {
+		long now = TimeUtils.nanoTime();
+		record(phase, now - start);
+		return now;
 	}
-
+	
 	/**
-	 * Adds stamina to the main character.
+	 * Adds time to a phase of the frame in the overlay and the telemetry.
+	 * @param phase : the phase
+	 * @param nanos : the time in nanoseconds
 	 */
-	private void addStamina() {
-		// If 100 counts have gone by and stamina has not been used, and it is less than 400, then add to the stamina.
-		if (staminaCount > 100 && mainCharacter.getStamina() < 400) {
-			mainCharacter.setStamina(mainCharacter.getStamina() + 1);
-		}
+	private void record(Phase phase, long nanos) {
+		overlay.add(phase, nanos);
+		telemetry.phase(phase, nanos);
 	}
-
+	
 	/**
-	 * Draws the coin image, number of coins, number of kills, health bar, and stamina bar.
+	 * Reports how long the frames of the stress test took, and closes the game.
 	 */
-	private void drawUI() {
-		// Draws the coin image and number of coins and kills by the player.
-		batch.begin();
-		batch.draw(coin, getWidth() - 220, getHeight() - coin.getHeight() / 5 - 40, coin.getWidth() / 5, coin.getHeight() / 5);
-		font.draw(batch, Integer.toString(mainCharacter.getCoinsCollected()), getWidth() - 150, getHeight() - 50);
-		font.draw(batch, Integer.toString(mainCharacter.getHealthPercentage()), 220, getHeight() - 15);
-		font.draw(batch, "Kills: ", getWidth() - 220, getHeight() - 10);
-		font.draw(batch, Integer.toString(mainCharacter.getKills()), getWidth() - 150, getHeight() - 10);
-		batch.end();
-
-		// Draws the health bar and the stamina bars.
-		shapeRenderer.begin(ShapeType.Filled);
-		shapeRenderer.setColor(Color.RED);
-		shapeRenderer.rect(10, getHeight() - 40, (int) (200 * ((float) mainCharacter.getHealthPercentage() / 100)), 20);
-		
-		shapeRenderer.setColor(Color.BLUE);
-		shapeRenderer.rect(10, getHeight() - 70, (int) (200 * ((float) mainCharacter.getStamina()) / 400), 20);
-		shapeRenderer.end();
-		
-		shapeRenderer.begin(ShapeType.Line);
-		shapeRenderer.setColor(Color.WHITE);
-		shapeRenderer.rect(10, getHeight() - 40, (int) (200 * ((float) mainCharacter.getHealthPercentage() / 100)), 20);
-		
-		shapeRenderer.setColor(Color.WHITE);
-		shapeRenderer.rect(10, getHeight() - 70, (int) (200 * ((float) mainCharacter.getStamina()) / 400), 20);
-		shapeRenderer.end();
+	private void finishScenario() {
+		String title = "Scenario: " + scenario.describe() + ". Ran " + world.getTickCount() + " ticks in "
+				+ String.format("%.1f", elapsedTime) + " s" + (mainCharacter.isPlayerAlive() ? "" : ", until the player died") + ".";
+		Gdx.app.log("PlayScreen", title);
+		Gdx.app.log("PlayScreen", "Frame times: " + frameTimes.describe());
+		if (scenario.getReportFile() != null) {
+			frameTimes.write(new FileHandle(scenario.getReportFile()), title);
+		}
+		Gdx.app.exit();
 	}
 
 	/**
-	 * Checks if the character is hit by the ghost.
+	 * Shows or hides the timings with F3, and switches the update of the ghosts between one thread and all of the cores with P.
+	 * @param keycode : the key that went down
+	 * @return handled : true if the key did either
 	 */
-	private void characterGhostCollision() {
-		// Gets the damage rating done by the ghost.
-		int damage = 0;
-		mainCharacter.setTimeSinceAttacked(mainCharacter.getTimeSinceAttacked() + Gdx.graphics.getDeltaTime());
-		
-		// Checks if the main character overlaps with enemies.
-		mainCharacter.setOverlapsWithEnemies(false);
-		for (Ghost ghost : ghosts) {
-			if (mainCharacterRectangle.overlaps(ghost.getBoundingRectangle())) {
-				mainCharacter.setOverlapsWithEnemies(true);
-				damage = ghost.getDamageRating();
-			}
+	private boolean toggle(int keycode) {
+		if (keycode == Keys.F3) {
+			overlay.setVisible(overlay.isVisible() == false);
+			return true;
 		}
-		
-		// If the time since attacked is more than 3 seconds.
-		if (mainCharacter.getTimeSinceAttacked() >= 3) {
-			// If the main character has health less than 100.
-			if (mainCharacter.getHealthPercentage() < 100) {
-				// This increases the health by a non-linear rate.
-				if (attackCount % Math.abs(20 - (int) mainCharacter.getTimeSinceAttacked()) == 0) {
-					mainCharacter.setHealthPercentage(mainCharacter.getHealthPercentage() + 1);
-					attackCount = 0;
-				}
-			}
-		}
-		// If the time since attacked is more than 1 second.
-		if (mainCharacter.getTimeSinceAttacked() >= 1) {
-			// If the main character overlaps with enemies.
-			if (mainCharacter.getOverlapsWithEnemies() == true) {
-				// The main character loses 10 hit points for each second with the enemies.
-				if (mainCharacter.getHealthPercentage() >= 10) {
-					mainCharacter.setHealthPercentage(mainCharacter.getHealthPercentage() - damage);
-				} else {
-					mainCharacter.setHealthPercentage(0);
-				}
-				// Resets time since attacked.
-				mainCharacter.setTimeSinceAttacked(0);
-			}
+		if (keycode == Keys.P) {
+			ParallelSweep sweep = world.getEnemySystem().getSweep();
+			sweep.setParallel(sweep.isParallel() == false);
+			Gdx.app.log("PlayScreen", "Parallel update " + (sweep.isParallel() ? "on, " + sweep.getThreads() + " threads" : "off"));
+			return true;
 		}
+		return false;
 	}
-
+	
 	/**
-	 * Checks for collisions between the character and obstacles.
+	 * Draws the tile layers of the map that are not in the cache into the frame.
 	 */
-	public void characterObstacleCollision() {
-		// Checks if the main character overlaps with obstacles.
-		mainCharacter.setOverlapsWithObstacles(false);
-		for (Ghost ghost : ghosts) {
-			ghost.setOverlapsWithObstacles(false);
-		}
-		// Goes through the obstacle layer of the TiledMap.
-		obstacles = map.getLayers().get("collision").getObjects();
-		
-		// For each obstacle, it checks it the main character or any enemy overlaps with it.
-		for (MapObject object : obstacles.getByType(RectangleMapObject.class)) {
-			Rectangle rect = ((RectangleMapObject) object).getRectangle();
-			// Checks main character overlap.
-			if (mainCharacterRectangle.overlaps(rect)) {
-				mainCharacter.setOverlapsWithObstacles(true);
-			}
-			
-			// Checks if enemy overlaps.
-			for (Ghost ghost : ghosts) {
-				if (ghost.getBoundingRectangle().overlaps(rect)) {
-					ghost.setOverlapsWithObstacles(true);
-				}
+	private void drawMap() {
+		for (int i = 0; i < batchedLayers.size; i++) {
+			if (batchedLayers.get(i).isVisible()) {
+				renderer.renderTileLayer(batchedLayers.get(i));
 			}
 		}
 	}
 	
 	/**
-	 * Checks the collisions of ghosts and main character
+	 * Turns the static map cache on or off. When it is off, every tile layer is drawn with the batch.
+	 * @param cacheStaticLayers : true to draw the static layers from the cache
 	 */
-	public void ghostCharacterCollision() {
-		if (ghosts.size() > 0) {
-			// Goes through each ghost.
-			for (int i = 0; i < ghosts.size(); i++) {
-				// If main character and ghost overlap and the character is attacking, then:
-				// Remove the ghost and add a new ghost at a faster speed.
-				if (mainCharacterRectangle.overlaps(ghosts.get(i).getBoundingRectangle())) {
-					if (mainCharacter.getDirection() == Direction.LEFT) {
-						if (ghosts.get(i).getX() < mainCharacter.getX()) {
-							if (mainCharacter.isAttacking() == true) {
-								ghosts.remove(i);
-								mainCharacter.addKill();
-								spawnEnemy();
-							}
-						}
-					}
-					else if (mainCharacter.getDirection() == Direction.RIGHT) {
-						if (ghosts.get(i).getX() > mainCharacter.getX()) {
-							if (mainCharacter.isAttacking() == true) {
-								ghosts.remove(i);
-								mainCharacter.addKill();
-								spawnEnemy();
-							}
-						}
-					}
-					else if (mainCharacter.getDirection() == Direction.DOWN) {
-						if (ghosts.get(i).getY() < mainCharacter.getY()) {
-							if (mainCharacter.isAttacking() == true) {
-								ghosts.remove(i);
-								mainCharacter.addKill();
-								spawnEnemy();
-							}
-						}
-					}
-					else if (mainCharacter.getDirection() == Direction.UP) {
-						if (ghosts.get(i).getY() > mainCharacter.getY()) {
-							if (mainCharacter.isAttacking() == true) {
-								ghosts.remove(i);
-								mainCharacter.addKill();
-								spawnEnemy();
-							}
-						}
-					}
-				}
-				
+	public void setCacheStaticLayers(boolean cacheStaticLayers) {
+		this.cacheStaticLayers = cacheStaticLayers;
+		
+		// Works out which layers still need to be drawn with the batch.
+		batchedLayers.clear();
+		for (MapLayer layer : map.getLayers()) {
+			if (layer instanceof TiledMapTileLayer && (cacheStaticLayers == false || StaticMapCache.isDynamic(layer))) {
+				batchedLayers.add((TiledMapTileLayer) layer);
 			}
 		}
 	}
-	
+
 	/**
-	 * Spawns a new ghost enemy.
+	 * Draws all the objects on the screen.
+	 * @param alpha : how far the frame is between the last two ticks, from 0 to 1
 	 */
-	private void spawnEnemy() {
-		Ghost ghost = new Ghost();
+	private void drawObjects(float alpha) {
+		// All draw methods.
+		mainCharacter.draw(batch);
 		
-		// Increases the speed of the new ghost.
-		if (speed <= 100) {
-			speed++;
+		EntityStore groundCoins = world.getCoins();
+		EntityStore ghosts = world.getGhosts();
+		Coin coinKind = world.getCoinKind();
+		Ghost ghostKind = world.getGhostKind();
+		for (int i = 0; i < groundCoins.size; i++) {
+			coinKind.draw(batch, groundCoins, i);
 		}
 		
-		// Sets the properties of the ghost and adds it to the screen.
-		ghost.setBaseSpeed(speed);
-		ghost.setX(Math.round(Math.random()) * getWidth());
-		ghost.setY(Math.round(Math.random() * getHeight()));
-		ghosts.add(ghost);
+		for (int i = 0; i < ghosts.size; i++) {
+			ghostKind.draw(batch, ghosts, i, alpha);
+		}
+		
+		world.getEffects().draw(batch);
 	}
 
 	/**
-	 * Checks to see if a character picks up a coin.
+	 * Draws the coin image, number of coins, number of kills, health bar, and stamina bar.
 	 */
-	public void characterCoinCollision() {
-		if (groundCoins.size() > 0) {
-			// If the coin overlaps with the main character, it is removed and added to the main character.
-			for (int i = 0; i < groundCoins.size(); i++) {
-				if (mainCharacterRectangle.overlaps(groundCoins.get(i).getBoundingRectangle())) {
-					mainCharacter.addCoins(1);
-					groundCoins.remove(i);
-				}
-			}
-		}
-		// After certain time intervals, coins are automatically added.
-		if (coinCount > 300) {
-			spawnCoin();
-			coinCount = 0;
-		}
+	private void drawUI() {
+		// Draws the coin image and number of coins and kills by the player.
+		batch.draw(coin, getWidth() - 220, getHeight() - coin.getRegionHeight() / 5 - 40, coin.getRegionWidth() / 5, coin.getRegionHeight() / 5);
+		coinsText.setNumber(mainCharacter.getCoinsCollected());
+		coinsText.draw(batch);
+		healthText.setNumber(mainCharacter.getHealthPercentage());
+		healthText.draw(batch);
+		killsLabel.draw(batch);
+		killsText.setNumber(mainCharacter.getKills());
+		killsText.draw(batch);
+
+		// Draws the health bar and the stamina bars into the same batch.
+		int healthWidth = (int) (200 * ((float) mainCharacter.getHealthPercentage() / 100));
+		int staminaWidth = (int) (200 * ((float) mainCharacter.getStamina()) / 400);
+		
+		frameRenderer.drawFilledRect(10, getHeight() - 40, healthWidth, 20, Color.RED);
+		frameRenderer.drawFilledRect(10, getHeight() - 70, staminaWidth, 20, Color.BLUE);
+		
+		frameRenderer.drawRectOutline(10, getHeight() - 40, healthWidth, 20, Color.WHITE);
+		frameRenderer.drawRectOutline(10, getHeight() - 70, staminaWidth, 20, Color.WHITE);
 	}
 
 	/**
-	 * Spawns a new coin.
+	 * Gets the stage that draws the frame, which counts the draw calls and flushes of the last frame.
+	 * @return frameRenderer
 	 */
-	private void spawnCoin() {
-		Coin coin = new Coin();
-		coin.setX((int) (15 + Math.random() * (getWidth() - 30)));
-		coin.setY((int) (15 + Math.random() * (getHeight() - 30)));
-		groundCoins.add(coin);
+	public FrameRenderer getFrameRenderer() {
+		return frameRenderer;
 	}
 
 	/**
-	 * Takes in user input (keyboard input) and responds appropriately.
+	 * Gets the number of candidate pairs that the collision checks tested in the last tick.
+	 * @return collisionPairs
 	 */
-	public void update() {
-		// If the main character doesn't overlap with obstacles.
-		if (mainCharacter.getOverlapsWithObstacles() == false) {
-			if (Gdx.input.isKeyPressed(Keys.A)) {
-				mainCharacter.setMoving(true);
-				mainCharacter.setAttacking(false);
-				mainCharacter.setDirection(Direction.LEFT);
-				
-				// If Space is pressed and stamina is more than 0, character can run.
-				if (Gdx.input.isKeyPressed(Keys.SPACE) && mainCharacter.getStamina() > 0) {
-					mainCharacter.setVelocityX(-2 * baseSpeed);
-					mainCharacter.setVelocityY(0);
-					mainCharacter.setMovingFast(true);
-					mainCharacter.setStamina(mainCharacter.getStamina() - 1);
-					staminaCount = 0;
-				} else {
-					mainCharacter.setVelocityX(-baseSpeed);
-					mainCharacter.setVelocityY(0);
-					mainCharacter.setMovingFast(false);
-				}
-			} else if (Gdx.input.isKeyPressed(Keys.D)) {
-				mainCharacter.setMoving(true);
-				mainCharacter.setAttacking(false);
-				mainCharacter.setDirection(Direction.RIGHT);
-				
-				// If Space is pressed and stamina is more than 0, character can run.
-				if (Gdx.input.isKeyPressed(Keys.SPACE) && mainCharacter.getStamina() > 0) {
-					mainCharacter.setVelocityX(2 * baseSpeed);
-					mainCharacter.setVelocityY(0);
-					mainCharacter.setMovingFast(true);
-					mainCharacter.setStamina(mainCharacter.getStamina() - 1);
-					staminaCount = 0;
-				} else {
-					mainCharacter.setVelocityX(baseSpeed);
-					mainCharacter.setVelocityY(0);
-					mainCharacter.setMovingFast(false);
-				}
-			} else if (Gdx.input.isKeyPressed(Keys.W)) {
-				mainCharacter.setMoving(true);
-				mainCharacter.setAttacking(false);
-				mainCharacter.setDirection(Direction.UP);
-				
-				// If Space is pressed and stamina is more than 0, character can run.
-				if (Gdx.input.isKeyPressed(Keys.SPACE) && mainCharacter.getStamina() > 0) {
-					mainCharacter.setVelocityX(0);
-					mainCharacter.setVelocityY(2 * baseSpeed);
-					mainCharacter.setMovingFast(true);
-					mainCharacter.setStamina(mainCharacter.getStamina() - 1);
-					staminaCount = 0;
-				} else {
-					mainCharacter.setVelocityX(0);
-					mainCharacter.setVelocityY(baseSpeed);
-					mainCharacter.setMovingFast(false);
-				}
-			} else if (Gdx.input.isKeyPressed(Keys.S)) {
-				mainCharacter.setMoving(true);
-				mainCharacter.setAttacking(false);
-				mainCharacter.setDirection(Direction.DOWN);
-				
-				// If Space is pressed and stamina is more than 0, character can run.
-				if (Gdx.input.isKeyPressed(Keys.SPACE) && mainCharacter.getStamina() > 0) {
-					mainCharacter.setVelocityX(0);
-					mainCharacter.setVelocityY(-2 * baseSpeed);
-					mainCharacter.setMovingFast(true);
-					mainCharacter.setStamina(mainCharacter.getStamina() - 1);
-					staminaCount = 0;
-				} else {
-					mainCharacter.setVelocityX(0);
-					mainCharacter.setVelocityY(-baseSpeed);
-					mainCharacter.setMovingFast(false);
-				}
-			} 
-			// The character attacks if J is pressed.
-			else if (Gdx.input.isKeyJustPressed(Keys.J)) {
-				mainCharacter.setMoving(false);
-				mainCharacter.setMovingFast(false);
-				mainCharacter.setAttacking(true);
-				mainCharacter.setVelocityX(0);
-				mainCharacter.setVelocityY(0);
-			} else {
-				mainCharacter.setMoving(false);
-				mainCharacter.setMovingFast(false);
-				mainCharacter.setVelocityX(0);
-				mainCharacter.setVelocityY(0);
-			}
-		}
-		// If the character overlaps with obstacles.
-		else {
-			mainCharacter.setMoving(false);
-			mainCharacter.setMovingFast(false);
-			mainCharacter.setAttacking(false);
-			mainCharacter.setVelocityX(0);
-			mainCharacter.setVelocityY(0);
-		}
-		
-		// If the player presses escape or the main character dies.
-		if (mainCharacter.getHealthPercentage() == 0 || Gdx.input.isKeyPressed(Keys.ESCAPE)) {
-			mainCharacter.setPlayerAlive(false);
-		}
+	public int getCollisionPairs() {
+		return world.getCollisionPairs();
+	}
+
+	/**
+	 * Gets the grid of obstacles that the collision layer of the map was baked into.
+	 * @return collisionGrid
+	 */
+	public CollisionGrid getCollisionGrid() {
+		return world.getCollisionGrid();
+	}
+
+	/**
+	 * Gets the path finder for the obstacles of the map.
+	 * @return pathFinder
+	 */
+	public HierarchicalPathFinder getPathFinder() {
+		return world.getPathFinder();
+	}
+
+	/**
+	 * Gets the update phase of the ghosts, which times their AI and can limit it to an active area.
+	 * @return enemySystem
+	 */
+	public EnemySystem getEnemySystem() {
+		return world.getEnemySystem();
+	}
+
+	/**
+	 * Gets the world that the game is run in.
+	 * @return world
+	 */
+	public GameWorld getWorld() {
+		return world;
 	}
 
 	/**
@@ -594,19 +561,20 @@ public class PlayScreen implements Screen {
 	}
 
 	/**
-	 * The show method loads the map onto the screen.
+	 * The show method sets up the renderers of the map.
 	 */
 	@Override
 	public void show() {
-		// Loads the map.
-		map = (new TmxMapLoader()).load("assets/MapLevelNew.tmx");
-
-		// Renders the map.
-		renderer = new OrthogonalTiledMapRenderer(map);
+		// Renders the map with the same batch as everything else.
+		renderer = new OrthogonalTiledMapRenderer(map, batch);
+		setCacheStaticLayers(cacheStaticLayers);
 
 		// Gets the camera and sets it to the screen.
 		camera = game.getCamera();
 		camera.setToOrtho(false, getWidth(), getHeight());
+		
+		// Starts listening to the keyboard.
+		Gdx.input.setInputProcessor(inputProcessor);
 	}
 
 	/**
@@ -0,0 +1,159 @@
+package com.dungeondoom.telemetry;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Roshan Munjal
+ * The JfrEvents are the game's own events in the JDK Flight Recorder, such
+ * as how long each phase of a frame took. The game is built for Java 7,
+ * which has no Flight Recorder API, so the events are made at runtime with
+ * jdk.jfr.EventFactory, through reflection. When the game runs on Java 11
+ * or later, they show up in any recording, such as one started with
+ *     java -XX:StartFlightRecording=filename=game.jfr ...
+ * under the "Dungeon Doom" category, and can be read with JDK Mission
+ * Control or "jfr print --events com.dungeondoom.Frame game.jfr". On older
+ * JVMs, or if anything about the API is not as expected, every event is
+ * quietly left out. Nothing is made for an event type that no recording
+ * has turned on, so the events cost almost nothing when nobody records.
+ */
+class JfrEvents {
+
+	// The category the events are listed under.
+	private static final String CATEGORY = "Dungeon Doom";
+
+	// The reflected parts of the Flight Recorder API, which are all null if it is not there.
+	private static Method create, newEvent, getEventType, isEnabled, set, commit;
+	private static Constructor<?> annotationElement, valueDescriptor;
+	private static Class<? extends Annotation> nameAnnotation, labelAnnotation, categoryAnnotation, timespanAnnotation;
+
+	// The arguments of a method that takes none, shared so that calling it allocates nothing.
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
+	static {
+		try {
+			Class<?> eventFactory = Class.forName("jdk.jfr.EventFactory");
+			Class<?> event = Class.forName("jdk.jfr.Event");
+			Class<?> eventType = Class.forName("jdk.jfr.EventType");
+			create = eventFactory.getMethod("create", List.class, List.class);
+			newEvent = eventFactory.getMethod("newEvent");
+			getEventType = eventFactory.getMethod("getEventType");
+			isEnabled = eventType.getMethod("isEnabled");
+			set = event.getMethod("set", int.class, Object.class);
+			commit = event.getMethod("commit");
+			annotationElement = Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+			valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class, List.class);
+			nameAnnotation = Class.forName("jdk.jfr.Name").asSubclass(Annotation.class);
+			labelAnnotation = Class.forName("jdk.jfr.Label").asSubclass(Annotation.class);
+			categoryAnnotation = Class.forName("jdk.jfr.Category").asSubclass(Annotation.class);
+			timespanAnnotation = Class.forName("jdk.jfr.Timespan").asSubclass(Annotation.class);
+		} catch (Exception e) {
+			// This JVM has no Flight Recorder API, so there are no events.
+			create = null;
+		} catch (LinkageError e) {
+			create = null;
+		}
+
+		// Skips the access check on every call, which allocates now and then. The calls still work without this.
+		if (create != null) {
+			try {
+				isEnabled.setAccessible(true);
+				newEvent.setAccessible(true);
+				set.setAccessible(true);
+				commit.setAccessible(true);
+			} catch (RuntimeException e) {
+				// The checks are left on.
+			}
+		}
+	}
+
+	/**
+	 * Checks if the Flight Recorder API is there.
+	 * @return available
+	 */
+	static boolean isAvailable() {
+		return create != null;
+	}
+
+	/**
+	 * One type of event, with its fields.
+	 */
+	static class Type {
+
+		// The factory of the events, or null if the type could not be made.
+		private Object factory;
+		private Object eventType;
+
+		/**
+		 * Constructor for the Type class.
+		 * @param name : the name of the type, such as com.dungeondoom.Frame
+		 * @param label : the name it is shown with
+		 * @param fields : the name, then the class, of each field, where a field called "elapsed" is a time in nanoseconds
+		 */
+		Type(String name, String label, Object... fields) {
+			if (isAvailable() == false) {
+				return;
+			}
+			try {
+				List<Object> annotations = new ArrayList<Object>();
+				annotations.add(annotationElement.newInstance(nameAnnotation, name));
+				annotations.add(annotationElement.newInstance(labelAnnotation, label));
+				annotations.add(annotationElement.newInstance(categoryAnnotation, new String[] { CATEGORY }));
+
+				List<Object> values = new ArrayList<Object>();
+				for (int i = 0; i < fields.length; i += 2) {
+					String field = (String) fields[i];
+					List<Object> fieldAnnotations = new ArrayList<Object>();
+					if (field.equals("elapsed")) {
+						fieldAnnotations.add(annotationElement.newInstance(timespanAnnotation, "NANOSECONDS"));
+					}
+					values.add(valueDescriptor.newInstance(fields[i + 1], field, fieldAnnotations));
+				}
+				factory = create.invoke(null, annotations, values);
+				eventType = getEventType.invoke(factory);
+			} catch (Exception e) {
+				factory = null;
+			}
+		}
+
+		/**
+		 * Checks if any recording wants events of this type.
+		 * @return enabled
+		 */
+		boolean isEnabled() {
+			if (factory == null) {
+				return false;
+			}
+			try {
+				return (Boolean) isEnabled.invoke(eventType, NO_ARGUMENTS);
+			} catch (Exception e) {
+				return false;
+			}
+		}
+
+		/**
+		 * Records an event of this type, if any recording wants it.
+		 * @param values : the value of each field, in the order they were given
+		 */
+		void commit(Object... values) {
+			if (isEnabled() == false) {
+				return;
+			}
+			try {
+				Object event = newEvent.invoke(factory, NO_ARGUMENTS);
+				for (int i = 0; i < values.length; i++) {
+					set.invoke(event, i, values[i]);
+				}
+				commit.invoke(event, NO_ARGUMENTS);
+			} catch (Exception e) {
+				// A broken event is left out, and the type is not tried again.
+				factory = null;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.dungeondoom.telemetry;
+
+import com.badlogic.gdx.utils.StringBuilder;
+import com.dungeondoom.render.PerformanceOverlay.Phase;
+
+/**
+ * @author Roshan Munjal
+ * A Sample is one line of a telemetry trace: a frame, with how long each of
+ * its phases took and how many things were alive, or something that
+ * happened during it, such as a spawn or a change of screen. The samples
+ * are reused, so every field is set again each time one is filled in. All
+ * times are written in microseconds.
+ */
+class Sample {
+
+	/**
+	 * The kinds of sample.
+	 */
+	enum Type {
+		FRAME("frame"),
+		SPAWN("spawn"),
+		SCREEN("screen");
+
+		// The name the kind is written with.
+		private final String label;
+
+		Type(String label) {
+			this.label = label;
+		}
+	}
+
+	// The phases, by ordinal.
+	private static final Phase[] PHASES = Phase.values();
+
+	// The kind of sample, the frame it was in, and when it happened since the session started.
+	Type type;
+	int frame;
+	long timeNanos;
+
+	// How long the frame, the spawn, or the frame with the change of screen took.
+	long durationNanos;
+
+	// How long each phase of a frame took.
+	long[] phaseNanos;
+
+	// The number of things alive at the end of a frame, and the heap that was in use.
+	int ghosts, coins, effects;
+	long heapBytes;
+
+	// What was spawned and how many of them are alive, or the screens that were changed between.
+	String kind;
+	int live;
+	String from, to;
+
+	/**
+	 * Constructor for the Sample class.
+	 * @param phaseCount : the number of phases in a frame
+	 */
+	Sample(int phaseCount) {
+		phaseNanos = new long[phaseCount];
+	}
+
+	/**
+	 * Writes the sample as a JSON object, without a new line.
+	 * @param out : where it is written
+	 */
+	void write(StringBuilder out) {
+		out.append("{\"type\":\"").append(type.label).append("\",\"frame\":").append(frame);
+		out.append(",\"timeUs\":").append(timeNanos / 1000);
+		switch (type) {
+		case FRAME:
+			out.append(",\"frameUs\":").append(durationNanos / 1000);
+			for (int i = 0; i < PHASES.length; i++) {
+				out.append(",\"").append(PHASES[i].getLabel()).append("Us\":").append(phaseNanos[i] / 1000);
+			}
+			out.append(",\"ghosts\":").append(ghosts).append(",\"coins\":").append(coins).append(",\"effects\":").append(effects);
+			out.append(",\"heapKb\":").append(heapBytes >> 10);
+			break;
+		case SPAWN:
+			out.append(",\"kind\":\"").append(kind).append("\",\"durationUs\":").append(durationNanos / 1000);
+			out.append(",\"live\":").append(live);
+			break;
+		default:
+			out.append(",\"from\":\"").append(from).append("\",\"to\":\"").append(to).append("\"");
+			out.append(",\"frameUs\":").append(durationNanos / 1000);
+			break;
+		}
+		out.append('}');
+	}
+
+}
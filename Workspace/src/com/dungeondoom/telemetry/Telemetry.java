@@ -0,0 +1,199 @@
+package com.dungeondoom.telemetry;
+
+import com.badlogic.gdx.utils.TimeUtils;
+import com.dungeondoom.render.PerformanceOverlay.Phase;
+
+/**
+ * @author Roshan Munjal
+ * The Telemetry records what happened in a session, so that a slow one can
+ * be looked at afterwards: how long each phase of every frame took, and the
+ * things that can make a frame slow, such as spawning a ghost or a coin or
+ * changing screens. Everything is sent to the Flight Recorder as the game's
+ * own events, which cost almost nothing unless a recording is running (see
+ * JfrEvents). With
+ *     --telemetry <file.jsonl>
+ * on the command line, every frame is also written to a file, one JSON
+ * object to a line, by a thread of its own, so that players can send us a
+ * trace without a profiler attached. One Telemetry is shared by the whole
+ * game, and it is only used from the render thread.
+ */
+public class Telemetry {
+
+	// The command line flag that is followed by the file to write the frames to.
+	public static final String FLAG = "--telemetry";
+
+	// The kinds of thing that are spawned.
+	public static final String GHOST = "ghost";
+	public static final String COIN = "coin";
+
+	// The phases, by ordinal.
+	private static final Phase[] PHASES = Phase.values();
+
+	// The game's events in the Flight Recorder.
+	private static final JfrEvents.Type PHASE_EVENT = new JfrEvents.Type("com.dungeondoom.Phase", "Frame Phase",
+			"phase", String.class, "frame", int.class, "elapsed", long.class);
+	private static final JfrEvents.Type FRAME_EVENT = new JfrEvents.Type("com.dungeondoom.Frame", "Frame",
+			"frame", int.class, "elapsed", long.class, "ghosts", int.class, "coins", int.class, "effects", int.class);
+	private static final JfrEvents.Type SPAWN_EVENT = new JfrEvents.Type("com.dungeondoom.Spawn", "Spawn",
+			"kind", String.class, "live", int.class, "elapsed", long.class);
+	private static final JfrEvents.Type SCREEN_EVENT = new JfrEvents.Type("com.dungeondoom.ScreenTransition", "Screen Transition",
+			"from", String.class, "to", String.class, "elapsed", long.class);
+
+	// The writer of the file, or null if the frames are not written to one.
+	private TelemetryExporter exporter;
+
+	// The time of each phase in the frame that is being recorded.
+	private long[] phaseNanos = new long[PHASES.length];
+
+	// The number of frames that have been recorded, and when the session started.
+	private int frame = 0;
+	private long startNanos = TimeUtils.nanoTime();
+
+	/**
+	 * Constructor for the Telemetry class, which only sends events to the Flight Recorder.
+	 */
+	public Telemetry() {
+	}
+
+	/**
+	 * Constructor for the Telemetry class, which also writes every frame to a file.
+	 * @param fileName : the file to write to, which is replaced if it is already there
+	 */
+	public Telemetry(String fileName) {
+		exporter = new TelemetryExporter(fileName, PHASES.length);
+	}
+
+	/**
+	 * Reads the telemetry from the command line.
+	 * @param args : the command line
+	 * @return telemetry : one that writes to the file after the FLAG, or one that only sends events if there is none
+	 */
+	public static Telemetry parse(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals(FLAG)) {
+				if (i + 1 >= args.length || args[i + 1].startsWith("--")) {
+					throw new IllegalArgumentException(FLAG + " needs the file to write the frames to");
+				}
+				return new Telemetry(args[i + 1]);
+			}
+		}
+		return new Telemetry();
+	}
+
+	/**
+	 * Adds time to a phase of the frame that is being recorded. A phase can be added to more than once.
+	 * @param phase : the phase
+	 * @param nanos : the time in nanoseconds
+	 */
+	public void phase(Phase phase, long nanos) {
+		phaseNanos[phase.ordinal()] += nanos;
+	}
+
+	/**
+	 * Records that something was spawned.
+	 * @param kind : what was spawned, such as GHOST
+	 * @param live : how many of them are alive now
+	 * @param nanos : how long spawning it took
+	 */
+	public void spawn(String kind, int live, long nanos) {
+		if (SPAWN_EVENT.isEnabled()) {
+			SPAWN_EVENT.commit(kind, live, nanos);
+		}
+		Sample sample = obtain(Sample.Type.SPAWN, nanos);
+		if (sample != null) {
+			sample.kind = kind;
+			sample.live = live;
+			exporter.submit(sample);
+		}
+	}
+
+	/**
+	 * Records a change of screen.
+	 * @param from : the screen before, or null if there was none
+	 * @param to : the screen after
+	 * @param nanos : how long the frame with the change took
+	 */
+	public void screenChange(String from, String to, long nanos) {
+		if (SCREEN_EVENT.isEnabled()) {
+			SCREEN_EVENT.commit(from, to, nanos);
+		}
+		Sample sample = obtain(Sample.Type.SCREEN, nanos);
+		if (sample != null) {
+			sample.from = from;
+			sample.to = to;
+			exporter.submit(sample);
+		}
+	}
+
+	/**
+	 * Records the frame, once everything in it has been drawn, and starts the next one.
+	 * @param delta : the length of the frame in seconds
+	 * @param ghosts : the number of ghosts alive
+	 * @param coins : the number of coins on the ground
+	 * @param effects : the number of effects being shown
+	 */
+	public void endFrame(float delta, int ghosts, int coins, int effects) {
+		long nanos = (long) (delta * 1000000000L);
+		if (PHASE_EVENT.isEnabled()) {
+			for (int i = 0; i < PHASES.length; i++) {
+				PHASE_EVENT.commit(PHASES[i].getLabel(), frame, phaseNanos[i]);
+			}
+		}
+		if (FRAME_EVENT.isEnabled()) {
+			FRAME_EVENT.commit(frame, nanos, ghosts, coins, effects);
+		}
+		Sample sample = obtain(Sample.Type.FRAME, nanos);
+		if (sample != null) {
+			System.arraycopy(phaseNanos, 0, sample.phaseNanos, 0, phaseNanos.length);
+			sample.ghosts = ghosts;
+			sample.coins = coins;
+			sample.effects = effects;
+			Runtime runtime = Runtime.getRuntime();
+			sample.heapBytes = runtime.totalMemory() - runtime.freeMemory();
+			exporter.submit(sample);
+		}
+
+		// Starts the next frame.
+		for (int i = 0; i < phaseNanos.length; i++) {
+			phaseNanos[i] = 0;
+		}
+		frame++;
+	}
+
+	/**
+	 * Gets a sample for the file and fills in what every sample has.
+	 * @return sample : the sample, or null if the frames are not written to a file or the writer is behind
+	 */
+	private Sample obtain(Sample.Type type, long nanos) {
+		if (exporter == null) {
+			return null;
+		}
+		Sample sample = exporter.obtain();
+		if (sample != null) {
+			sample.type = type;
+			sample.frame = frame;
+			sample.timeNanos = TimeUtils.nanoTime() - startNanos;
+			sample.durationNanos = nanos;
+		}
+		return sample;
+	}
+
+	/**
+	 * Checks if the frames are written to a file.
+	 * @return exporting
+	 */
+	public boolean isExporting() {
+		return exporter != null;
+	}
+
+	/**
+	 * Writes whatever is waiting to the file and closes it.
+	 */
+	public void close() {
+		if (exporter != null) {
+			exporter.close();
+			exporter = null;
+		}
+	}
+
+}
@@ -0,0 +1,137 @@
+package com.dungeondoom.telemetry;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * @author Roshan Munjal
+ * The TelemetryExporter writes the samples of a session to a file, one JSON
+ * object to a line, so that a trace of a slow session can be sent to us and
+ * looked at afterwards. The game never waits on the file: it fills in a
+ * sample from a fixed set of them and hands it over, and a thread of its
+ * own turns it into text and writes it. The samples are handed back once
+ * they are written, so recording allocates nothing. If the writer falls so
+ * far behind that every sample is in use, new ones are dropped and counted
+ * rather than slowing the game down.
+ */
+class TelemetryExporter {
+
+	// The number of samples that can be waiting to be written at once.
+	private static final int CAPACITY = 1024;
+
+	// The samples that are free to fill in, and the ones that are waiting to be written.
+	private BlockingQueue<Sample> free = new ArrayBlockingQueue<Sample>(CAPACITY);
+	private BlockingQueue<Sample> written = new ArrayBlockingQueue<Sample>(CAPACITY);
+
+	// The file, and the thread that writes to it.
+	private Writer writer;
+	private Thread thread;
+	private volatile boolean running = true;
+
+	// The number of samples that were dropped because the writer was behind.
+	private volatile int dropped = 0;
+
+	// The line that is being written, which is only used by the writer thread.
+	private StringBuilder line = new StringBuilder(256);
+
+	/**
+	 * Constructor for the TelemetryExporter class. This opens the file and starts the writer thread.
+	 * @param fileName : the file to write to, which is replaced if it is already there
+	 * @param phaseCount : the number of phases in a frame
+	 */
+	TelemetryExporter(String fileName, int phaseCount) {
+		try {
+			writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), "UTF-8"), 1 << 16);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("The telemetry file " + fileName + " could not be opened", e);
+		}
+		for (int i = 0; i < CAPACITY; i++) {
+			free.add(new Sample(phaseCount));
+		}
+
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeSamples();
+			}
+		}, "telemetry-writer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Gets a sample to fill in.
+	 * @return sample : a free sample, or null if the writer is behind and every sample is in use
+	 */
+	Sample obtain() {
+		Sample sample = free.poll();
+		if (sample == null) {
+			dropped++;
+		}
+		return sample;
+	}
+
+	/**
+	 * Hands a filled in sample over to be written.
+	 * @param sample : the sample from obtain
+	 */
+	void submit(Sample sample) {
+		written.offer(sample);
+	}
+
+	/**
+	 * Writes the samples as they come in, until the exporter is closed and every sample has been written.
+	 */
+	private void writeSamples() {
+		try {
+			while (running || written.isEmpty() == false) {
+				Sample sample = written.poll(100, TimeUnit.MILLISECONDS);
+				if (sample != null) {
+					sample.write(line);
+					line.append('\n');
+					writer.write(line.chars, 0, line.length);
+					line.setLength(0);
+					free.offer(sample);
+				}
+			}
+			if (dropped > 0) {
+				writer.write("{\"type\":\"dropped\",\"samples\":" + dropped + "}\n");
+			}
+			writer.close();
+		} catch (IOException e) {
+			running = false;
+		} catch (InterruptedException e) {
+			running = false;
+		}
+	}
+
+	/**
+	 * Writes whatever is waiting, closes the file and stops the writer thread.
+	 */
+	void close() {
+		running = false;
+		try {
+			thread.join(5000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Gets the number of samples that were dropped because the writer was behind.
+	 * @return dropped
+	 */
+	int getDropped() {
+		return dropped;
+	}
+
+}
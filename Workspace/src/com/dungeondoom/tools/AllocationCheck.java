@@ -0,0 +1,217 @@
+package com.dungeondoom.tools;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+import java.util.Random;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.badlogic.gdx.math.GridPoint2;
+import com.dungeondoom.actors.Autopilot;
+import com.dungeondoom.actors.Player;
+import com.dungeondoom.actors.PlayerInput;
+import com.dungeondoom.assets.AnimationLibrary;
+import com.dungeondoom.assets.Archetype;
+import com.dungeondoom.currency.Coin;
+import com.dungeondoom.effects.EffectSystem;
+import com.dungeondoom.enemies.Ghost;
+import com.dungeondoom.render.NumberText;
+import com.dungeondoom.render.PerformanceOverlay.Phase;
+import com.dungeondoom.telemetry.Telemetry;
+import com.dungeondoom.world.CollisionGrid;
+import com.dungeondoom.world.GameWorld;
+import com.dungeondoom.world.ScenarioConfig;
+
+/**
+ * @author Roshan Munjal
+ * The AllocationCheck makes sure that the game allocates nothing once it
+ * is running, since every byte that a frame allocates is garbage that the
+ * collector has to stop for sooner or later. It plays a game without a
+ * window, the same way the PlayScreen does each frame: the Autopilot picks
+ * the input, the world runs a tick with its collisions and AI, the phases
+ * and the frame are recorded to the telemetry, and the numbers on the HUD
+ * are written out. The first frames warm everything up, so that the pools
+ * have grown and the JIT has compiled the loop, and then the bytes that
+ * each frame allocates on this thread are counted.
+ *
+ * Some frames are allowed to allocate. A frame with more ghosts, coins or
+ * effects than ever before grows the stores and pools to fit them, and the
+ * frame after it grows the broadphase, which stops once the numbers stop
+ * rising. A frame can also load a class, once for each class, when the JIT
+ * gets to a path for the first time. The JIT can also allocate a few bytes
+ * now and then as it recompiles the loop, so the frames are counted again,
+ * up to ROUNDS times, and the check only fails, with an exit code of 1, if
+ * every round allocated. Anything that really allocates every frame, or
+ * every few, fails every round. The player cannot die, and the scenario
+ * can be changed with key=value arguments, as with --scenario:
+ *     java -cp bin:libraries/gdx.jar com.dungeondoom.tools.AllocationCheck [frames] [warmup] [key=value...]
+ */
+public class AllocationCheck {
+
+	// The file that the sizes of the characters are read from.
+	private static final String ATLAS_FILE = "assets/game.atlas";
+
+	// The number of times the frames are counted before the check fails.
+	private static final int ROUNDS = 3;
+
+	/**
+	 * Runs the check.
+	 * @param args : the number of frames that are counted, the number of frames before them, and any scenario overrides
+	 */
+	public static void main(String[] args) {
+		int frames = args.length > 0 && args[0].contains("=") == false ? Integer.parseInt(args[0]) : 20000;
+		int warmup = args.length > 1 && args[1].contains("=") == false ? Integer.parseInt(args[1]) : 20000;
+
+		// The player cannot die, so that the game runs for as long as the check does.
+		Properties properties = new Properties();
+		properties.setProperty(ScenarioConfig.IMMORTAL, "true");
+		properties.setProperty(ScenarioConfig.SEED, "1");
+		for (String arg : args) {
+			int equals = arg.indexOf('=');
+			if (equals > 0) {
+				properties.setProperty(arg.substring(0, equals), arg.substring(equals + 1));
+			}
+		}
+		ScenarioConfig scenario = new ScenarioConfig();
+		scenario.set(properties);
+
+		com.sun.management.ThreadMXBean allocations = getAllocations();
+		if (allocations == null) {
+			System.out.println("This JVM cannot count the bytes a thread allocates");
+			System.exit(2);
+		}
+
+		// Reads the obstacles and the sizes of the characters, without a window.
+		CollisionGrid grid = CollisionGrid.fromTmx(new FileHandle(scenario.getMapFile()));
+		FileHandle atlas = new FileHandle(ATLAS_FILE);
+		TextureAtlasData atlasData = new TextureAtlasData(atlas, atlas.parent(), false);
+		GridPoint2 playerSize = AnimationLibrary.getFrameSize(atlasData, Archetype.PLAYER);
+		GridPoint2 ghostSize = AnimationLibrary.getFrameSize(atlasData, Archetype.GHOST);
+		GridPoint2 coinSize = AnimationLibrary.getRegionSize(atlasData, Coin.COIN_REGION);
+
+		Player player = new Player("Autopilot");
+		player.setBoundingSize(playerSize.x, playerSize.y);
+		Random random = scenario.createRandom();
+		GameWorld world = new GameWorld(grid, player, new Ghost(ghostSize.x, ghostSize.y),
+				new Coin(coinSize.x / Coin.SPRITE_SCALE, coinSize.y / Coin.SPRITE_SCALE), new EffectSystem(null), random, scenario);
+		Telemetry telemetry = new Telemetry();
+		world.setTelemetry(telemetry);
+		Frame frame = new Frame(world, telemetry);
+		System.out.println("Scenario: " + scenario.describe() + ", " + warmup + " frames of warmup, " + frames + " frames counted");
+
+		// Warms up, and then counts what each frame allocates.
+		for (int i = 0; i < warmup; i++) {
+			frame.run();
+		}
+		long thread = Thread.currentThread().getId();
+		long overhead = allocations.getThreadAllocatedBytes(thread);
+		overhead = allocations.getThreadAllocatedBytes(thread) - overhead;
+		ClassLoadingMXBean classes = ManagementFactory.getClassLoadingMXBean();
+		int previousPeak = getPeak(world);
+		boolean passed = false;
+		for (int round = 1; round <= ROUNDS && passed == false; round++) {
+			long allocated = 0, grown = 0;
+			int allocatingFrames = 0, growingFrames = 0, firstFrame = -1;
+			for (int i = 0; i < frames; i++) {
+				int peak = getPeak(world);
+				long loaded = classes.getTotalLoadedClassCount();
+				long before = allocations.getThreadAllocatedBytes(thread);
+				frame.run();
+				long bytes = allocations.getThreadAllocatedBytes(thread) - before - overhead;
+				boolean growing = getPeak(world) > previousPeak || classes.getTotalLoadedClassCount() > loaded;
+				previousPeak = peak;
+				if (bytes <= 0) {
+					continue;
+				}
+				if (growing) {
+					grown += bytes;
+					growingFrames++;
+				} else {
+					allocated += bytes;
+					allocatingFrames++;
+					if (firstFrame < 0) {
+						firstFrame = world.getTickCount();
+					}
+				}
+			}
+
+			System.out.println(String.format("Round %d: %d frames allocated %d bytes (%d ghosts, %d coins, %d kills at the end)", round,
+					frames, allocated + grown, world.getGhosts().size, world.getCoins().size, player.getKills()));
+			System.out.println(String.format("  %d frames that grew a store or pool, or loaded a class, allocated %d bytes", growingFrames, grown));
+			System.out.println(String.format("  %d other frames allocated %d bytes%s", allocatingFrames, allocated,
+					firstFrame < 0 ? "" : ", the first at tick " + firstFrame));
+			passed = allocated == 0;
+		}
+		world.dispose();
+		telemetry.close();
+		if (passed == false) {
+			System.out.println("FAILED: the steady state of the game should allocate nothing");
+			System.exit(1);
+		}
+		System.out.println("OK");
+	}
+
+	/**
+	 * Gets the most ghosts there have been at once, added to the most coins and the most effects.
+	 */
+	private static int getPeak(GameWorld world) {
+		return world.getGhosts().getPeakSize() + world.getCoins().getPeakSize() + world.getEffects().getPool().getPeakLive();
+	}
+
+	/**
+	 * Gets the counter of the bytes each thread allocates, if the JVM has one.
+	 */
+	private static com.sun.management.ThreadMXBean getAllocations() {
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+			if (allocations.isThreadAllocatedMemorySupported()) {
+				allocations.setThreadAllocatedMemoryEnabled(true);
+				return allocations;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Everything a frame of the PlayScreen does that does not need a window.
+	 */
+	private static class Frame {
+
+		private GameWorld world;
+		private Telemetry telemetry;
+		private Player player;
+		private Autopilot autopilot = new Autopilot();
+		private PlayerInput input = new PlayerInput();
+
+		// The numbers on the HUD.
+		private NumberText coins = new NumberText(), health = new NumberText(), kills = new NumberText();
+
+		// The length of the text on the HUD, so that it is used.
+		private int hudLength = 0;
+
+		Frame(GameWorld world, Telemetry telemetry) {
+			this.world = world;
+			this.telemetry = telemetry;
+			player = world.getPlayer();
+		}
+
+		/**
+		 * Runs one frame, with one tick.
+		 */
+		void run() {
+			long start = System.nanoTime();
+			autopilot.play(world, input);
+			telemetry.phase(Phase.INPUT, System.nanoTime() - start);
+			world.tick(input);
+			telemetry.phase(Phase.COLLISION, world.getCollisionNanos());
+			telemetry.phase(Phase.AI, world.getAiNanos());
+
+			hudLength = coins.set(player.getCoinsCollected()).length() + health.set(player.getHealthPercentage()).length()
+					+ kills.set(player.getKills()).length();
+			telemetry.endFrame(GameWorld.TIME_STEP, world.getGhosts().size, world.getCoins().size, world.getEffects().getActiveCount());
+		}
+
+	}
+
+}
@@ -0,0 +1,194 @@
+package com.dungeondoom.tools;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+/**
+ * @author Roshan Munjal
+ * The AtlasPacker is the build step that packs the separate images in the
+ * assets folder into texture atlases. Each atlas is one PNG page together
+ * with a libGDX .atlas file, which is the index of where every region is
+ * on the page. The game atlas holds everything that is drawn during
+ * gameplay, so a whole frame of gameplay only binds one texture for its
+ * sprites. The UI atlas holds the menu buttons and icons. The backgrounds
+ * and the map tileset are too big to be worth packing and stay as they are.
+ *
+ * It needs to be run again whenever one of the images changes:
+ *     java -cp bin com.dungeondoom.tools.AtlasPacker assets
+ */
+public class AtlasPacker {
+
+	// The images in the game atlas.
+	private static final String[] GAME_IMAGES = { "MainCharacterWalkingSprite.png",
+			"MainCharacterPhysicalAttackSprite.png", "EnemySpriteSheet1.png", "EnemySpriteSheet1Light.png",
+			"CoinImage.png" };
+
+	// The images in the UI atlas.
+	private static final String[] UI_IMAGES = { "Begin.png", "Begin_Light.png", "Instructions.png",
+			"Instructions_Light.png", "Exit.png", "Exit_Light.png", "Back.png", "Back_Light.png", "WASD.png",
+			"spacebar.png", "letter-j-icon.png", "esc-icon.png" };
+
+	// The name of the solid white region that bars and outlines are drawn with.
+	public static final String PIXEL_REGION = "pixel";
+
+	// The space left between regions, so that they do not bleed into each other.
+	private static final int PADDING = 2;
+
+	// The largest page that will be created.
+	private static final int MAX_PAGE_SIZE = 2048;
+
+	/**
+	 * A single image that is being packed.
+	 */
+	private static class Region {
+		String name;
+		BufferedImage image;
+		int x, y;
+
+		Region(String name, BufferedImage image) {
+			this.name = name;
+			this.image = image;
+		}
+	}
+
+	/**
+	 * Packs all the atlases.
+	 * @param args : the assets folder (assets by default)
+	 */
+	public static void main(String[] args) throws IOException {
+		File assets = new File(args.length > 0 ? args[0] : "assets");
+
+		pack(assets, "game", GAME_IMAGES, true);
+		pack(assets, "ui", UI_IMAGES, false);
+	}
+
+	/**
+	 * Packs a list of images into one atlas page and writes the page and its index.
+	 * @param assets : the folder the images are in, and the atlas is written to
+	 * @param atlasName : the name of the atlas
+	 * @param imageNames : the images to pack
+	 * @param addPixel : whether to add a white pixel region to the atlas
+	 */
+	public static void pack(File assets, String atlasName, String[] imageNames, boolean addPixel) throws IOException {
+		List<Region> regions = new ArrayList<>();
+		for (String imageName : imageNames) {
+			BufferedImage image = ImageIO.read(new File(assets, imageName));
+			if (image == null) {
+				throw new IOException("Could not read " + imageName);
+			}
+			regions.add(new Region(imageName.substring(0, imageName.lastIndexOf('.')), image));
+		}
+
+		// The white pixel is the middle of a 3x3 block, so filtering never reaches another region.
+		if (addPixel) {
+			BufferedImage white = new BufferedImage(3, 3, BufferedImage.TYPE_INT_ARGB);
+			for (int x = 0; x < 3; x++) {
+				for (int y = 0; y < 3; y++) {
+					white.setRGB(x, y, 0xFFFFFFFF);
+				}
+			}
+			regions.add(new Region(PIXEL_REGION, white));
+		}
+
+		// Tall images are placed first, which keeps the shelves tight.
+		Collections.sort(regions, new Comparator<Region>() {
+			@Override
+			public int compare(Region a, Region b) {
+				return b.image.getHeight() - a.image.getHeight();
+			}
+		});
+
+		// Finds the smallest square page that everything fits on.
+		int size = 256;
+		while (!place(regions, size)) {
+			size *= 2;
+			if (size > MAX_PAGE_SIZE) {
+				throw new IOException("The images of " + atlasName + " do not fit on one page");
+			}
+		}
+
+		// Draws every image onto the page.
+		BufferedImage page = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+		for (Region region : regions) {
+			page.getGraphics().drawImage(region.image, region.x, region.y, null);
+		}
+		String pageName = atlasName + ".png";
+		ImageIO.write(page, "png", new File(assets, pageName));
+
+		writeIndex(new File(assets, atlasName + ".atlas"), pageName, size, regions);
+		System.out.println("Packed " + regions.size() + " regions into " + atlasName + " (" + size + "x" + size + ")");
+	}
+
+	/**
+	 * Places the regions on shelves, from the top of the page down.
+	 * @param regions : the regions, sorted from tallest to shortest
+	 * @param size : the size of the page
+	 * @return fits : true if every region fits on the page
+	 */
+	private static boolean place(List<Region> regions, int size) {
+		int x = 0, y = 0, shelfHeight = 0;
+		for (Region region : regions) {
+			int width = region.image.getWidth();
+			int height = region.image.getHeight();
+
+			// Starts a new shelf when the current one is full.
+			if (x + width > size) {
+				x = 0;
+				y += shelfHeight + PADDING;
+				shelfHeight = 0;
+			}
+			if (x + width > size || y + height > size) {
+				return false;
+			}
+
+			region.x = x;
+			region.y = y;
+			x += width + PADDING;
+			shelfHeight = Math.max(shelfHeight, height);
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the .atlas file that libGDX reads the regions from.
+	 */
+	private static void writeIndex(File file, String pageName, int size, List<Region> regions) throws IOException {
+		PrintWriter writer = new PrintWriter(new FileWriter(file));
+		try {
+			writer.println();
+			writer.println(pageName);
+			writer.println("size: " + size + "," + size);
+			writer.println("format: RGBA8888");
+			writer.println("filter: Nearest,Nearest");
+			writer.println("repeat: none");
+			for (Region region : regions) {
+				// Only the middle of the white block is used.
+				boolean pixel = region.name.equals(PIXEL_REGION);
+				int x = pixel ? region.x + 1 : region.x;
+				int y = pixel ? region.y + 1 : region.y;
+				int width = pixel ? 1 : region.image.getWidth();
+				int height = pixel ? 1 : region.image.getHeight();
+
+				writer.println(region.name);
+				writer.println("  rotate: false");
+				writer.println("  xy: " + x + ", " + y);
+				writer.println("  size: " + width + ", " + height);
+				writer.println("  orig: " + width + ", " + height);
+				writer.println("  offset: 0, 0");
+				writer.println("  index: -1");
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+}
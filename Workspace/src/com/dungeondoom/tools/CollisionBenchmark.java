@@ -0,0 +1,205 @@
+package com.dungeondoom.tools;
+
+import java.util.Random;
+
+import com.dungeondoom.world.CollisionGrid;
+import com.dungeondoom.world.EntityStore;
+import com.dungeondoom.world.SweptCollider;
+
+/**
+ * @author Roshan Munjal
+ * The CollisionBenchmark compares the old way of moving through obstacles
+ * with the SweptCollider. The old way moves a box by its velocity, and on
+ * the next tick pushes it back by one pixel if it ended up inside a wall,
+ * which is what the player used to do. Both are run on the same random
+ * walls with the same boxes, and the benchmark reports how long each takes
+ * per moving box, how many ticks ended with a box inside a wall, and how
+ * many moves went straight through a wall without being noticed. It does
+ * not need a window, so it can be run on its own:
+ *     java -cp bin:libraries/gdx.jar com.dungeondoom.tools.CollisionBenchmark [boxes] [ticks]
+ */
+public class CollisionBenchmark {
+
+	// The size of the world, in tiles of 32 pixels.
+	private static final int GRID_WIDTH = 256, GRID_HEIGHT = 256;
+	private static final float TILE_SIZE = 32;
+
+	// The size of a box, which is the size of the player.
+	private static final float BOX_SIZE = 28;
+
+	// The length of a tick, and the speeds the boxes move at, in pixels per second.
+	private static final float TIME_STEP = 1 / 60f;
+	private static final float MIN_SPEED = 50, MAX_SPEED = 4000;
+
+	// The number of times each approach is run before it is timed.
+	private static final int WARMUP_RUNS = 3;
+
+	/**
+	 * Runs the benchmark.
+	 * @param args : the number of boxes and the number of ticks (10000 and 600 by default)
+	 */
+	public static void main(String[] args) {
+		int boxes = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+
+		CollisionGrid grid = createGrid(new Random(1));
+		SweptCollider collider = new SweptCollider(grid);
+		System.out.println("Grid " + GRID_WIDTH + "x" + GRID_HEIGHT + " with " + grid.countSolid() + " solid tiles, "
+				+ boxes + " boxes, " + ticks + " ticks");
+		System.out.println(String.format("%-10s %14s %18s %14s", "approach", "ns per move", "ticks inside wall", "tunnels"));
+
+		for (int run = 0; run <= WARMUP_RUNS; run++) {
+			Result pushBack = runPushBack(grid, collider, createBoxes(grid, boxes, new Random(2)), ticks);
+			Result swept = runSwept(grid, collider, createBoxes(grid, boxes, new Random(2)), ticks);
+			if (run == WARMUP_RUNS) {
+				pushBack.print("push-back");
+				swept.print("swept");
+			}
+		}
+	}
+
+	/**
+	 * The results of running one approach.
+	 */
+	private static class Result {
+		long nanos;
+		long moves;
+		long insideWall;
+		long tunnels;
+
+		void print(String approach) {
+			System.out.println(String.format("%-10s %14.1f %18d %14d", approach, (double) nanos / moves, insideWall, tunnels));
+		}
+	}
+
+	/**
+	 * Moves the boxes the old way: blindly by their velocity, with a one pixel push-back
+	 * (and no movement) on any tick that starts inside a wall.
+	 */
+	private static Result runPushBack(CollisionGrid grid, SweptCollider collider, EntityStore store, int ticks) {
+		Result result = new Result();
+		Random random = new Random(3);
+		for (int tick = 0; tick < ticks; tick++) {
+			steer(store, random);
+
+			long start = System.nanoTime();
+			for (int i = 0; i < store.size; i++) {
+				if (grid.overlaps(store.x[i], store.y[i], store.width[i], store.height[i])) {
+					store.x[i] -= Math.signum(store.velocityX[i]);
+					store.y[i] -= Math.signum(store.velocityY[i]);
+				} else {
+					store.x[i] += store.velocityX[i] * TIME_STEP;
+					store.y[i] += store.velocityY[i] * TIME_STEP;
+				}
+			}
+			result.nanos += System.nanoTime() - start;
+			result.moves += store.size;
+
+			// Counts the moves that passed through a wall and came out the other side (not timed).
+			count(grid, collider, store, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Moves the boxes with the SweptCollider.
+	 */
+	private static Result runSwept(CollisionGrid grid, SweptCollider collider, EntityStore store, int ticks) {
+		Result result = new Result();
+		Random random = new Random(3);
+		for (int tick = 0; tick < ticks; tick++) {
+			steer(store, random);
+
+			long start = System.nanoTime();
+			collider.moveAll(store, TIME_STEP);
+			result.nanos += System.nanoTime() - start;
+			result.moves += store.size;
+
+			count(grid, collider, store, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Counts the boxes that are inside a wall, and the moves since the last tick that went
+	 * through a wall. A move went through a wall if the straight line from where the box was
+	 * to where it is now is blocked, but the box is not inside a wall now.
+	 */
+	private static void count(CollisionGrid grid, SweptCollider collider, EntityStore store, Result result) {
+		for (int i = 0; i < store.size; i++) {
+			boolean inside = grid.overlaps(store.x[i], store.y[i], store.width[i], store.height[i]);
+			if (inside) {
+				result.insideWall++;
+			} else if (grid.overlaps(store.previousX[i], store.previousY[i], store.width[i], store.height[i]) == false
+					&& collider.move(store.previousX[i], store.previousY[i], store.width[i], store.height[i],
+							store.x[i] - store.previousX[i], store.y[i] - store.previousY[i])
+					&& (Math.abs(collider.getX() - store.x[i]) > TILE_SIZE || Math.abs(collider.getY() - store.y[i]) > TILE_SIZE)) {
+				result.tunnels++;
+			}
+		}
+		store.savePreviousPositions();
+	}
+
+	/**
+	 * Gives some of the boxes a new direction and speed, and turns back the ones leaving the world.
+	 */
+	private static void steer(EntityStore store, Random random) {
+		float worldWidth = GRID_WIDTH * TILE_SIZE, worldHeight = GRID_HEIGHT * TILE_SIZE;
+		for (int i = 0; i < store.size; i++) {
+			if (random.nextInt(50) == 0 || store.velocityX[i] == 0 && store.velocityY[i] == 0) {
+				setRandomVelocity(store, i, random);
+			}
+			if (store.x[i] < 0 || store.x[i] > worldWidth - BOX_SIZE) {
+				store.velocityX[i] = store.x[i] < 0 ? Math.abs(store.velocityX[i]) : -Math.abs(store.velocityX[i]);
+			}
+			if (store.y[i] < 0 || store.y[i] > worldHeight - BOX_SIZE) {
+				store.velocityY[i] = store.y[i] < 0 ? Math.abs(store.velocityY[i]) : -Math.abs(store.velocityY[i]);
+			}
+		}
+	}
+
+	/**
+	 * Points a box in one of the four directions, at a random speed.
+	 */
+	private static void setRandomVelocity(EntityStore store, int index, Random random) {
+		float speed = MIN_SPEED + random.nextFloat() * (MAX_SPEED - MIN_SPEED);
+		int direction = random.nextInt(4);
+		store.velocityX[index] = direction == 0 ? speed : direction == 1 ? -speed : 0;
+		store.velocityY[index] = direction == 2 ? speed : direction == 3 ? -speed : 0;
+	}
+
+	/**
+	 * Creates a grid with short walls, one tile thick, scattered around it.
+	 */
+	private static CollisionGrid createGrid(Random random) {
+		CollisionGrid grid = new CollisionGrid(GRID_WIDTH, GRID_HEIGHT, TILE_SIZE, TILE_SIZE);
+		for (int wall = 0; wall < GRID_WIDTH * GRID_HEIGHT / 40; wall++) {
+			int x = random.nextInt(GRID_WIDTH), y = random.nextInt(GRID_HEIGHT);
+			boolean horizontal = random.nextBoolean();
+			for (int i = 0; i < 2 + random.nextInt(6); i++) {
+				if (horizontal && x + i < GRID_WIDTH) {
+					grid.setSolid(x + i, y, true);
+				} else if (!horizontal && y + i < GRID_HEIGHT) {
+					grid.setSolid(x, y + i, true);
+				}
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * Creates boxes at random places that are not inside a wall.
+	 */
+	private static EntityStore createBoxes(CollisionGrid grid, int count, Random random) {
+		EntityStore store = new EntityStore(count);
+		while (store.size < count) {
+			float x = random.nextFloat() * (GRID_WIDTH * TILE_SIZE - BOX_SIZE);
+			float y = random.nextFloat() * (GRID_HEIGHT * TILE_SIZE - BOX_SIZE);
+			if (grid.overlaps(x, y, BOX_SIZE, BOX_SIZE) == false) {
+				store.add(x, y, BOX_SIZE, BOX_SIZE);
+			}
+		}
+		return store;
+	}
+
+}
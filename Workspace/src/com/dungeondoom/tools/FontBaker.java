@@ -0,0 +1,146 @@
+package com.dungeondoom.tools;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.imageio.ImageIO;
+
+import com.dungeondoom.assets.AssetRegistry;
+
+/**
+ * @author Roshan Munjal
+ * The FontBaker is the build step that draws the font of the HUD into a
+ * bitmap font: a PNG page with every printable ASCII character on it,
+ * together with a .fnt file in the AngelCode text format, which is the
+ * index that libGDX reads the glyphs from. The glyphs are drawn at the size
+ * they are shown at, so the HUD never has to scale the small default font
+ * up at runtime, which blurs or blocks the glyphs and works out every
+ * position again at the new scale. The font is Arial, like the default
+ * libGDX font, or the JVM's sans serif font if Arial is not installed.
+ *
+ * It needs to be run again whenever the size or the font changes:
+ *     java -cp bin com.dungeondoom.tools.FontBaker assets
+ */
+public class FontBaker {
+
+	// The size of the HUD font in pixels, which is twice the size of the default libGDX font.
+	public static final int HUD_FONT_SIZE = 30;
+
+	// The name of the font that is drawn, which falls back to the JVM's sans serif font.
+	private static final String FACE = "Arial";
+
+	// The characters in the font, which are the printable ASCII characters.
+	private static final char FIRST_CHAR = 32, LAST_CHAR = 126;
+
+	// The width of the page, and the space left around each glyph so that they do not bleed into each other.
+	private static final int PAGE_WIDTH = 256;
+	private static final int SPACING = 1;
+
+	/**
+	 * Bakes the HUD font.
+	 * @param args : the assets folder (assets by default)
+	 */
+	public static void main(String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+		File assets = new File(args.length > 0 ? args[0] : "assets");
+		String fileName = new File(AssetRegistry.HUD_FONT).getName();
+		bake(assets, fileName.substring(0, fileName.lastIndexOf('.')), HUD_FONT_SIZE);
+	}
+
+	/**
+	 * Draws every character of the font onto one page and writes the page and its index.
+	 * @param assets : the folder the font is written to
+	 * @param fontName : the name of the .fnt and .png files
+	 * @param size : the size of the font in pixels
+	 */
+	public static void bake(File assets, String fontName, int size) throws IOException {
+		Font font = new Font(FACE, Font.PLAIN, size);
+		if (font.getFamily().equals(FACE) == false) {
+			font = new Font(Font.SANS_SERIF, Font.PLAIN, size);
+		}
+
+		// Measures the font and every glyph, on a scratch image.
+		Graphics2D scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+		setHints(scratch);
+		scratch.setFont(font);
+		FontMetrics metrics = scratch.getFontMetrics();
+		FontRenderContext context = scratch.getFontRenderContext();
+		int count = LAST_CHAR - FIRST_CHAR + 1;
+		Rectangle[] bounds = new Rectangle[count];
+		for (int i = 0; i < count; i++) {
+			bounds[i] = font.createGlyphVector(context, String.valueOf((char) (FIRST_CHAR + i))).getPixelBounds(context, 0, 0);
+		}
+		scratch.dispose();
+
+		// Places the glyphs on shelves, from the top of the page down.
+		int[] glyphX = new int[count], glyphY = new int[count];
+		int x = SPACING, y = SPACING, shelfHeight = 0;
+		for (int i = 0; i < count; i++) {
+			if (x + bounds[i].width + SPACING > PAGE_WIDTH) {
+				x = SPACING;
+				y += shelfHeight + SPACING;
+				shelfHeight = 0;
+			}
+			glyphX[i] = x;
+			glyphY[i] = y;
+			x += bounds[i].width + SPACING;
+			shelfHeight = Math.max(shelfHeight, bounds[i].height);
+		}
+		int pageHeight = Integer.highestOneBit(y + shelfHeight + SPACING - 1) << 1;
+
+		// Draws the glyphs in white, so that they can be drawn in any colour.
+		BufferedImage page = new BufferedImage(PAGE_WIDTH, pageHeight, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = page.createGraphics();
+		setHints(graphics);
+		graphics.setFont(font);
+		graphics.setColor(java.awt.Color.WHITE);
+		for (int i = 0; i < count; i++) {
+			if (bounds[i].width > 0) {
+				graphics.drawString(String.valueOf((char) (FIRST_CHAR + i)), glyphX[i] - bounds[i].x, glyphY[i] - bounds[i].y);
+			}
+		}
+		graphics.dispose();
+		String pageName = fontName + ".png";
+		ImageIO.write(page, "png", new File(assets, pageName));
+
+		// Writes the index, where each glyph is placed relative to the top of the line.
+		PrintWriter writer = new PrintWriter(new FileWriter(new File(assets, fontName + ".fnt")));
+		try {
+			int base = metrics.getAscent();
+			writer.println("info face=\"" + font.getFamily() + "\" size=" + size + " bold=0 italic=0 charset=\"\" unicode=1 stretchH=100"
+					+ " smooth=1 aa=1 padding=0,0,0,0 spacing=" + SPACING + "," + SPACING);
+			writer.println("common lineHeight=" + metrics.getHeight() + " base=" + base + " scaleW=" + PAGE_WIDTH + " scaleH=" + pageHeight
+					+ " pages=1 packed=0");
+			writer.println("page id=0 file=\"" + pageName + "\"");
+			writer.println("chars count=" + count);
+			for (int i = 0; i < count; i++) {
+				char c = (char) (FIRST_CHAR + i);
+				writer.println("char id=" + (int) c + " x=" + glyphX[i] + " y=" + glyphY[i] + " width=" + bounds[i].width + " height="
+						+ bounds[i].height + " xoffset=" + bounds[i].x + " yoffset=" + (base + bounds[i].y) + " xadvance="
+						+ metrics.charWidth(c) + " page=0 chnl=0");
+			}
+		} finally {
+			writer.close();
+		}
+		System.out.println("Baked " + count + " glyphs of " + font.getFamily() + " " + size + "px into " + fontName + " (" + PAGE_WIDTH + "x"
+				+ pageHeight + ")");
+	}
+
+	/**
+	 * Turns on anti-aliasing for the text that is drawn.
+	 */
+	private static void setHints(Graphics2D graphics) {
+		graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
+	}
+
+}
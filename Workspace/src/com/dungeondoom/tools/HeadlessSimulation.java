@@ -0,0 +1,132 @@
+package com.dungeondoom.tools;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.badlogic.gdx.math.GridPoint2;
+import com.dungeondoom.actors.Autopilot;
+import com.dungeondoom.actors.Player;
+import com.dungeondoom.actors.PlayerInput;
+import com.dungeondoom.assets.AnimationLibrary;
+import com.dungeondoom.assets.Archetype;
+import com.dungeondoom.currency.Coin;
+import com.dungeondoom.effects.EffectSystem;
+import com.dungeondoom.enemies.Ghost;
+import com.dungeondoom.world.CollisionGrid;
+import com.dungeondoom.world.GameWorld;
+
+/**
+ * @author Roshan Munjal
+ * The HeadlessSimulation plays whole games without a window or OpenGL,
+ * so that thousands of them can be run on a machine with no screen. The
+ * obstacles are read straight from the map file and the sizes of the
+ * characters from the atlas file, without loading any textures, and then
+ * the Autopilot plays each game: it walks to the nearest coin, and turns
+ * to attack any ghost that gets close. Every game is seeded, so the same
+ * arguments always give the same results. It prints the kills, coins and
+ * ticks survived of each game, what they were on average, and how many
+ * ticks were simulated each second:
+ *     java -cp bin:libraries/gdx.jar com.dungeondoom.tools.HeadlessSimulation [sessions] [ticks] [seed] [map] [atlas]
+ */
+public class HeadlessSimulation {
+
+	// The files that the map and the sizes of the characters are read from.
+	private static final String MAP_FILE = "assets/MapLevelNew.tmx";
+	private static final String ATLAS_FILE = "assets/game.atlas";
+
+	// The number of games whose results are each printed.
+	private static final int PRINTED_SESSIONS = 20;
+
+	/**
+	 * Runs the simulation.
+	 * @param args : the number of games, the most ticks in each, the seed, and the map and atlas files
+	 */
+	public static void main(String[] args) {
+		int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		int maxTicks = args.length > 1 ? Integer.parseInt(args[1]) : 60 * 60 * 5;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+		String mapFile = args.length > 3 ? args[3] : MAP_FILE;
+		String atlasFile = args.length > 4 ? args[4] : ATLAS_FILE;
+
+		// Reads the obstacles and the sizes of the characters, without a window.
+		CollisionGrid grid = CollisionGrid.fromTmx(new FileHandle(mapFile));
+		FileHandle atlas = new FileHandle(atlasFile);
+		TextureAtlasData atlasData = new TextureAtlasData(atlas, atlas.parent(), false);
+		GridPoint2 playerSize = AnimationLibrary.getFrameSize(atlasData, Archetype.PLAYER);
+		GridPoint2 ghostSize = AnimationLibrary.getFrameSize(atlasData, Archetype.GHOST);
+		GridPoint2 coinSize = AnimationLibrary.getRegionSize(atlasData, Coin.COIN_REGION);
+		System.out.println("Map " + new File(mapFile).getName() + " " + grid.getWidth() + "x" + grid.getHeight() + ", "
+				+ sessions + " games of up to " + maxTicks + " ticks, seed " + seed);
+
+		int[] kills = new int[sessions], coins = new int[sessions], survived = new int[sessions];
+		long totalTicks = 0;
+		long start = System.nanoTime();
+		Autopilot autopilot = new Autopilot();
+		System.out.println(String.format("%-8s %8s %8s %10s %8s", "game", "kills", "coins", "ticks", "health"));
+		for (int session = 0; session < sessions; session++) {
+			// Each game has its own seed, so any one of them can be played again on its own.
+			Player player = new Player("Autopilot");
+			player.setBoundingSize(playerSize.x, playerSize.y);
+			GameWorld world = new GameWorld(grid, player, new Ghost(ghostSize.x, ghostSize.y),
+					new Coin(coinSize.x / Coin.SPRITE_SCALE, coinSize.y / Coin.SPRITE_SCALE), new EffectSystem(null), new Random(seed + session));
+
+			PlayerInput input = new PlayerInput();
+			while (player.isPlayerAlive() && world.getTickCount() < maxTicks) {
+				autopilot.play(world, input);
+				world.tick(input);
+			}
+
+			kills[session] = player.getKills();
+			coins[session] = player.getCoinsCollected();
+			survived[session] = world.getTickCount();
+			totalTicks += world.getTickCount();
+			if (session < PRINTED_SESSIONS) {
+				System.out.println(String.format("%-8d %8d %8d %10d %8d", session, kills[session], coins[session], survived[session],
+						player.getHealthPercentage()));
+			}
+			world.dispose();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.println(String.format("%-8s %8s %8s %10s", "", "kills", "coins", "ticks"));
+		System.out.println(String.format("%-8s %8.1f %8.1f %10.0f", "mean", mean(kills), mean(coins), mean(survived)));
+		System.out.println(String.format("%-8s %8d %8d %10d", "median", median(kills), median(coins), median(survived)));
+		System.out.println(String.format("%-8s %8d %8d %10d", "max", max(kills), max(coins), max(survived)));
+		System.out.println(String.format("%d ticks in %.2f s, %.0f ticks per second", totalTicks, seconds, totalTicks / seconds));
+	}
+
+	/**
+	 * Gets the average of some numbers.
+	 */
+	private static double mean(int[] values) {
+		double sum = 0;
+		for (int value : values) {
+			sum += value;
+		}
+		return sum / values.length;
+	}
+
+	/**
+	 * Gets the middle of some numbers.
+	 */
+	private static int median(int[] values) {
+		int[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+
+	/**
+	 * Gets the largest of some numbers.
+	 */
+	private static int max(int[] values) {
+		int max = Integer.MIN_VALUE;
+		for (int value : values) {
+			max = Math.max(max, value);
+		}
+		return max;
+	}
+
+}
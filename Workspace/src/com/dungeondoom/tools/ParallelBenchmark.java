@@ -0,0 +1,148 @@
+package com.dungeondoom.tools;
+
+import java.util.Random;
+
+import com.dungeondoom.actors.Player;
+import com.dungeondoom.enemies.EnemySystem;
+import com.dungeondoom.enemies.Ghost;
+import com.dungeondoom.world.CollisionGrid;
+import com.dungeondoom.world.EntityStore;
+import com.dungeondoom.world.FlowField;
+import com.dungeondoom.world.ParallelSweep;
+
+/**
+ * @author Roshan Munjal
+ * The ParallelBenchmark measures how the update of a big horde of ghosts
+ * scales with the number of threads the EnemySystem splits it across. Each
+ * tick, every ghost is tested against the obstacles, follows the flow field
+ * to a player walking in a circle, and moves. The same horde is run with 1,
+ * 2, 4 and so on threads up to the number of cores, and the benchmark
+ * reports the time per tick, the speed-up over one thread, and whether the
+ * ghosts ended up exactly where they did on one thread. It does not need a
+ * window, so it can be run on its own:
+ *     java -cp bin:libraries/gdx.jar com.dungeondoom.tools.ParallelBenchmark [ghosts] [ticks] [threads]
+ */
+public class ParallelBenchmark {
+
+	// The size of the world, in tiles of 32 pixels.
+	private static final int GRID_WIDTH = 256, GRID_HEIGHT = 256;
+	private static final float TILE_SIZE = 32;
+
+	// The size of a ghost and of the player.
+	private static final float GHOST_SIZE = 32, PLAYER_SIZE = 64;
+
+	// The length of a tick.
+	private static final float TIME_STEP = 1 / 60f;
+
+	/**
+	 * Runs the benchmark.
+	 * @param args : the number of ghosts, ticks and the most threads (100000, 200 and every core by default)
+	 */
+	public static void main(String[] args) {
+		int ghosts = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		CollisionGrid grid = createGrid(new Random(1));
+		System.out.println("Grid " + GRID_WIDTH + "x" + GRID_HEIGHT + ", " + ghosts + " ghosts, " + ticks + " ticks, "
+				+ Runtime.getRuntime().availableProcessors() + " cores");
+
+		// Warms up both ways of running before anything is timed.
+		run(grid, ghosts, ticks, 1);
+		run(grid, ghosts, ticks, maxThreads);
+
+		System.out.println(String.format("%-8s %12s %10s %12s %14s", "threads", "ms per tick", "speed-up", "efficiency", "same as serial"));
+		double serialMillis = 0;
+		long serialChecksum = 0;
+		for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+			long start = System.nanoTime();
+			long checksum = run(grid, ghosts, ticks, threads);
+			double millis = (System.nanoTime() - start) / 1e6 / ticks;
+			if (threads == 1) {
+				serialMillis = millis;
+				serialChecksum = checksum;
+			}
+			System.out.println(String.format("%-8d %12.2f %10.2f %11.0f%% %14s", threads, millis, serialMillis / millis,
+					100 * serialMillis / millis / threads, checksum == serialChecksum ? "yes" : "NO"));
+		}
+	}
+
+	/**
+	 * Doubles the number of threads, ending with the most threads even if it is not a power of two.
+	 */
+	private static int nextThreadCount(int threads, int maxThreads) {
+		return threads < maxThreads && threads * 2 > maxThreads ? maxThreads : threads * 2;
+	}
+
+	/**
+	 * Runs the horde for a number of ticks on some number of threads.
+	 * @return checksum : a checksum of where the ghosts ended up
+	 */
+	private static long run(CollisionGrid grid, int count, int ticks, int threads) {
+		Ghost kind = new Ghost(GHOST_SIZE, GHOST_SIZE);
+		EntityStore store = createGhosts(grid, kind, count, new Random(2));
+		Player player = new Player("Benchmark");
+		player.setBoundingSize(PLAYER_SIZE, PLAYER_SIZE);
+
+		ParallelSweep sweep = new ParallelSweep(threads, ParallelSweep.DEFAULT_GRAIN);
+		sweep.setParallel(threads > 1);
+		EnemySystem enemySystem = new EnemySystem();
+		enemySystem.setSweep(sweep);
+		enemySystem.setFlowField(new FlowField(grid, Integer.MAX_VALUE));
+
+		float centerX = GRID_WIDTH * TILE_SIZE / 2, centerY = GRID_HEIGHT * TILE_SIZE / 2;
+		for (int tick = 0; tick < ticks; tick++) {
+			// The player walks around a circle, so the flow field changes every few ticks.
+			double angle = tick * 0.02;
+			player.setPosition(centerX + (float) Math.cos(angle) * 1000, centerY + (float) Math.sin(angle) * 1000);
+
+			store.savePreviousPositions();
+			enemySystem.markObstacles(store, grid);
+			enemySystem.update(store, kind, player, TIME_STEP);
+		}
+		sweep.dispose();
+
+		long checksum = 0;
+		for (int i = 0; i < store.size; i++) {
+			checksum = checksum * 31 + Float.floatToIntBits(store.x[i]);
+			checksum = checksum * 31 + Float.floatToIntBits(store.y[i]);
+			checksum = checksum * 31 + store.flags[i];
+		}
+		return checksum;
+	}
+
+	/**
+	 * Creates ghosts at random places that are not inside a wall.
+	 */
+	private static EntityStore createGhosts(CollisionGrid grid, Ghost kind, int count, Random random) {
+		EntityStore store = new EntityStore(count);
+		while (store.size < count) {
+			float x = random.nextFloat() * (GRID_WIDTH * TILE_SIZE - GHOST_SIZE);
+			float y = random.nextFloat() * (GRID_HEIGHT * TILE_SIZE - GHOST_SIZE);
+			if (grid.overlaps(x, y, GHOST_SIZE, GHOST_SIZE) == false) {
+				kind.spawn(store, x, y, 70 + random.nextInt(30));
+			}
+		}
+		return store;
+	}
+
+	/**
+	 * Creates a grid with short walls, one tile thick, scattered around it.
+	 */
+	private static CollisionGrid createGrid(Random random) {
+		CollisionGrid grid = new CollisionGrid(GRID_WIDTH, GRID_HEIGHT, TILE_SIZE, TILE_SIZE);
+		for (int wall = 0; wall < GRID_WIDTH * GRID_HEIGHT / 40; wall++) {
+			int x = random.nextInt(GRID_WIDTH), y = random.nextInt(GRID_HEIGHT);
+			boolean horizontal = random.nextBoolean();
+			for (int i = 0; i < 2 + random.nextInt(6); i++) {
+				if (horizontal && x + i < GRID_WIDTH) {
+					grid.setSolid(x + i, y, true);
+				} else if (!horizontal && y + i < GRID_HEIGHT) {
+					grid.setSolid(x, y + i, true);
+				}
+			}
+		}
+		return grid;
+	}
+
+}
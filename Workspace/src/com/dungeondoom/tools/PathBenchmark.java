@@ -0,0 +1,174 @@
+package com.dungeondoom.tools;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.dungeondoom.world.CollisionGrid;
+import com.dungeondoom.world.FlowField;
+import com.dungeondoom.world.HierarchicalPathFinder;
+
+/**
+ * @author Roshan Munjal
+ * The PathBenchmark measures how long the HierarchicalPathFinder takes to
+ * answer path queries between random tiles of a big map of short walls.
+ * It reports the time to build the graph, the percentiles of the time per
+ * query the first time and when the answer is cached, and the time it
+ * takes to change a wall and find a path again. For comparison, a few of
+ * the same queries are answered by searching every tile of the map, the
+ * way a FlowField does, which also shows how much longer the paths of the
+ * path finder are than the shortest ones. It does not need a window, so it
+ * can be run on its own:
+ *     java -cp bin:libraries/gdx.jar com.dungeondoom.tools.PathBenchmark [size] [queries]
+ */
+public class PathBenchmark {
+
+	// The number of queries that are answered by searching every tile.
+	private static final int FLAT_QUERIES = 50;
+
+	// The number of walls that are changed to time building the graph again.
+	private static final int WALL_CHANGES = 200;
+
+	/**
+	 * Runs the benchmark.
+	 * @param args : the width and height of the map, and the number of queries (1000 and 2000 by default)
+	 */
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int queries = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+		Random random = new Random(1);
+		CollisionGrid grid = createGrid(size, random);
+		int[] starts = new int[queries], goals = new int[queries];
+		for (int i = 0; i < queries; i++) {
+			starts[i] = randomOpenTile(grid, random);
+			goals[i] = randomOpenTile(grid, random);
+		}
+		System.out.println("Grid " + size + "x" + size + " with " + grid.countSolid() + " solid tiles, " + queries + " queries");
+
+		// Builds the graph and warms up the search.
+		HierarchicalPathFinder finder = new HierarchicalPathFinder(grid);
+		long start = System.nanoTime();
+		finder.rebuild();
+		System.out.println(String.format("Built %d clusters and %d nodes in %.1f ms", finder.getClusterCount(), finder.getNodeCount(),
+				(System.nanoTime() - start) / 1e6));
+		IntArray path = new IntArray();
+		for (int i = 0; i < queries; i++) {
+			finder.findPath(starts[i] % size, starts[i] / size, goals[i] % size, goals[i] / size, path);
+		}
+
+		// Times each query on a fresh cache, and then again from the cache.
+		finder.clearCache();
+		long[] times = new long[queries];
+		long pathLength = 0;
+		int found = 0;
+		for (int i = 0; i < queries; i++) {
+			start = System.nanoTime();
+			if (finder.findPath(starts[i] % size, starts[i] / size, goals[i] % size, goals[i] / size, path)) {
+				found++;
+				pathLength += path.size;
+			}
+			times[i] = System.nanoTime() - start;
+		}
+		System.out.println(String.format("%d paths found, %.0f tiles long on average", found, (double) pathLength / Math.max(found, 1)));
+		printHeader();
+		printPercentiles("hpa*", times);
+
+		for (int i = 0; i < queries; i++) {
+			start = System.nanoTime();
+			finder.findPath(starts[i] % size, starts[i] / size, goals[i] % size, goals[i] / size, path);
+			times[i] = System.nanoTime() - start;
+		}
+		printPercentiles("cached", times);
+
+		// Changes one wall at a time, and times the next query, which has to build the changed clusters again.
+		long[] changeTimes = new long[WALL_CHANGES];
+		for (int i = 0; i < WALL_CHANGES; i++) {
+			int tile = randomOpenTile(grid, random);
+			finder.setSolid(tile % size, tile / size, true);
+			start = System.nanoTime();
+			finder.findPath(starts[i] % size, starts[i] / size, goals[i] % size, goals[i] / size, path);
+			changeTimes[i] = System.nanoTime() - start;
+		}
+		printPercentiles("wall+hpa*", changeTimes);
+
+		// Answers some of the queries by searching every tile from the goal.
+		int flatQueries = Math.min(FLAT_QUERIES, queries);
+		long[] flatTimes = new long[flatQueries];
+		long shortest = 0, hpaLength = 0;
+		for (int i = 0; i < flatQueries; i++) {
+			FlowField field = new FlowField(grid, Integer.MAX_VALUE);
+			start = System.nanoTime();
+			field.update((goals[i] % size + 0.5f) * grid.getTileWidth(), (goals[i] / size + 0.5f) * grid.getTileHeight());
+			int distance = field.getDistance(starts[i] % size, starts[i] / size);
+			flatTimes[i] = System.nanoTime() - start;
+
+			// Compares the length of the shortest path with the one the path finder found.
+			if (distance != FlowField.UNREACHABLE
+					&& finder.findPath(starts[i] % size, starts[i] / size, goals[i] % size, goals[i] / size, path)) {
+				shortest += distance;
+				hpaLength += path.size - 1;
+			}
+		}
+		printPercentiles("flat bfs", flatTimes);
+		System.out.println(String.format("hpa* paths are %.1f%% longer than the shortest", 100.0 * (hpaLength - shortest) / Math.max(shortest, 1)));
+	}
+
+	/**
+	 * Prints the names of the columns of the percentiles.
+	 */
+	private static void printHeader() {
+		System.out.println(String.format("%-10s %10s %10s %10s %10s %10s", "queries", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us"));
+	}
+
+	/**
+	 * Prints the percentiles of a list of times, in microseconds.
+	 */
+	private static void printPercentiles(String name, long[] times) {
+		long[] sorted = times.clone();
+		Arrays.sort(sorted);
+		System.out.println(String.format("%-10s %10.1f %10.1f %10.1f %10.1f %10.1f", name, percentile(sorted, 0.5), percentile(sorted, 0.9),
+				percentile(sorted, 0.99), percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e3));
+	}
+
+	/**
+	 * Gets a percentile of a sorted list of times, in microseconds.
+	 */
+	private static double percentile(long[] sorted, double fraction) {
+		int index = Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1);
+		return sorted[Math.max(index, 0)] / 1e3;
+	}
+
+	/**
+	 * Creates a grid with short walls scattered around it, like the CollisionBenchmark.
+	 */
+	private static CollisionGrid createGrid(int size, Random random) {
+		CollisionGrid grid = new CollisionGrid(size, size, 32, 32);
+		for (int wall = 0; wall < size * size / 20; wall++) {
+			int x = random.nextInt(size), y = random.nextInt(size);
+			boolean horizontal = random.nextBoolean();
+			int length = 2 + random.nextInt(8);
+			for (int i = 0; i < length; i++) {
+				if (horizontal && x + i < size) {
+					grid.setSolid(x + i, y, true);
+				} else if (!horizontal && y + i < size) {
+					grid.setSolid(x, y + i, true);
+				}
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * Picks a random tile that is not solid.
+	 */
+	private static int randomOpenTile(CollisionGrid grid, Random random) {
+		while (true) {
+			int x = random.nextInt(grid.getWidth()), y = random.nextInt(grid.getHeight());
+			if (grid.isSolid(x, y) == false) {
+				return y * grid.getWidth() + x;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,252 @@
+package com.dungeondoom.world;
+
+import java.io.IOException;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.XmlReader;
+import com.badlogic.gdx.utils.XmlReader.Element;
+
+/**
+ * @author Roshan Munjal
+ * The CollisionGrid is the obstacle layer of a map, baked into one bit per
+ * tile when the map is loaded. Each row of tiles is stored in as many longs
+ * as it needs, so checking a box against the obstacles only looks at the
+ * rows the box covers, and at one or two words in each row. A tile is solid
+ * if the middle of the tile is inside one of the rectangles of the layer,
+ * which keeps the obstacles within half a tile of where they were drawn in
+ * Tiled. Anything else that needs to know where the walls are, such as the
+ * pathfinding or the spawning, can use the same grid.
+ */
+public class CollisionGrid {
+
+	// The name of the object layer the obstacles are read from.
+	public static final String COLLISION_LAYER = "collision";
+
+	// The size of the grid in tiles, and the size of a tile in pixels.
+	private int width, height;
+	private float tileWidth, tileHeight;
+
+	// The bits of the grid, row by row. Each row starts at a new word.
+	private long[] bits;
+	private int wordsPerRow;
+
+	/**
+	 * Constructor for the CollisionGrid class. Every tile starts out open.
+	 * @param width : the width of the grid in tiles
+	 * @param height : the height of the grid in tiles
+	 * @param tileWidth : the width of a tile in pixels
+	 * @param tileHeight : the height of a tile in pixels
+	 */
+	public CollisionGrid(int width, int height, float tileWidth, float tileHeight) {
+		this.width = width;
+		this.height = height;
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+		wordsPerRow = (width + 63) >>> 6;
+		bits = new long[wordsPerRow * height];
+	}
+
+	/**
+	 * Bakes the collision layer of a map into a grid the size of the map.
+	 * @param map : the map to read the obstacles from
+	 * @return grid : the baked grid
+	 */
+	public static CollisionGrid fromMap(TiledMap map) {
+		MapProperties properties = map.getProperties();
+		CollisionGrid grid = new CollisionGrid(properties.get("width", Integer.class), properties.get("height", Integer.class),
+				properties.get("tilewidth", Integer.class), properties.get("tileheight", Integer.class));
+
+		MapLayer layer = map.getLayers().get(COLLISION_LAYER);
+		if (layer != null) {
+			for (MapObject object : layer.getObjects()) {
+				if (object instanceof RectangleMapObject) {
+					grid.fill(((RectangleMapObject) object).getRectangle());
+				}
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * Bakes the collision layer of a Tiled map file into a grid the size of the map. Only the XML is
+	 * read, so unlike loading a TiledMap this needs no tileset textures, and works without a window.
+	 * The rectangles are flipped to y-up the same way the TmxMapLoader flips them.
+	 * @param file : the .tmx file to read the obstacles from
+	 * @return grid : the baked grid
+	 */
+	public static CollisionGrid fromTmx(FileHandle file) {
+		Element root;
+		try {
+			root = new XmlReader().parse(file);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Could not read the map " + file, e);
+		}
+		CollisionGrid grid = new CollisionGrid(root.getIntAttribute("width"), root.getIntAttribute("height"),
+				root.getIntAttribute("tilewidth"), root.getIntAttribute("tileheight"));
+		float mapHeight = grid.height * grid.tileHeight;
+
+		Rectangle rect = new Rectangle();
+		for (Element group : root.getChildrenByName("objectgroup")) {
+			if (COLLISION_LAYER.equals(group.getAttribute("name", null)) == false) {
+				continue;
+			}
+			for (Element object : group.getChildrenByName("object")) {
+				// Only plain rectangles are obstacles, the same as in fromMap.
+				if (object.getAttribute("width", null) == null || object.getChildByName("ellipse") != null
+						|| object.getChildByName("polygon") != null || object.getChildByName("polyline") != null) {
+					continue;
+				}
+				float width = object.getFloatAttribute("width");
+				float height = object.getFloatAttribute("height", 0);
+				rect.set(object.getFloatAttribute("x", 0), mapHeight - object.getFloatAttribute("y", 0) - height, width, height);
+				grid.fill(rect);
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * Makes every tile whose middle is inside a rectangle solid.
+	 * @param rect : the rectangle, in pixels
+	 */
+	public void fill(Rectangle rect) {
+		// The tiles whose middles are inside the rectangle.
+		int minX = Math.max(0, MathUtils.ceil(rect.x / tileWidth - 0.5f));
+		int maxX = Math.min(width - 1, MathUtils.floor((rect.x + rect.width) / tileWidth - 0.5f));
+		int minY = Math.max(0, MathUtils.ceil(rect.y / tileHeight - 0.5f));
+		int maxY = Math.min(height - 1, MathUtils.floor((rect.y + rect.height) / tileHeight - 0.5f));
+		for (int y = minY; y <= maxY; y++) {
+			for (int x = minX; x <= maxX; x++) {
+				setSolid(x, y, true);
+			}
+		}
+	}
+
+	/**
+	 * Makes a tile solid or open.
+	 * @param x : the column of the tile
+	 * @param y : the row of the tile
+	 * @param solid : true to make the tile solid
+	 */
+	public void setSolid(int x, int y, boolean solid) {
+		int word = y * wordsPerRow + (x >>> 6);
+		if (solid) {
+			bits[word] |= 1L << x;
+		} else {
+			bits[word] &= ~(1L << x);
+		}
+	}
+
+	/**
+	 * Checks if a tile is solid. Tiles outside the grid are open.
+	 * @param x : the column of the tile
+	 * @param y : the row of the tile
+	 * @return solid
+	 */
+	public boolean isSolid(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height) {
+			return false;
+		}
+		return (bits[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+	}
+
+	/**
+	 * Checks if a box overlaps with any solid tile. Like Rectangle.overlaps, a box
+	 * that only touches the edge of a tile does not overlap with it.
+	 * @param x : the x-position of the box
+	 * @param y : the y-position of the box
+	 * @param boxWidth : the width of the box
+	 * @param boxHeight : the height of the box
+	 * @return overlaps
+	 */
+	public boolean overlaps(float x, float y, float boxWidth, float boxHeight) {
+		int minX = Math.max(0, MathUtils.floor(x / tileWidth));
+		int maxX = Math.min(width - 1, MathUtils.ceil((x + boxWidth) / tileWidth) - 1);
+		int minY = Math.max(0, MathUtils.floor(y / tileHeight));
+		int maxY = Math.min(height - 1, MathUtils.ceil((y + boxHeight) / tileHeight) - 1);
+		if (minX > maxX || minY > maxY) {
+			return false;
+		}
+
+		// Checks the columns of each row a word at a time.
+		int firstWord = minX >>> 6, lastWord = maxX >>> 6;
+		for (int row = minY; row <= maxY; row++) {
+			int rowStart = row * wordsPerRow;
+			for (int word = firstWord; word <= lastWord; word++) {
+				long mask = -1L;
+				if (word == firstWord) {
+					mask &= -1L << minX;
+				}
+				if (word == lastWord) {
+					mask &= -1L >>> (63 - (maxX & 63));
+				}
+				if ((bits[rowStart + word] & mask) != 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if a rectangle overlaps with any solid tile.
+	 * @param rect : the rectangle
+	 * @return overlaps
+	 */
+	public boolean overlaps(Rectangle rect) {
+		return overlaps(rect.x, rect.y, rect.width, rect.height);
+	}
+
+	/**
+	 * Counts the solid tiles in the grid.
+	 * @return solidCount
+	 */
+	public int countSolid() {
+		int count = 0;
+		for (int i = 0; i < bits.length; i++) {
+			count += Long.bitCount(bits[i]);
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the width of the grid in tiles.
+	 * @return width
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Gets the height of the grid in tiles.
+	 * @return height
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Gets the width of a tile in pixels.
+	 * @return tileWidth
+	 */
+	public float getTileWidth() {
+		return tileWidth;
+	}
+
+	/**
+	 * Gets the height of a tile in pixels.
+	 * @return tileHeight
+	 */
+	public float getTileHeight() {
+		return tileHeight;
+	}
+
+}
@@ -0,0 +1,446 @@
+package com.dungeondoom.world;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * @author Roshan Munjal
+ * The EntityStore holds a group of entities (for example all the ghosts,
+ * or all the coins) as parallel arrays of primitives instead of one object
+ * per entity. The entity at index i has its position in x[i] and y[i], its
+ * velocity in velocityX[i] and velocityY[i], and so on. The systems sweep
+ * straight through the arrays, which keeps the memory they touch together,
+ * and adding or removing entities creates no objects once the arrays are
+ * big enough.
+ *
+ * Entities are removed by moving the last entity into the hole, so the
+ * arrays never have gaps, but this means an index can change. Anything
+ * that needs to refer to an entity for longer than one sweep keeps its
+ * handle instead, which stays the same for the life of the entity. Once
+ * the entity is removed, its handle stops working, because the generation
+ * of its slot goes up. The generation only has GENERATION_BITS bits, so it
+ * wraps around after 2048 removals from the same slot, and a handle that
+ * was held for that long would then find a different entity. Freed slots
+ * are reused first, so a busy slot can get there within a few thousand
+ * spawns. Handles are therefore only held for a tick, as the collisions
+ * do, and anything that keeps one for longer must check that it still
+ * works each tick, with indexOf, and drop it as soon as it does not.
+ *
+ * The arrays are public so that the systems can read and write them
+ * directly. They are replaced when the store grows, so a reference to
+ * one of them must not be kept across a call to add.
+ *
+ * The store is also the pool of its entities. A removed entity's slot is
+ * handed out again by the next add, which resets every field back to its
+ * spawn state, so once the store is big enough spawning and despawning
+ * allocate nothing. The store counts how often a slot was reused and how
+ * big it got, so its starting capacity can be tuned.
+ */
+public class EntityStore {
+
+	// The value used for a handle or an index that does not refer to any entity.
+	public static final int NONE = -1;
+
+	// The flag that is set when an entity overlaps with an obstacle.
+	public static final int FLAG_OVERLAPS_OBSTACLES = 1;
+
+	// A handle is a slot in the low 20 bits, for about a million slots, and the generation of that slot in the 11 bits above,
+	// which leaves the sign bit clear so that a handle is never NONE.
+	private static final int SLOT_BITS = 20;
+	private static final int GENERATION_BITS = 31 - SLOT_BITS;
+	private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+	private static final int GENERATION_MASK = (1 << GENERATION_BITS) - 1;
+
+	// The state of every entity, by index.
+	public float[] x, y; // The position of the bottom left corner.
+	public float[] previousX, previousY; // The position at the previous tick.
+	public float[] velocityX, velocityY; // The velocity in pixels per second.
+	public float[] width, height; // The size of the bounding box.
+	public float[] speed; // The speed the entity moves at.
+	public float[] animationTime; // The time the entity has been animating for.
+	public int[] direction; // The ordinal of the direction the entity is facing.
+	public int[] flags; // The flags of the entity, such as FLAG_OVERLAPS_OBSTACLES.
+
+	// The number of entities in the store.
+	public int size = 0;
+
+	// The handle of the entity at each index.
+	private int[] handles;
+
+	// For every slot, the index of its entity (or NONE) and its generation.
+	private int[] slotIndex;
+	private int[] slotGeneration;
+	private int slotCount = 0;
+
+	// The slots that are free to be used again.
+	private int[] freeSlots;
+	private int freeCount = 0;
+
+	// Counters for tuning the capacity of the store.
+	private int spawnCount = 0; // The number of entities added.
+	private int reuseCount = 0; // The number of entities added into a slot that was freed before.
+	private int growCount = 0; // The number of times the arrays had to grow.
+	private int peakSize = 0; // The most entities that were in the store at once.
+
+	/**
+	 * Constructor for the EntityStore class.
+	 * @param capacity : the number of entities to make room for at first
+	 */
+	public EntityStore(int capacity) {
+		capacity = Math.max(capacity, 4);
+		x = new float[capacity];
+		y = new float[capacity];
+		previousX = new float[capacity];
+		previousY = new float[capacity];
+		velocityX = new float[capacity];
+		velocityY = new float[capacity];
+		width = new float[capacity];
+		height = new float[capacity];
+		speed = new float[capacity];
+		animationTime = new float[capacity];
+		direction = new int[capacity];
+		flags = new int[capacity];
+		handles = new int[capacity];
+		slotIndex = new int[capacity];
+		slotGeneration = new int[capacity];
+		freeSlots = new int[capacity];
+	}
+
+	/**
+	 * Adds an entity that is standing still at the given position.
+	 * @param x : the x-position of the entity
+	 * @param y : the y-position of the entity
+	 * @param width : the width of its bounding box
+	 * @param height : the height of its bounding box
+	 * @return handle : the handle of the new entity
+	 */
+	public int add(float x, float y, float width, float height) {
+		if (size == this.x.length) {
+			grow(size * 2);
+		}
+
+		// Uses a free slot if there is one, or a new slot otherwise.
+		spawnCount++;
+		if (freeCount > 0) {
+			reuseCount++;
+		}
+		int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+		int index = size++;
+		peakSize = Math.max(peakSize, size);
+		slotIndex[slot] = index;
+		handles[index] = (slotGeneration[slot] << SLOT_BITS) | slot;
+
+		this.x[index] = x;
+		this.y[index] = y;
+		previousX[index] = x;
+		previousY[index] = y;
+		velocityX[index] = 0;
+		velocityY[index] = 0;
+		this.width[index] = width;
+		this.height[index] = height;
+		speed[index] = 0;
+		animationTime[index] = 0;
+		direction[index] = 0;
+		flags[index] = 0;
+		return handles[index];
+	}
+
+	/**
+	 * Removes the entity at an index, by moving the last entity into its place.
+	 * @param index : the index of the entity to remove
+	 */
+	public void remove(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+		}
+
+		// Frees the slot, and changes its generation so that old handles to it stop working.
+		int slot = handles[index] & SLOT_MASK;
+		slotIndex[slot] = NONE;
+		slotGeneration[slot] = (slotGeneration[slot] + 1) & GENERATION_MASK;
+		freeSlots[freeCount++] = slot;
+
+		// Moves the last entity into the hole.
+		int last = --size;
+		if (index != last) {
+			x[index] = x[last];
+			y[index] = y[last];
+			previousX[index] = previousX[last];
+			previousY[index] = previousY[last];
+			velocityX[index] = velocityX[last];
+			velocityY[index] = velocityY[last];
+			width[index] = width[last];
+			height[index] = height[last];
+			speed[index] = speed[last];
+			animationTime[index] = animationTime[last];
+			direction[index] = direction[last];
+			flags[index] = flags[last];
+			handles[index] = handles[last];
+			slotIndex[handles[index] & SLOT_MASK] = index;
+		}
+	}
+
+	/**
+	 * Removes the entity with a handle, if it is still in the store.
+	 * @param handle : the handle of the entity
+	 * @return removed : true if the entity was removed
+	 */
+	public boolean removeHandle(int handle) {
+		int index = indexOf(handle);
+		if (index == NONE) {
+			return false;
+		}
+		remove(index);
+		return true;
+	}
+
+	/**
+	 * Removes every entity. All the handles that were given out stop working.
+	 */
+	public void clear() {
+		while (size > 0) {
+			remove(size - 1);
+		}
+	}
+
+	/**
+	 * Makes this store hold exactly what another one holds, with the same indices and handles, such as to put a
+	 * world back to a state that was saved. The counters of this store are left as they were.
+	 * @param other : the store to copy
+	 */
+	public void set(EntityStore other) {
+		ensureCapacity(Math.max(other.size, other.slotCount));
+		int count = other.size;
+		System.arraycopy(other.x, 0, x, 0, count);
+		System.arraycopy(other.y, 0, y, 0, count);
+		System.arraycopy(other.previousX, 0, previousX, 0, count);
+		System.arraycopy(other.previousY, 0, previousY, 0, count);
+		System.arraycopy(other.velocityX, 0, velocityX, 0, count);
+		System.arraycopy(other.velocityY, 0, velocityY, 0, count);
+		System.arraycopy(other.width, 0, width, 0, count);
+		System.arraycopy(other.height, 0, height, 0, count);
+		System.arraycopy(other.speed, 0, speed, 0, count);
+		System.arraycopy(other.animationTime, 0, animationTime, 0, count);
+		System.arraycopy(other.direction, 0, direction, 0, count);
+		System.arraycopy(other.flags, 0, flags, 0, count);
+		System.arraycopy(other.handles, 0, handles, 0, count);
+		System.arraycopy(other.slotIndex, 0, slotIndex, 0, other.slotCount);
+		System.arraycopy(other.slotGeneration, 0, slotGeneration, 0, other.slotCount);
+		System.arraycopy(other.freeSlots, 0, freeSlots, 0, other.freeCount);
+		size = count;
+		slotCount = other.slotCount;
+		freeCount = other.freeCount;
+	}
+
+	/**
+	 * Finds the index of the entity with a handle.
+	 * @param handle : the handle of the entity
+	 * @return index : its index, or NONE if it has been removed
+	 */
+	public int indexOf(int handle) {
+		if (handle < 0) {
+			return NONE;
+		}
+		int slot = handle & SLOT_MASK;
+		if (slot >= slotCount || slotGeneration[slot] != handle >>> SLOT_BITS) {
+			return NONE;
+		}
+		return slotIndex[slot];
+	}
+
+	/**
+	 * Gets the handle of the entity at an index.
+	 * @param index : the index of the entity
+	 * @return handle
+	 */
+	public int handleAt(int index) {
+		return handles[index];
+	}
+
+	/**
+	 * Remembers the position of every entity as its position at the previous tick.
+	 */
+	public void savePreviousPositions() {
+		System.arraycopy(x, 0, previousX, 0, size);
+		System.arraycopy(y, 0, previousY, 0, size);
+	}
+
+	/**
+	 * Moves every entity by its velocity and moves its animation on.
+	 * @param delta : the length of the tick
+	 */
+	public void integrate(float delta) {
+		integrate(0, size, delta);
+	}
+
+	/**
+	 * Moves a range of entities by their velocity and moves their animations on.
+	 * @param from : the index of the first entity
+	 * @param to : one past the index of the last entity
+	 * @param delta : the length of the tick
+	 */
+	public void integrate(int from, int to, float delta) {
+		for (int i = from; i < to; i++) {
+			x[i] += velocityX[i] * delta;
+			y[i] += velocityY[i] * delta;
+			animationTime[i] += delta;
+		}
+	}
+
+	/**
+	 * Gets the x-position an entity is drawn at, between its last two ticks.
+	 * @param index : the index of the entity
+	 * @param alpha : how far the frame is between the ticks, from 0 to 1
+	 * @return drawX
+	 */
+	public float getDrawX(int index, float alpha) {
+		return previousX[index] + (x[index] - previousX[index]) * alpha;
+	}
+
+	/**
+	 * Gets the y-position an entity is drawn at, between its last two ticks.
+	 * @param index : the index of the entity
+	 * @param alpha : how far the frame is between the ticks, from 0 to 1
+	 * @return drawY
+	 */
+	public float getDrawY(int index, float alpha) {
+		return previousY[index] + (y[index] - previousY[index]) * alpha;
+	}
+
+	/**
+	 * Checks if the bounding box of an entity overlaps with a rectangle.
+	 * @param index : the index of the entity
+	 * @param rect : the rectangle to check
+	 * @return overlaps
+	 */
+	public boolean overlaps(int index, Rectangle rect) {
+		return x[index] < rect.x + rect.width && x[index] + width[index] > rect.x
+				&& y[index] < rect.y + rect.height && y[index] + height[index] > rect.y;
+	}
+
+	/**
+	 * Copies the bounding box of an entity into a rectangle.
+	 * @param index : the index of the entity
+	 * @param out : the rectangle to copy into
+	 * @return out
+	 */
+	public Rectangle getBounds(int index, Rectangle out) {
+		return out.set(x[index], y[index], width[index], height[index]);
+	}
+
+	/**
+	 * Sets or clears a flag of an entity.
+	 * @param index : the index of the entity
+	 * @param flag : the flag to change
+	 * @param set : true to set the flag, false to clear it
+	 */
+	public void setFlag(int index, int flag, boolean set) {
+		flags[index] = set ? flags[index] | flag : flags[index] & ~flag;
+	}
+
+	/**
+	 * Checks if a flag of an entity is set.
+	 * @param index : the index of the entity
+	 * @param flag : the flag to check
+	 * @return set
+	 */
+	public boolean hasFlag(int index, int flag) {
+		return (flags[index] & flag) != 0;
+	}
+
+	/**
+	 * Gets the number of entities the store can hold before it has to grow.
+	 * @return capacity
+	 */
+	public int getCapacity() {
+		return x.length;
+	}
+
+	/**
+	 * Makes sure the store can hold a number of entities without growing.
+	 * @param capacity : the number of entities to make room for
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity > x.length) {
+			grow(capacity);
+		}
+	}
+
+	/**
+	 * Gets the share of the added entities that reused a freed slot.
+	 * @return hitRate : between 0 and 1, or 1 if nothing has been added
+	 */
+	public float getHitRate() {
+		return spawnCount == 0 ? 1 : (float) reuseCount / spawnCount;
+	}
+
+	/**
+	 * Gets the most entities that were in the store at once.
+	 * @return peakSize
+	 */
+	public int getPeakSize() {
+		return peakSize;
+	}
+
+	/**
+	 * Gets the number of times the arrays had to grow, each of which allocates.
+	 * @return growCount
+	 */
+	public int getGrowCount() {
+		return growCount;
+	}
+
+	/**
+	 * Describes how the store has been used, for the log.
+	 * @return description
+	 */
+	public String describeUsage() {
+		return spawnCount + " spawned, hit rate " + Math.round(getHitRate() * 100) + "%, peak " + peakSize
+				+ " of " + x.length + ", grew " + growCount + " times";
+	}
+
+	/**
+	 * Makes all the arrays bigger.
+	 * @param capacity : the new number of entities to make room for
+	 */
+	private void grow(int capacity) {
+		growCount++;
+		if (capacity > SLOT_MASK + 1) {
+			throw new IllegalStateException("An EntityStore cannot hold more than " + (SLOT_MASK + 1) + " entities");
+		}
+		x = copyOf(x, capacity);
+		y = copyOf(y, capacity);
+		previousX = copyOf(previousX, capacity);
+		previousY = copyOf(previousY, capacity);
+		velocityX = copyOf(velocityX, capacity);
+		velocityY = copyOf(velocityY, capacity);
+		width = copyOf(width, capacity);
+		height = copyOf(height, capacity);
+		speed = copyOf(speed, capacity);
+		animationTime = copyOf(animationTime, capacity);
+		direction = copyOf(direction, capacity);
+		flags = copyOf(flags, capacity);
+		handles = copyOf(handles, capacity);
+		slotIndex = copyOf(slotIndex, capacity);
+		slotGeneration = copyOf(slotGeneration, capacity);
+		freeSlots = copyOf(freeSlots, capacity);
+	}
+
+	/**
+	 * Copies a float array into a bigger one.
+	 */
+	private static float[] copyOf(float[] array, int capacity) {
+		float[] copy = new float[capacity];
+		System.arraycopy(array, 0, copy, 0, array.length);
+		return copy;
+	}
+
+	/**
+	 * Copies an int array into a bigger one.
+	 */
+	private static int[] copyOf(int[] array, int capacity) {
+		int[] copy = new int[capacity];
+		System.arraycopy(array, 0, copy, 0, array.length);
+		return copy;
+	}
+
+}
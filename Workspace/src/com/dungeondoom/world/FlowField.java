@@ -0,0 +1,213 @@
+package com.dungeondoom.world;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.dungeondoom.actors.Direction;
+
+/**
+ * @author Roshan Munjal
+ * The FlowField is a map of how far every open tile of a CollisionGrid is
+ * from a target tile (usually the player's), walking up, down, left and
+ * right around the solid tiles. It is found with one breadth first search
+ * from the target, and then anything chasing the target only has to look
+ * at its own tile and step to the neighbour that is closest, so the cost
+ * of chasing does not depend on how many things are chasing.
+ *
+ * The field is only searched again when the target moves into a different
+ * tile. The new search is done into a second buffer, a limited number of
+ * tiles per call, and the finished buffer replaces the old one. So on a big
+ * map the search is spread over several ticks, and until it is done the
+ * chasers keep following the old field, which is still nearly right.
+ */
+public class FlowField {
+
+	// The distance of a tile that cannot be reached from the target.
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	// The steps to each neighbour, in the order they are checked.
+	private static final int[] STEP_X = { 0, 0, -1, 1 };
+	private static final int[] STEP_Y = { 1, -1, 0, 0 };
+	private static final Direction[] STEP_DIRECTIONS = { Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT };
+
+	// The grid of obstacles, and its size in tiles.
+	private CollisionGrid grid;
+	private int width, height;
+
+	// The distances of the finished field, and the target it leads to.
+	private int[] distances;
+	private int targetX = -1, targetY = -1;
+
+	// The distances of the search in progress, and the tiles still to be expanded.
+	private int[] pending;
+	private int[] queue;
+	private int queueHead = 0, queueTail = 0;
+	private boolean searching = false;
+	private int searchX = -1, searchY = -1;
+
+	// The most tiles that are expanded in one call to update.
+	private int tileBudget;
+
+	// Counters for profiling.
+	private int searchCount = 0; // The number of searches that were finished.
+	private int tilesExpanded = 0; // The number of tiles expanded in the last call to update.
+
+	/**
+	 * Constructor for the FlowField class.
+	 * @param grid : the grid of obstacles to find paths around
+	 * @param tileBudget : the most tiles to expand in one call to update
+	 */
+	public FlowField(CollisionGrid grid, int tileBudget) {
+		this.grid = grid;
+		this.tileBudget = tileBudget;
+		width = grid.getWidth();
+		height = grid.getHeight();
+		distances = new int[width * height];
+		pending = new int[width * height];
+		queue = new int[width * height];
+		Arrays.fill(distances, UNREACHABLE);
+	}
+
+	/**
+	 * Moves the field towards a target. A new search is only started when the target is in a
+	 * different tile from the one the field leads to, and a search in progress is carried on.
+	 * @param x : the x-position of the target in pixels
+	 * @param y : the y-position of the target in pixels
+	 * @return ready : true if a new field was finished during this call
+	 */
+	public boolean update(float x, float y) {
+		tilesExpanded = 0;
+		int tileX = MathUtils.clamp(MathUtils.floor(x / grid.getTileWidth()), 0, width - 1);
+		int tileY = MathUtils.clamp(MathUtils.floor(y / grid.getTileHeight()), 0, height - 1);
+
+		// Starts a search if the target has changed tile and no search is running.
+		if (searching == false && (tileX != targetX || tileY != targetY)) {
+			startSearch(tileX, tileY);
+		}
+		if (searching == false) {
+			return false;
+		}
+
+		// Expands the search as far as the budget allows.
+		while (queueHead < queueTail && tilesExpanded < tileBudget) {
+			expand(queue[queueHead++]);
+			tilesExpanded++;
+		}
+		if (queueHead < queueTail) {
+			return false;
+		}
+
+		// The search is finished, so it replaces the old field.
+		int[] finished = pending;
+		pending = distances;
+		distances = finished;
+		targetX = searchX;
+		targetY = searchY;
+		searching = false;
+		searchCount++;
+		return true;
+	}
+
+	/**
+	 * Starts a new search from a tile.
+	 */
+	private void startSearch(int tileX, int tileY) {
+		Arrays.fill(pending, UNREACHABLE);
+		searchX = tileX;
+		searchY = tileY;
+		queueHead = 0;
+		queueTail = 0;
+		searching = true;
+
+		int start = tileY * width + tileX;
+		pending[start] = 0;
+		queue[queueTail++] = start;
+	}
+
+	/**
+	 * Gives every open neighbour of a tile that has not been reached yet its distance.
+	 */
+	private void expand(int tile) {
+		int x = tile % width, y = tile / width;
+		int distance = pending[tile] + 1;
+		for (int i = 0; i < 4; i++) {
+			int nx = x + STEP_X[i], ny = y + STEP_Y[i];
+			if (nx < 0 || ny < 0 || nx >= width || ny >= height) {
+				continue;
+			}
+			int neighbour = ny * width + nx;
+			if (pending[neighbour] == UNREACHABLE && grid.isSolid(nx, ny) == false) {
+				pending[neighbour] = distance;
+				queue[queueTail++] = neighbour;
+			}
+		}
+	}
+
+	/**
+	 * Gets the distance from a tile to the target, in tiles.
+	 * @param tileX : the column of the tile
+	 * @param tileY : the row of the tile
+	 * @return distance : the distance, or UNREACHABLE
+	 */
+	public int getDistance(int tileX, int tileY) {
+		if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+			return UNREACHABLE;
+		}
+		return distances[tileY * width + tileX];
+	}
+
+	/**
+	 * Gets the direction to step in from a tile to get closer to the target.
+	 * @param tileX : the column of the tile
+	 * @param tileY : the row of the tile
+	 * @return direction : the direction, or null if the tile is the target or cannot reach it
+	 */
+	public Direction getDirection(int tileX, int tileY) {
+		int best = getDistance(tileX, tileY);
+		if (best == 0 || best == UNREACHABLE) {
+			return null;
+		}
+		Direction direction = null;
+		for (int i = 0; i < 4; i++) {
+			int distance = getDistance(tileX + STEP_X[i], tileY + STEP_Y[i]);
+			if (distance < best) {
+				best = distance;
+				direction = STEP_DIRECTIONS[i];
+			}
+		}
+		return direction;
+	}
+
+	/**
+	 * Checks if a search is still in progress.
+	 * @return searching
+	 */
+	public boolean isSearching() {
+		return searching;
+	}
+
+	/**
+	 * Gets the number of searches that have been finished.
+	 * @return searchCount
+	 */
+	public int getSearchCount() {
+		return searchCount;
+	}
+
+	/**
+	 * Gets the number of tiles that were expanded in the last call to update.
+	 * @return tilesExpanded
+	 */
+	public int getTilesExpanded() {
+		return tilesExpanded;
+	}
+
+	/**
+	 * Gets the grid the field is searched over.
+	 * @return grid
+	 */
+	public CollisionGrid getGrid() {
+		return grid;
+	}
+
+}
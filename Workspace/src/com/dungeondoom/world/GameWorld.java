@@ -0,0 +1,700 @@
+package com.dungeondoom.world;
+
+import java.util.Random;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.dungeondoom.actors.Direction;
+import com.dungeondoom.actors.Player;
+import com.dungeondoom.actors.PlayerInput;
+import com.dungeondoom.currency.Coin;
+import com.dungeondoom.effects.EffectSystem;
+import com.dungeondoom.enemies.EnemySystem;
+import com.dungeondoom.enemies.Ghost;
+import com.dungeondoom.telemetry.Telemetry;
+
+/**
+ * @author Roshan Munjal
+ * The GameWorld is the whole game without the drawing: the player, the
+ * ghosts and the coins, and everything that happens to them in a tick,
+ * such as moving, chasing, collisions, picking up coins, stamina, health,
+ * kills and spawning. It never touches the screen, the textures or the
+ * keyboard. What the player does comes in as a PlayerInput, and all the
+ * randomness comes from one Random, so a game can be replayed exactly
+ * from its seed. The PlayScreen draws a GameWorld, and a GameWorld can
+ * also be run on its own, without a window, to simulate games.
+ */
+public class GameWorld {
+
+	// The length of one simulation tick, in seconds. The game logic always runs at this rate.
+	public static final float TIME_STEP = 1 / 60f;
+
+	// The number of ticks the game goes on for after the player dies, before it is over.
+	public static final int DEATH_TICKS = 300;
+
+	// The most tiles of the ghosts' flow field that are searched in one tick.
+	private static final int FLOW_FIELD_BUDGET = 4096;
+
+	// The main character.
+	private Player mainCharacter;
+	private Rectangle mainCharacterRectangle;
+
+	// Declares the base speed of the main character.
+	private float baseSpeed = 100;
+
+	// The ghosts and coins are kept in entity stores, and the Ghost and Coin objects are shared by all of them.
+	private EntityStore ghosts;
+	private EntityStore groundCoins;
+	private Ghost ghostKind;
+	private Coin coinKind;
+	private int speed;
+
+	// The numbers that set up the game, such as how many ghosts and coins there are at the start.
+	private ScenarioConfig config;
+
+	// The short effects, such as killed ghosts fading away, which come from a pool.
+	private EffectSystem effects;
+
+	// The directions, by ordinal, which is how the entity stores keep them.
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	// The update phase of the ghosts, which runs their AI and moves them every tick.
+	private EnemySystem enemySystem = new EnemySystem();
+
+	// The obstacles of the map, and the size of the world in pixels.
+	private CollisionGrid collisionGrid;
+	private float width, height;
+
+	// Finds paths between any two tiles, for anything that is not going straight to the player.
+	private HierarchicalPathFinder pathFinder;
+
+	// Where all of the randomness of the game comes from.
+	private Random random;
+
+	// The broadphase of the collision checks between the characters, which is rebuilt every tick.
+	private static final float HASH_CELL_SIZE = 64;
+	private SpatialHash ghostHash = new SpatialHash(HASH_CELL_SIZE, 1024);
+	private SpatialHash coinHash = new SpatialHash(HASH_CELL_SIZE, 256);
+	private IntArray ghostCandidates = new IntArray();
+	private IntArray coinCandidates = new IntArray();
+	private IntArray removedHandles = new IntArray();
+
+	// The results of the narrow phase, one for each candidate. The narrow phase can run across threads,
+	// so it only writes these, and they are applied afterwards in candidate order.
+	private static final int CONTACT = 1, KILL = 2;
+	private IntArray ghostContacts = new IntArray();
+	private IntArray coinContacts = new IntArray();
+	private boolean attacking = false;
+
+	// Tests each ghost near the player for touching it, and for being killed by its attack.
+	private ParallelSweep.Range ghostNarrowPhase = new ParallelSweep.Range() {
+		@Override
+		public void run(int from, int to) {
+			for (int c = from; c < to; c++) {
+				int i = ghostCandidates.get(c);
+				int result = 0;
+				if (ghosts.overlaps(i, mainCharacterRectangle)) {
+					result = CONTACT;
+					if (attacking && isFacing(ghosts.x[i], ghosts.y[i])) {
+						result |= KILL;
+					}
+				}
+				ghostContacts.items[c] = result;
+			}
+		}
+	};
+
+	// Tests each coin near the player for being picked up.
+	private ParallelSweep.Range coinNarrowPhase = new ParallelSweep.Range() {
+		@Override
+		public void run(int from, int to) {
+			for (int c = from; c < to; c++) {
+				coinContacts.items[c] = groundCoins.overlaps(coinCandidates.get(c), mainCharacterRectangle) ? CONTACT : 0;
+			}
+		}
+	};
+
+	// The number of candidate pairs that the collision checks tested in the last tick.
+	private int collisionPairs = 0;
+
+	// How long the collision checks and the ghosts' AI took in the last tick, in nanoseconds.
+	private long collisionNanos = 0;
+	private long aiNanos = 0;
+
+	// Where the spawns are recorded, which only sends them to the Flight Recorder unless it is set.
+	private Telemetry telemetry = new Telemetry();
+
+	// Counters to determine when certain numbers of ticks have passed.
+	private int tickCount = 0; // The number of ticks that have been run.
+	private int lastCount = 0; // Count since the character died.
+	private int attackCount = 0; // Count since character was attacked.
+	private int coinCount = 0; // Count since a coin was spawned.
+	private int staminaCount = 0; // Count since stamina was used.
+
+	/**
+	 * Constructor for the GameWorld class. This places the player and the first ghosts and coins.
+	 * @param collisionGrid : the obstacles of the map, which also sets the size of the world
+	 * @param mainCharacter : the player
+	 * @param ghostKind : the kind of ghost to spawn
+	 * @param coinKind : the kind of coin to spawn
+	 * @param effects : the effects to show what happens, such as ghosts fading away
+	 * @param random : where the randomness of the game comes from
+	 */
+	public GameWorld(CollisionGrid collisionGrid, Player mainCharacter, Ghost ghostKind, Coin coinKind, EffectSystem effects, Random random) {
+		this(collisionGrid, mainCharacter, ghostKind, coinKind, effects, random, new ScenarioConfig());
+	}
+
+	/**
+	 * Constructor for the GameWorld class, for a game that is set up by a scenario.
+	 * @param collisionGrid : the obstacles of the map, which also sets the size of the world
+	 * @param mainCharacter : the player
+	 * @param ghostKind : the kind of ghost to spawn
+	 * @param coinKind : the kind of coin to spawn
+	 * @param effects : the effects to show what happens, such as ghosts fading away
+	 * @param random : where the randomness of the game comes from
+	 * @param config : how many ghosts and coins there are at the start, how fast the ghosts are, and so on
+	 */
+	public GameWorld(CollisionGrid collisionGrid, Player mainCharacter, Ghost ghostKind, Coin coinKind, EffectSystem effects, Random random,
+			ScenarioConfig config) {
+		this(collisionGrid, buildPathFinder(collisionGrid), mainCharacter, ghostKind, coinKind, effects, random, config);
+	}
+
+	/**
+	 * Constructor for the GameWorld class, for a game whose path finder has already been built, such as by the loading screen.
+	 * @param collisionGrid : the obstacles of the map, which also sets the size of the world
+	 * @param pathFinder : the path finder for the obstacles, which has already been built
+	 * @param mainCharacter : the player
+	 * @param ghostKind : the kind of ghost to spawn
+	 * @param coinKind : the kind of coin to spawn
+	 * @param effects : the effects to show what happens, such as ghosts fading away
+	 * @param random : where the randomness of the game comes from
+	 * @param config : how many ghosts and coins there are at the start, how fast the ghosts are, and so on
+	 */
+	public GameWorld(CollisionGrid collisionGrid, HierarchicalPathFinder pathFinder, Player mainCharacter, Ghost ghostKind, Coin coinKind,
+			EffectSystem effects, Random random, ScenarioConfig config) {
+		this.config = config;
+		speed = config.getGhostSpeed();
+		this.collisionGrid = collisionGrid;
+		this.mainCharacter = mainCharacter;
+		this.ghostKind = ghostKind;
+		this.coinKind = coinKind;
+		this.effects = effects;
+		this.random = random;
+		width = collisionGrid.getWidth() * collisionGrid.getTileWidth();
+		height = collisionGrid.getHeight() * collisionGrid.getTileHeight();
+
+		// Moves the player, and any enemies that cannot go through walls, by sweeping them through the grid.
+		SweptCollider collider = new SweptCollider(collisionGrid);
+		mainCharacter.setCollider(collider);
+		mainCharacter.setWorldSize(width, height);
+		enemySystem.setCollider(collider);
+
+		// Lets the ghosts find their way to the player around the obstacles.
+		enemySystem.setFlowField(new FlowField(collisionGrid, FLOW_FIELD_BUDGET));
+		this.pathFinder = pathFinder;
+
+		// Places the main character.
+		mainCharacter.setPosition(width / 2 - 14, height / 2 - 90);
+		mainCharacter.savePreviousPosition();
+
+		// Adds ghosts to the store of ghosts.
+		ghosts = new EntityStore(Math.max(64, config.getGhosts()));
+		for (int i = 0; i < config.getGhosts(); i++) {
+			ghostKind.spawn(ghosts, Math.round(random.nextDouble()) * width, Math.round(random.nextDouble() * height), speed);
+		}
+
+		// Adds coins to the store of coins.
+		groundCoins = new EntityStore(Math.max(64, config.getCoins()));
+		for (int i = 0; i < config.getCoins(); i++) {
+			coinKind.spawn(groundCoins, (int) (30 + random.nextDouble() * (width - 60)), (int) (30 + random.nextDouble() * (height - 60)));
+		}
+	}
+
+	/**
+	 * Builds the path finder for the obstacles of a map, which goes through the whole map once.
+	 * @param collisionGrid : the obstacles of the map
+	 * @return pathFinder
+	 */
+	public static HierarchicalPathFinder buildPathFinder(CollisionGrid collisionGrid) {
+		HierarchicalPathFinder pathFinder = new HierarchicalPathFinder(collisionGrid);
+		pathFinder.rebuild();
+		return pathFinder;
+	}
+
+	/**
+	 * Runs one tick of the simulation, which is always TIME_STEP seconds long.
+	 * @param input : what the player wants to do during the tick
+	 */
+	public void tick(PlayerInput input) {
+		// Counts the number of ticks that have passed.
+		tickCount++;
+		coinCount++;
+		attackCount++;
+		staminaCount++;
+
+		// Once the player is dead, only the time until the game is over is counted.
+		if (mainCharacter.isPlayerAlive() == false) {
+			lastCount++;
+			return;
+		}
+
+		// Remembers where everything is, and rebuilds the broadphase.
+		long start = TimeUtils.nanoTime();
+		beginTick();
+
+		// Adds to the stamina of the player if needed.
+		addStamina();
+
+		// Checks if the character collides with an obstacle.
+		characterObstacleCollision();
+
+		// Tests everything near the character against it, before anything is changed.
+		findContacts();
+
+		// Checks if a ghost collides with a character.
+		ghostCharacterCollision();
+
+		// Checks if a character collides with a ghost.
+		characterGhostCollision();
+
+		// Checks if a character overlaps with a coin.
+		characterCoinCollision();
+
+		// Records how many candidate pairs the collision checks tested.
+		collisionPairs = ghostHash.getCandidateCount() + coinHash.getCandidateCount();
+		collisionNanos = TimeUtils.nanoTime() - start;
+
+		// Updates the state of the game and players by taking input.
+		update(input);
+
+		// Moves everything by one tick. The coins never move.
+		mainCharacter.act(TIME_STEP);
+		start = TimeUtils.nanoTime();
+		enemySystem.update(ghosts, ghostKind, mainCharacter, TIME_STEP);
+		aiNanos = TimeUtils.nanoTime() - start;
+		effects.update(TIME_STEP);
+	}
+
+	// The phases of a tick are package-private, so that the benchmarks can time each of them on its own.
+
+	/**
+	 * Remembers where everything was before this tick, and rebuilds the broadphase where everything is now.
+	 */
+	void beginTick() {
+		// Remembers where everything was before this tick, to draw between the ticks.
+		mainCharacter.savePreviousPosition();
+		ghosts.savePreviousPositions();
+
+		// Creates the bounding rectangle for the main character.
+		mainCharacterRectangle = mainCharacter.getBoundingRectangle();
+
+		// Rebuilds the broadphase for the ghosts and coins where they are now.
+		ghostHash.build(ghosts);
+		coinHash.build(groundCoins);
+		ghostHash.resetCandidateCount();
+		coinHash.resetCandidateCount();
+
+		// Makes the lists of results big enough for every ghost and coin, so that they only grow with the stores.
+		reserve(ghostCandidates, ghosts.getCapacity());
+		reserve(ghostContacts, ghosts.getCapacity());
+		reserve(coinCandidates, groundCoins.getCapacity());
+		reserve(coinContacts, groundCoins.getCapacity());
+		reserve(removedHandles, Math.max(ghosts.getCapacity(), groundCoins.getCapacity()));
+	}
+
+	/**
+	 * Makes a list able to hold a number of items without growing.
+	 */
+	private static void reserve(IntArray list, int capacity) {
+		if (list.items.length < capacity) {
+			list.ensureCapacity(capacity - list.size);
+		}
+	}
+
+	/**
+	 * Adds stamina to the main character.
+	 */
+	private void addStamina() {
+		// If 100 ticks have gone by and stamina has not been used, and it is less than 400, then add to the stamina.
+		if (staminaCount > 100 && mainCharacter.getStamina() < 400) {
+			mainCharacter.setStamina(mainCharacter.getStamina() + 1);
+		}
+	}
+
+	/**
+	 * Checks if the character is hit by the ghost.
+	 */
+	void characterGhostCollision() {
+		// Gets the damage rating done by the ghost.
+		int damage = 0;
+		mainCharacter.setTimeSinceAttacked(mainCharacter.getTimeSinceAttacked() + TIME_STEP);
+
+		// Checks if the main character overlaps with enemies.
+		// Ghosts that were killed this tick do no damage.
+		mainCharacter.setOverlapsWithEnemies(false);
+		for (int c = 0; c < ghostContacts.size; c++) {
+			if (ghostContacts.get(c) == CONTACT) {
+				mainCharacter.setOverlapsWithEnemies(true);
+				damage = ghostKind.getDamageRating();
+			}
+		}
+
+		// If the time since attacked is more than 3 seconds.
+		if (mainCharacter.getTimeSinceAttacked() >= 3) {
+			// If the main character has health less than 100.
+			if (mainCharacter.getHealthPercentage() < 100) {
+				// This increases the health by a non-linear rate.
+				if (attackCount % Math.abs(20 - (int) mainCharacter.getTimeSinceAttacked()) == 0) {
+					mainCharacter.setHealthPercentage(mainCharacter.getHealthPercentage() + 1);
+					attackCount = 0;
+				}
+			}
+		}
+		// If the time since attacked is more than 1 second.
+		if (mainCharacter.getTimeSinceAttacked() >= 1) {
+			// If the main character overlaps with enemies.
+			if (mainCharacter.getOverlapsWithEnemies() == true) {
+				// The main character loses 10 hit points for each second with the enemies.
+				if (mainCharacter.getHealthPercentage() >= 10) {
+					mainCharacter.setHealthPercentage(mainCharacter.getHealthPercentage() - damage);
+				} else {
+					mainCharacter.setHealthPercentage(0);
+				}
+				// Resets time since attacked.
+				mainCharacter.setTimeSinceAttacked(0);
+			}
+		}
+	}
+
+	/**
+	 * Checks for collisions between the character and obstacles.
+	 */
+	void characterObstacleCollision() {
+		// Checks if the main character overlaps with obstacles.
+		mainCharacter.setOverlapsWithObstacles(collisionGrid.overlaps(mainCharacterRectangle));
+
+		// Checks if each enemy overlaps with obstacles.
+		enemySystem.markObstacles(ghosts, collisionGrid);
+	}
+
+	/**
+	 * Runs the narrow phase: tests the ghosts and coins that the broadphase found near the character
+	 * against it. This can run across threads, so it only records the results for each candidate.
+	 */
+	void findContacts() {
+		attacking = mainCharacter.isAttacking();
+		ParallelSweep sweep = enemySystem.getSweep();
+
+		ghostHash.query(mainCharacterRectangle, ghostCandidates);
+		setSize(ghostContacts, ghostCandidates.size);
+		sweep.run(ghostCandidates.size, ghostNarrowPhase);
+
+		coinHash.query(mainCharacterRectangle, coinCandidates);
+		setSize(coinContacts, coinCandidates.size);
+		sweep.run(coinCandidates.size, coinNarrowPhase);
+	}
+
+	/**
+	 * Makes a list long enough to hold a result for every candidate.
+	 */
+	private static void setSize(IntArray list, int size) {
+		list.clear();
+		list.ensureCapacity(size);
+		list.size = size;
+	}
+
+	/**
+	 * Checks the collisions of ghosts and main character
+	 */
+	void ghostCharacterCollision() {
+		// Goes through each ghost near the character that the narrow phase found was hit. They are
+		// removed by handle afterwards, since removing a ghost moves another one to its index.
+		removedHandles.clear();
+		for (int c = 0; c < ghostCandidates.size; c++) {
+			// If main character and ghost overlap and the character is attacking towards it, then:
+			// Remove the ghost and add a new ghost at a faster speed.
+			if ((ghostContacts.get(c) & KILL) != 0) {
+				removedHandles.add(ghosts.handleAt(ghostCandidates.get(c)));
+			}
+		}
+		for (int r = 0; r < removedHandles.size; r++) {
+			// The killed ghost fades away where it was.
+			int i = ghosts.indexOf(removedHandles.get(r));
+			effects.spawnGhostFade(ghosts.x[i], ghosts.y[i], DIRECTIONS[ghosts.direction[i]]);
+			ghosts.remove(i);
+			mainCharacter.addKill();
+			spawnEnemy();
+		}
+
+		// The indices in the hash are out of date once a ghost is removed.
+		if (removedHandles.size > 0) {
+			ghostHash.build(ghosts);
+		}
+	}
+
+	/**
+	 * Checks if the main character is facing towards a position.
+	 * @param x : the x-position to check
+	 * @param y : the y-position to check
+	 * @return facing
+	 */
+	private boolean isFacing(float x, float y) {
+		if (mainCharacter.getDirection() == Direction.LEFT) {
+			return x < mainCharacter.getX();
+		} else if (mainCharacter.getDirection() == Direction.RIGHT) {
+			return x > mainCharacter.getX();
+		} else if (mainCharacter.getDirection() == Direction.DOWN) {
+			return y < mainCharacter.getY();
+		} else {
+			return y > mainCharacter.getY();
+		}
+	}
+
+	/**
+	 * Spawns a new ghost enemy.
+	 */
+	void spawnEnemy() {
+		long start = TimeUtils.nanoTime();
+
+		// Increases the speed of the new ghost.
+		if (speed <= config.getMaxGhostSpeed()) {
+			speed++;
+		}
+
+		// Sets the properties of the ghost and adds it to the world.
+		ghostKind.spawn(ghosts, Math.round(random.nextDouble()) * width, Math.round(random.nextDouble() * height), speed);
+		telemetry.spawn(Telemetry.GHOST, ghosts.size, TimeUtils.nanoTime() - start);
+	}
+
+	/**
+	 * Checks to see if a character picks up a coin.
+	 */
+	void characterCoinCollision() {
+		// If the narrow phase found a coin overlapping the main character, it is removed and added to the main character.
+		removedHandles.clear();
+		for (int c = 0; c < coinCandidates.size; c++) {
+			if (coinContacts.get(c) == CONTACT) {
+				removedHandles.add(groundCoins.handleAt(coinCandidates.get(c)));
+			}
+		}
+		for (int r = 0; r < removedHandles.size; r++) {
+			groundCoins.removeHandle(removedHandles.get(r));
+			mainCharacter.addCoins(1);
+		}
+		// After certain time intervals, coins are automatically added.
+		if (coinCount > config.getCoinInterval()) {
+			spawnCoin();
+			coinCount = 0;
+		}
+	}
+
+	/**
+	 * Spawns a new coin.
+	 */
+	void spawnCoin() {
+		long start = TimeUtils.nanoTime();
+		coinKind.spawn(groundCoins, (int) (15 + random.nextDouble() * (width - 30)), (int) (15 + random.nextDouble() * (height - 30)));
+		telemetry.spawn(Telemetry.COIN, groundCoins.size, TimeUtils.nanoTime() - start);
+	}
+
+	/**
+	 * Steers the main character by what the player wants to do during this tick.
+	 * @param input : what the player wants to do
+	 */
+	private void update(PlayerInput input) {
+		// The character can always be steered, since it can no longer get stuck inside an obstacle.
+		Direction move = input.getMove();
+		if (move != null) {
+			mainCharacter.setMoving(true);
+			mainCharacter.setAttacking(false);
+			mainCharacter.setDirection(move);
+
+			// If the player runs and stamina is more than 0, character can run.
+			float moveSpeed = baseSpeed;
+			if (input.isSprint() && mainCharacter.getStamina() > 0) {
+				moveSpeed = 2 * baseSpeed;
+				mainCharacter.setMovingFast(true);
+				mainCharacter.setStamina(mainCharacter.getStamina() - 1);
+				staminaCount = 0;
+			} else {
+				mainCharacter.setMovingFast(false);
+			}
+			mainCharacter.setVelocityX(move == Direction.RIGHT ? moveSpeed : move == Direction.LEFT ? -moveSpeed : 0);
+			mainCharacter.setVelocityY(move == Direction.UP ? moveSpeed : move == Direction.DOWN ? -moveSpeed : 0);
+		}
+		// The character attacks if the player wants to.
+		else if (input.isAttack()) {
+			mainCharacter.setMoving(false);
+			mainCharacter.setMovingFast(false);
+			mainCharacter.setAttacking(true);
+			mainCharacter.setVelocityX(0);
+			mainCharacter.setVelocityY(0);
+		} else {
+			mainCharacter.setMoving(false);
+			mainCharacter.setMovingFast(false);
+			mainCharacter.setVelocityX(0);
+			mainCharacter.setVelocityY(0);
+		}
+
+		// If the player gives up or the main character dies, unless the scenario keeps it alive.
+		if ((mainCharacter.getHealthPercentage() == 0 && config.isImmortal() == false) || input.isQuit()) {
+			mainCharacter.setPlayerAlive(false);
+		}
+	}
+
+	/**
+	 * Checks if the game is over, which is a while after the player dies.
+	 * @return over
+	 */
+	public boolean isOver() {
+		return lastCount >= DEATH_TICKS;
+	}
+
+	/**
+	 * Gets the numbers that set up the game.
+	 * @return config
+	 */
+	public ScenarioConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * Gets the main character.
+	 * @return mainCharacter
+	 */
+	public Player getPlayer() {
+		return mainCharacter;
+	}
+
+	/**
+	 * Gets the store of ghosts.
+	 * @return ghosts
+	 */
+	public EntityStore getGhosts() {
+		return ghosts;
+	}
+
+	/**
+	 * Gets the store of coins on the ground.
+	 * @return groundCoins
+	 */
+	public EntityStore getCoins() {
+		return groundCoins;
+	}
+
+	/**
+	 * Gets the kind of ghost that is spawned.
+	 * @return ghostKind
+	 */
+	public Ghost getGhostKind() {
+		return ghostKind;
+	}
+
+	/**
+	 * Gets the kind of coin that is spawned.
+	 * @return coinKind
+	 */
+	public Coin getCoinKind() {
+		return coinKind;
+	}
+
+	/**
+	 * Gets the effects of the world.
+	 * @return effects
+	 */
+	public EffectSystem getEffects() {
+		return effects;
+	}
+
+	/**
+	 * Gets the update phase of the ghosts, which times their AI and can limit it to an active area.
+	 * @return enemySystem
+	 */
+	public EnemySystem getEnemySystem() {
+		return enemySystem;
+	}
+
+	/**
+	 * Gets the grid of obstacles of the map.
+	 * @return collisionGrid
+	 */
+	public CollisionGrid getCollisionGrid() {
+		return collisionGrid;
+	}
+
+	/**
+	 * Gets the path finder for the obstacles of the map.
+	 * @return pathFinder
+	 */
+	public HierarchicalPathFinder getPathFinder() {
+		return pathFinder;
+	}
+
+	/**
+	 * Gets the number of candidate pairs that the collision checks tested in the last tick.
+	 * @return collisionPairs
+	 */
+	public int getCollisionPairs() {
+		return collisionPairs;
+	}
+
+	/**
+	 * Gets how long the collision checks took in the last tick.
+	 * @return collisionNanos : the time in nanoseconds
+	 */
+	public long getCollisionNanos() {
+		return collisionNanos;
+	}
+
+	/**
+	 * Gets how long the ghosts' AI, steering and moving them, took in the last tick.
+	 * @return aiNanos : the time in nanoseconds
+	 */
+	public long getAiNanos() {
+		return aiNanos;
+	}
+
+	/**
+	 * Sets where the spawns are recorded.
+	 * @param telemetry : the telemetry of the game
+	 */
+	public void setTelemetry(Telemetry telemetry) {
+		this.telemetry = telemetry;
+	}
+
+	/**
+	 * Gets the number of ticks that have been run.
+	 * @return tickCount
+	 */
+	public int getTickCount() {
+		return tickCount;
+	}
+
+	/**
+	 * Gets the width of the world in pixels.
+	 * @return width
+	 */
+	public float getWidth() {
+		return width;
+	}
+
+	/**
+	 * Gets the height of the world in pixels.
+	 * @return height
+	 */
+	public float getHeight() {
+		return height;
+	}
+
+	/**
+	 * Empties the world, and shuts down any threads the ghosts were updated on.
+	 */
+	public void dispose() {
+		ghosts.clear();
+		groundCoins.clear();
+		effects.clear();
+		enemySystem.dispose();
+	}
+
+}
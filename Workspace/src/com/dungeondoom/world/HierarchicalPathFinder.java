@@ -0,0 +1,674 @@
+package com.dungeondoom.world;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * @author Roshan Munjal
+ * The HierarchicalPathFinder finds paths between any two tiles of a
+ * CollisionGrid, and is made for maps that are far too big to search tile
+ * by tile. The grid is split into square clusters. Wherever two clusters
+ * touch and both sides are open, there is an entrance, and the tiles at
+ * the entrances are the nodes of a small graph. The nodes of a cluster are
+ * joined by how far apart they are inside the cluster, and the two tiles
+ * of an entrance are joined to each other. A path is first found on this
+ * graph with A*, and then filled in tile by tile one cluster at a time.
+ *
+ * Paths are tile indices (row * width + column), from the start to the
+ * goal. Answers are cached until the walls change. When a tile is changed
+ * through the path finder, only its cluster (and the clusters next to it,
+ * which share its entrances) is built again, the next time a path is found.
+ */
+public class HierarchicalPathFinder {
+
+	// The default width and height of a cluster, in tiles.
+	public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+	// Entrances at least this long get a node at each end instead of one in the middle.
+	private static final int LONG_ENTRANCE = 6;
+
+	// The most answers that are cached before the cache is emptied.
+	private static final int CACHE_SIZE = 4096;
+
+	// The grid of obstacles, its size in tiles, and its size in clusters.
+	private CollisionGrid grid;
+	private int width, height;
+	private int clusterSize, clustersX, clustersY;
+
+	// The entrances from each cluster to the one on its right and the one above it, as pairs of tiles.
+	private IntArray[] eastEntrances;
+	private IntArray[] northEntrances;
+
+	// The nodes of each cluster, and the edges of every node as pairs of (tile, cost).
+	private IntArray[] clusterNodes;
+	private IntMap<IntArray> edges = new IntMap<IntArray>();
+
+	// The clusters whose tiles have changed since the graph was built.
+	private boolean[] dirty;
+	private IntArray dirtyClusters = new IntArray();
+	private boolean[] touched;
+	private IntArray touchedClusters = new IntArray();
+
+	// Searches inside one cluster, by position in the cluster.
+	private int[] localDistance;
+	private int[] localParent;
+	private int[] localQueue;
+
+	// The A* search over the nodes.
+	private IntIntMap cost = new IntIntMap();
+	private IntIntMap parent = new IntIntMap();
+	private IntIntMap goalDistance = new IntIntMap();
+	private IntArray startEdges = new IntArray();
+	private int[] heapTile = new int[256];
+	private int[] heapScore = new int[256];
+	private int heapSize = 0;
+	private IntArray route = new IntArray();
+	private IntArray segment = new IntArray();
+
+	// Answers that have already been found, by start and goal. Paths that do not exist are empty.
+	private LongMap<int[]> cache = new LongMap<int[]>();
+
+	// Counters for profiling.
+	private int cacheHits = 0;
+	private int cacheMisses = 0;
+	private int rebuildCount = 0;
+	private int nodesExpanded = 0;
+
+	/**
+	 * Constructor for the HierarchicalPathFinder class, with clusters of the default size.
+	 * @param grid : the grid of obstacles to find paths around
+	 */
+	public HierarchicalPathFinder(CollisionGrid grid) {
+		this(grid, DEFAULT_CLUSTER_SIZE);
+	}
+
+	/**
+	 * Constructor for the HierarchicalPathFinder class. The graph is built the first time a path is found.
+	 * @param grid : the grid of obstacles to find paths around
+	 * @param clusterSize : the width and height of a cluster, in tiles
+	 */
+	public HierarchicalPathFinder(CollisionGrid grid, int clusterSize) {
+		this.grid = grid;
+		this.clusterSize = clusterSize;
+		width = grid.getWidth();
+		height = grid.getHeight();
+		clustersX = (width + clusterSize - 1) / clusterSize;
+		clustersY = (height + clusterSize - 1) / clusterSize;
+
+		int clusters = clustersX * clustersY;
+		eastEntrances = new IntArray[clusters];
+		northEntrances = new IntArray[clusters];
+		clusterNodes = new IntArray[clusters];
+		dirty = new boolean[clusters];
+		touched = new boolean[clusters];
+		for (int c = 0; c < clusters; c++) {
+			eastEntrances[c] = new IntArray();
+			northEntrances[c] = new IntArray();
+			clusterNodes[c] = new IntArray();
+			markDirty(c);
+		}
+		localDistance = new int[clusterSize * clusterSize];
+		localParent = new int[clusterSize * clusterSize];
+		localQueue = new int[clusterSize * clusterSize];
+	}
+
+	/**
+	 * Finds the shortest path through the graph between two tiles.
+	 * @param startX : the column of the start
+	 * @param startY : the row of the start
+	 * @param goalX : the column of the goal
+	 * @param goalY : the row of the goal
+	 * @param path : filled with the tiles of the path, from the start to the goal
+	 * @return found : false if either tile is solid or there is no way between them
+	 */
+	public boolean findPath(int startX, int startY, int goalX, int goalY, IntArray path) {
+		path.clear();
+		rebuild();
+		if (isOpen(startX, startY) == false || isOpen(goalX, goalY) == false) {
+			return false;
+		}
+		int start = startY * width + startX;
+		int goal = goalY * width + goalX;
+
+		// Uses the answer from last time, if there was one.
+		long key = (long) start << 32 | goal;
+		int[] cached = cache.get(key);
+		if (cached != null) {
+			cacheHits++;
+			path.addAll(cached);
+			return cached.length > 0;
+		}
+		cacheMisses++;
+
+		// Stays inside the cluster when both ends are in it and joined inside it, or searches the graph.
+		boolean found;
+		if (clusterOf(start) == clusterOf(goal) && searchCluster(start, goal) >= 0) {
+			path.add(start);
+			appendSegment(start, goal, path);
+			found = true;
+		} else {
+			found = searchGraph(start, goal, path);
+		}
+
+		if (cache.size >= CACHE_SIZE) {
+			cache.clear();
+		}
+		cache.put(key, found ? path.toArray() : new int[0]);
+		return found;
+	}
+
+	/**
+	 * Changes whether a tile is solid, and marks its cluster to be built again.
+	 * @param x : the column of the tile
+	 * @param y : the row of the tile
+	 * @param solid : true if nothing can go through the tile
+	 */
+	public void setSolid(int x, int y, boolean solid) {
+		if (grid.isSolid(x, y) != solid) {
+			grid.setSolid(x, y, solid);
+			invalidate(x, y);
+		}
+	}
+
+	/**
+	 * Marks the cluster of a tile to be built again, for when the grid was changed directly.
+	 * @param x : the column of the tile
+	 * @param y : the row of the tile
+	 */
+	public void invalidate(int x, int y) {
+		if (x >= 0 && y >= 0 && x < width && y < height) {
+			markDirty((y / clusterSize) * clustersX + x / clusterSize);
+		}
+	}
+
+	/**
+	 * Builds the graph again around every cluster that has changed. This is done by findPath,
+	 * but can be called earlier so that the work is not done in the middle of a tick.
+	 */
+	public void rebuild() {
+		if (dirtyClusters.size == 0) {
+			return;
+		}
+
+		// Finds the entrances on every side of the changed clusters.
+		for (int i = 0; i < dirtyClusters.size; i++) {
+			int c = dirtyClusters.get(i);
+			int cx = c % clustersX, cy = c / clustersX;
+			findEastEntrances(cx, cy);
+			findEastEntrances(cx - 1, cy);
+			findNorthEntrances(cx, cy);
+			findNorthEntrances(cx, cy - 1);
+			touch(c);
+			touch(cx > 0 ? c - 1 : -1);
+			touch(cx < clustersX - 1 ? c + 1 : -1);
+			touch(cy > 0 ? c - clustersX : -1);
+			touch(cy < clustersY - 1 ? c + clustersX : -1);
+		}
+
+		// Joins the nodes again in the changed clusters and the ones next to them, since their entrances may have moved.
+		for (int i = 0; i < touchedClusters.size; i++) {
+			int c = touchedClusters.get(i);
+			buildCluster(c);
+			touched[c] = false;
+		}
+		for (int i = 0; i < dirtyClusters.size; i++) {
+			dirty[dirtyClusters.get(i)] = false;
+		}
+		dirtyClusters.clear();
+		touchedClusters.clear();
+		cache.clear();
+		rebuildCount++;
+	}
+
+	/**
+	 * Forgets every answer that has been cached.
+	 */
+	public void clearCache() {
+		cache.clear();
+	}
+
+	/**
+	 * Marks a cluster as changed.
+	 */
+	private void markDirty(int cluster) {
+		if (dirty[cluster] == false) {
+			dirty[cluster] = true;
+			dirtyClusters.add(cluster);
+		}
+	}
+
+	/**
+	 * Marks a cluster to have its nodes joined again, if it exists.
+	 */
+	private void touch(int cluster) {
+		if (cluster >= 0 && touched[cluster] == false) {
+			touched[cluster] = true;
+			touchedClusters.add(cluster);
+		}
+	}
+
+	/**
+	 * Finds the entrances between a cluster and the one on its right.
+	 */
+	private void findEastEntrances(int cx, int cy) {
+		if (cx < 0 || cx >= clustersX - 1) {
+			return;
+		}
+		int x = (cx + 1) * clusterSize - 1;
+		int y = cy * clusterSize;
+		findEntrances(eastEntrances[cy * clustersX + cx], y * width + x, 1, width, Math.min(clusterSize, height - y));
+	}
+
+	/**
+	 * Finds the entrances between a cluster and the one above it.
+	 */
+	private void findNorthEntrances(int cx, int cy) {
+		if (cy < 0 || cy >= clustersY - 1) {
+			return;
+		}
+		int x = cx * clusterSize;
+		int y = (cy + 1) * clusterSize - 1;
+		findEntrances(northEntrances[cy * clustersX + cx], y * width + x, width, 1, Math.min(clusterSize, width - x));
+	}
+
+	/**
+	 * Walks along the edge between two clusters, and adds a pair of tiles for every run of tiles
+	 * that is open on both sides. The first tile of a pair is in the lower cluster.
+	 * @param entrances : the list to fill
+	 * @param first : the first tile on the lower side of the edge
+	 * @param across : the step from a tile to the tile on the other side of the edge
+	 * @param along : the step from a tile to the next one along the edge
+	 * @param length : the number of tiles along the edge
+	 */
+	private void findEntrances(IntArray entrances, int first, int across, int along, int length) {
+		entrances.clear();
+		int runStart = -1;
+		for (int i = 0; i <= length; i++) {
+			int tile = first + i * along;
+			boolean open = i < length && isOpen(tile) && isOpen(tile + across);
+			if (open && runStart < 0) {
+				runStart = i;
+			} else if (open == false && runStart >= 0) {
+				int runEnd = i - 1;
+				if (runEnd - runStart + 1 >= LONG_ENTRANCE) {
+					addEntrance(entrances, first + runStart * along, across);
+					addEntrance(entrances, first + runEnd * along, across);
+				} else {
+					addEntrance(entrances, first + (runStart + runEnd) / 2 * along, across);
+				}
+				runStart = -1;
+			}
+		}
+	}
+
+	/**
+	 * Adds a pair of tiles on either side of an edge.
+	 */
+	private void addEntrance(IntArray entrances, int tile, int across) {
+		entrances.add(tile);
+		entrances.add(tile + across);
+	}
+
+	/**
+	 * Gathers the nodes of a cluster from the entrances on its sides, and joins each of them to
+	 * the other nodes it can reach inside the cluster and to the tile across its entrance.
+	 */
+	private void buildCluster(int c) {
+		IntArray nodes = clusterNodes[c];
+		for (int i = 0; i < nodes.size; i++) {
+			edges.remove(nodes.get(i));
+		}
+		nodes.clear();
+
+		int cx = c % clustersX, cy = c / clustersX;
+		addNodes(nodes, eastEntrances[c], 0);
+		addNodes(nodes, cx > 0 ? eastEntrances[c - 1] : null, 1);
+		addNodes(nodes, northEntrances[c], 0);
+		addNodes(nodes, cy > 0 ? northEntrances[c - clustersX] : null, 1);
+
+		for (int i = 0; i < nodes.size; i++) {
+			int node = nodes.get(i);
+			searchCluster(node, -1);
+			IntArray nodeEdges = edges.get(node);
+			for (int j = 0; j < nodes.size; j++) {
+				int distance = localDistance[toLocal(nodes.get(j))];
+				if (j != i && distance > 0) {
+					nodeEdges.add(nodes.get(j));
+					nodeEdges.add(distance);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the tiles on one side of a list of entrances as nodes, each joined to the tile across from it.
+	 * @param side : 0 for the first tile of each pair, 1 for the second
+	 */
+	private void addNodes(IntArray nodes, IntArray entrances, int side) {
+		if (entrances == null) {
+			return;
+		}
+		for (int i = 0; i < entrances.size; i += 2) {
+			int node = entrances.get(i + side);
+			IntArray nodeEdges = edges.get(node);
+			if (nodeEdges == null) {
+				nodeEdges = new IntArray();
+				edges.put(node, nodeEdges);
+				nodes.add(node);
+			}
+			nodeEdges.add(entrances.get(i + 1 - side));
+			nodeEdges.add(1);
+		}
+	}
+
+	/**
+	 * Finds a path on the graph of nodes with A*. The start is joined to the nodes of its cluster,
+	 * and the nodes of the goal's cluster are joined to the goal, only for this search.
+	 */
+	private boolean searchGraph(int start, int goal, IntArray path) {
+		// Finds how far the goal is from the nodes of its cluster.
+		goalDistance.clear();
+		IntArray nodes = clusterNodes[clusterOf(goal)];
+		searchCluster(goal, -1);
+		for (int i = 0; i < nodes.size; i++) {
+			int distance = localDistance[toLocal(nodes.get(i))];
+			if (distance >= 0) {
+				goalDistance.put(nodes.get(i), distance);
+			}
+		}
+
+		// Finds how far the start is from the nodes of its cluster.
+		startEdges.clear();
+		nodes = clusterNodes[clusterOf(start)];
+		searchCluster(start, -1);
+		for (int i = 0; i < nodes.size; i++) {
+			int distance = localDistance[toLocal(nodes.get(i))];
+			if (distance >= 0) {
+				startEdges.add(nodes.get(i));
+				startEdges.add(distance);
+			}
+		}
+		if (goalDistance.size == 0 || startEdges.size == 0) {
+			return false;
+		}
+
+		cost.clear();
+		parent.clear();
+		heapSize = 0;
+		cost.put(start, 0);
+		push(start, heuristic(start, goal));
+		while (heapSize > 0) {
+			int score = heapScore[0];
+			int tile = pop();
+			int tileCost = cost.get(tile, Integer.MAX_VALUE);
+			if (score > tileCost + heuristic(tile, goal)) {
+				// The tile was already reached more cheaply.
+				continue;
+			}
+			nodesExpanded++;
+			if (tile == goal) {
+				refine(start, goal, path);
+				return true;
+			}
+			if (tile == start) {
+				relaxAll(tile, tileCost, startEdges, goal);
+			}
+			IntArray nodeEdges = edges.get(tile);
+			if (nodeEdges != null) {
+				relaxAll(tile, tileCost, nodeEdges, goal);
+			}
+			int distance = goalDistance.get(tile, -1);
+			if (distance >= 0) {
+				relax(tile, tileCost + distance, goal, goal);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Tries every edge in a list of (tile, cost) pairs.
+	 */
+	private void relaxAll(int tile, int tileCost, IntArray tileEdges, int goal) {
+		for (int i = 0; i < tileEdges.size; i += 2) {
+			relax(tile, tileCost + tileEdges.get(i + 1), tileEdges.get(i), goal);
+		}
+	}
+
+	/**
+	 * Keeps a way to a neighbour if it is cheaper than the one already found.
+	 */
+	private void relax(int tile, int newCost, int neighbour, int goal) {
+		if (newCost < cost.get(neighbour, Integer.MAX_VALUE)) {
+			cost.put(neighbour, newCost);
+			parent.put(neighbour, tile);
+			push(neighbour, newCost + heuristic(neighbour, goal));
+		}
+	}
+
+	/**
+	 * Turns the nodes that A* found into a path of tiles, by filling in each step.
+	 */
+	private void refine(int start, int goal, IntArray path) {
+		route.clear();
+		for (int tile = goal; tile != start; tile = parent.get(tile, start)) {
+			route.add(tile);
+		}
+		route.add(start);
+		route.reverse();
+
+		path.add(start);
+		for (int i = 1; i < route.size; i++) {
+			int from = route.get(i - 1), to = route.get(i);
+			if (clusterOf(from) != clusterOf(to)) {
+				// The two tiles are on either side of an entrance.
+				path.add(to);
+			} else {
+				searchCluster(from, to);
+				appendSegment(from, to, path);
+			}
+		}
+	}
+
+	/**
+	 * Adds the tiles after one tile up to another to a path, from the last search inside their cluster.
+	 */
+	private void appendSegment(int from, int to, IntArray path) {
+		segment.clear();
+		int local = toLocal(to), fromLocal = toLocal(from);
+		while (local != fromLocal) {
+			segment.add(local);
+			local = localParent[local];
+		}
+		for (int i = segment.size - 1; i >= 0; i--) {
+			path.add(toTile(from, segment.get(i)));
+		}
+	}
+
+	/**
+	 * Searches outwards from a tile without leaving its cluster, until another tile is reached.
+	 * @param from : the tile to start at
+	 * @param to : the tile to stop at, or -1 to reach every tile
+	 * @return distance : the distance to the tile to stop at, or -1 if it was not reached
+	 */
+	private int searchCluster(int from, int to) {
+		int x0 = (from % width) / clusterSize * clusterSize;
+		int y0 = (from / width) / clusterSize * clusterSize;
+		int clusterWidth = Math.min(clusterSize, width - x0);
+		int clusterHeight = Math.min(clusterSize, height - y0);
+		Arrays.fill(localDistance, -1);
+
+		int head = 0, tail = 0;
+		int first = toLocal(from);
+		localDistance[first] = 0;
+		localQueue[tail++] = first;
+		while (head < tail) {
+			int local = localQueue[head++];
+			int lx = local % clusterSize, ly = local / clusterSize;
+			if (to >= 0 && (y0 + ly) * width + x0 + lx == to) {
+				return localDistance[local];
+			}
+			for (int i = 0; i < 4; i++) {
+				int nx = lx + (i == 2 ? -1 : i == 3 ? 1 : 0);
+				int ny = ly + (i == 0 ? 1 : i == 1 ? -1 : 0);
+				if (nx < 0 || ny < 0 || nx >= clusterWidth || ny >= clusterHeight) {
+					continue;
+				}
+				int neighbour = ny * clusterSize + nx;
+				if (localDistance[neighbour] < 0 && grid.isSolid(x0 + nx, y0 + ny) == false) {
+					localDistance[neighbour] = localDistance[local] + 1;
+					localParent[neighbour] = local;
+					localQueue[tail++] = neighbour;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Adds a tile to the heap of the A* search.
+	 */
+	private void push(int tile, int score) {
+		if (heapSize == heapTile.length) {
+			heapTile = Arrays.copyOf(heapTile, heapSize * 2);
+			heapScore = Arrays.copyOf(heapScore, heapSize * 2);
+		}
+		int i = heapSize++;
+		while (i > 0) {
+			int up = (i - 1) / 2;
+			if (heapScore[up] <= score) {
+				break;
+			}
+			heapTile[i] = heapTile[up];
+			heapScore[i] = heapScore[up];
+			i = up;
+		}
+		heapTile[i] = tile;
+		heapScore[i] = score;
+	}
+
+	/**
+	 * Takes the tile with the lowest score off the heap of the A* search.
+	 */
+	private int pop() {
+		int top = heapTile[0];
+		int tile = heapTile[--heapSize];
+		int score = heapScore[heapSize];
+		int i = 0;
+		while (true) {
+			int child = i * 2 + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if (child + 1 < heapSize && heapScore[child + 1] < heapScore[child]) {
+				child++;
+			}
+			if (score <= heapScore[child]) {
+				break;
+			}
+			heapTile[i] = heapTile[child];
+			heapScore[i] = heapScore[child];
+			i = child;
+		}
+		heapTile[i] = tile;
+		heapScore[i] = score;
+		return top;
+	}
+
+	/**
+	 * Estimates the distance between two tiles, which is never more than the real distance.
+	 */
+	private int heuristic(int tile, int goal) {
+		return Math.abs(tile % width - goal % width) + Math.abs(tile / width - goal / width);
+	}
+
+	/**
+	 * Gets the cluster a tile is in.
+	 */
+	private int clusterOf(int tile) {
+		return (tile / width / clusterSize) * clustersX + (tile % width) / clusterSize;
+	}
+
+	/**
+	 * Gets the position of a tile inside its cluster.
+	 */
+	private int toLocal(int tile) {
+		return (tile / width % clusterSize) * clusterSize + tile % width % clusterSize;
+	}
+
+	/**
+	 * Gets the tile at a position inside the cluster of another tile.
+	 */
+	private int toTile(int clusterTile, int local) {
+		int x0 = (clusterTile % width) / clusterSize * clusterSize;
+		int y0 = (clusterTile / width) / clusterSize * clusterSize;
+		return (y0 + local / clusterSize) * width + x0 + local % clusterSize;
+	}
+
+	/**
+	 * Checks if a tile is inside the grid and not solid.
+	 */
+	private boolean isOpen(int x, int y) {
+		return x >= 0 && y >= 0 && x < width && y < height && grid.isSolid(x, y) == false;
+	}
+
+	/**
+	 * Checks if a tile, by index, is not solid.
+	 */
+	private boolean isOpen(int tile) {
+		return grid.isSolid(tile % width, tile / width) == false;
+	}
+
+	/**
+	 * Gets the number of nodes in the graph.
+	 * @return nodeCount
+	 */
+	public int getNodeCount() {
+		return edges.size;
+	}
+
+	/**
+	 * Gets the number of clusters the grid is split into.
+	 * @return clusterCount
+	 */
+	public int getClusterCount() {
+		return clustersX * clustersY;
+	}
+
+	/**
+	 * Gets the share of the paths that were answered from the cache.
+	 * @return hitRate : between 0 and 1, or 0 if no paths have been found
+	 */
+	public float getCacheHitRate() {
+		int total = cacheHits + cacheMisses;
+		return total == 0 ? 0 : (float) cacheHits / total;
+	}
+
+	/**
+	 * Gets the number of times the graph has been built or built again.
+	 * @return rebuildCount
+	 */
+	public int getRebuildCount() {
+		return rebuildCount;
+	}
+
+	/**
+	 * Gets the number of nodes the A* search has taken off its heap, over every path.
+	 * @return nodesExpanded
+	 */
+	public int getNodesExpanded() {
+		return nodesExpanded;
+	}
+
+	/**
+	 * Gets the grid that paths are found on.
+	 * @return grid
+	 */
+	public CollisionGrid getGrid() {
+		return grid;
+	}
+
+}
@@ -0,0 +1,141 @@
+package com.dungeondoom.world;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @author Roshan Munjal
+ * The ParallelSweep runs a loop over the entities of a store, either on
+ * the calling thread or split into ranges across a ForkJoinPool. The loop
+ * body must only change the entities in the range it is given, so that
+ * the ranges can run at the same time and the result is the same either
+ * way. Anything that changes more than one entity (removing them, or
+ * adding up damage) is left for the caller to do afterwards, in order, on
+ * its own thread. Parallel mode can be switched on and off at any time,
+ * and the pool is only created the first time it is needed.
+ */
+public class ParallelSweep {
+
+	/**
+	 * The body of a loop, run over one range of indices at a time.
+	 */
+	public interface Range {
+
+		/**
+		 * Runs the loop over a range of indices.
+		 * @param from : the first index
+		 * @param to : one past the last index
+		 */
+		void run(int from, int to);
+
+	}
+
+	// The default smallest range that is split, which is about as much work as handing out a task.
+	public static final int DEFAULT_GRAIN = 512;
+
+	// The number of threads in the pool, and the pool itself once it is created.
+	private int threads;
+	private ForkJoinPool pool;
+
+	// Ranges up to this long are not split.
+	private int grain;
+
+	// Whether loops are split across the pool.
+	private boolean parallel = false;
+
+	/**
+	 * Constructor for the ParallelSweep class, with a thread for every core.
+	 */
+	public ParallelSweep() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_GRAIN);
+	}
+
+	/**
+	 * Constructor for the ParallelSweep class.
+	 * @param threads : the number of threads to split loops across
+	 * @param grain : the longest range that is not split
+	 */
+	public ParallelSweep(int threads, int grain) {
+		this.threads = threads;
+		this.grain = grain;
+	}
+
+	/**
+	 * Runs a loop over the indices from 0 to a count, split across the pool in parallel mode.
+	 * @param count : the number of indices
+	 * @param range : the body of the loop
+	 */
+	public void run(int count, Range range) {
+		if (parallel == false || threads <= 1 || count <= grain) {
+			range.run(0, count);
+			return;
+		}
+		if (pool == null) {
+			pool = new ForkJoinPool(threads);
+		}
+		pool.invoke(new Split(range, 0, count));
+	}
+
+	/**
+	 * A task that splits its range in half until the halves are short enough to run.
+	 */
+	private class Split extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private Range range;
+		private int from, to;
+
+		Split(Range range, int from, int to) {
+			this.range = range;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				range.run(from, to);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new Split(range, from, middle), new Split(range, middle, to));
+			}
+		}
+
+	}
+
+	/**
+	 * Switches parallel mode on or off.
+	 * @param parallel : true to split loops across the pool
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Checks if loops are split across the pool.
+	 * @return parallel
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Gets the number of threads that loops are split across.
+	 * @return threads
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Shuts down the pool, if it was created. The sweep can still be used after, and makes a new pool if it needs one.
+	 */
+	public void dispose() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+}
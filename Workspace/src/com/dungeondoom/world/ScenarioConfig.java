@@ -0,0 +1,342 @@
+package com.dungeondoom.world;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Properties;
+import java.util.Random;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * @author Roshan Munjal
+ * The ScenarioConfig holds the numbers that set up a game: the map, how
+ * many ghosts and coins there are at the start, how fast the ghosts are,
+ * and how often coins appear. A normal game uses the defaults. A stress
+ * test is a scenario that is started from the command line instead of
+ * the main menu, and it can also end after a number of ticks or seconds,
+ * let the autopilot play, and write how long the frames took to a file.
+ * A scenario is read from a properties file, and any of its keys can be
+ * given again on the command line as key=value to override it:
+ *     --scenario stress.properties ghosts=2000 coins=500 ticks=3600 autopilot=true report=frames.txt
+ */
+public class ScenarioConfig {
+
+	// The command line flag that starts a scenario.
+	public static final String FLAG = "--scenario";
+
+	// The map that is played on when none is given.
+	public static final String DEFAULT_MAP = "assets/MapLevelNew.tmx";
+
+	// The keys of the properties.
+	public static final String MAP = "map", GHOSTS = "ghosts", COINS = "coins", GHOST_SPEED = "ghostSpeed",
+			MAX_GHOST_SPEED = "maxGhostSpeed", COIN_INTERVAL = "coinInterval", TICKS = "ticks", SECONDS = "seconds",
+			AUTOPILOT = "autopilot", IMMORTAL = "immortal", SEED = "seed", REPORT = "report", VSYNC = "vsync";
+
+	// Checks if this is a stress test started from the command line, rather than a normal game.
+	private boolean stressTest = false;
+
+	// The map, and the ghosts and coins at the start.
+	private String mapFile = DEFAULT_MAP;
+	private int ghosts = 7;
+	private int coins = 10;
+
+	// The speed of the first ghosts, which goes up by one with each kill until it reaches the most speed.
+	private int ghostSpeed = 70;
+	private int maxGhostSpeed = 100;
+
+	// The number of ticks between new coins.
+	private int coinInterval = 300;
+
+	// How long the scenario runs for, in ticks and in seconds. 0 runs until the player quits or dies.
+	private int ticks = 0;
+	private float seconds = 0;
+
+	// Checks if the autopilot plays instead of the keyboard, and if the player can die.
+	private boolean autopilot = false;
+	private boolean immortal = false;
+
+	// The seed of the game, where 0 picks a new one each time.
+	private long seed = 0;
+
+	// The file the frame times are written to at the end, or null to only log them.
+	private String reportFile = null;
+
+	// Checks if the frames wait for the screen to refresh.
+	private boolean vsync = true;
+
+	/**
+	 * Reads a scenario from the command line. The arguments after the FLAG are the properties file and any
+	 * key=value overrides, in any order, up to the next argument that starts with "--".
+	 * @param args : the command line
+	 * @return config : the scenario, or a normal game if the FLAG is not on the command line
+	 */
+	public static ScenarioConfig parse(String[] args) {
+		ScenarioConfig config = new ScenarioConfig();
+		int start = -1;
+		for (int i = 0; i < args.length && start < 0; i++) {
+			if (args[i].equals(FLAG)) {
+				start = i + 1;
+			}
+		}
+		if (start < 0) {
+			return config;
+		}
+		int end = start;
+		while (end < args.length && args[end].startsWith("--") == false) {
+			end++;
+		}
+
+		// Reads the properties file first, so that the overrides on the command line win.
+		Properties properties = new Properties();
+		for (int i = start; i < end; i++) {
+			if (args[i].contains("=") == false) {
+				load(properties, new FileHandle(args[i]));
+			}
+		}
+		for (int i = start; i < end; i++) {
+			int equals = args[i].indexOf('=');
+			if (equals > 0) {
+				properties.setProperty(args[i].substring(0, equals), args[i].substring(equals + 1));
+			}
+		}
+		config.set(properties);
+		config.stressTest = true;
+		return config;
+	}
+
+	/**
+	 * Reads the properties of a file.
+	 */
+	private static void load(Properties properties, FileHandle file) {
+		Reader reader = null;
+		try {
+			reader = file.reader();
+			properties.load(reader);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("The scenario " + file.path() + " could not be read", e);
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (IOException e) {
+					// Nothing was written, so there is nothing to lose.
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets everything that the properties give, and leaves the rest as it was.
+	 * @param properties : the properties of the scenario
+	 */
+	public void set(Properties properties) {
+		mapFile = properties.getProperty(MAP, mapFile);
+		ghosts = getInt(properties, GHOSTS, ghosts);
+		coins = getInt(properties, COINS, coins);
+		ghostSpeed = getInt(properties, GHOST_SPEED, ghostSpeed);
+		maxGhostSpeed = getInt(properties, MAX_GHOST_SPEED, maxGhostSpeed);
+		coinInterval = getInt(properties, COIN_INTERVAL, coinInterval);
+		ticks = getInt(properties, TICKS, ticks);
+		seconds = getFloat(properties, SECONDS, seconds);
+		autopilot = getBoolean(properties, AUTOPILOT, autopilot);
+		immortal = getBoolean(properties, IMMORTAL, immortal);
+		if (properties.getProperty(SEED) != null) {
+			try {
+				seed = Long.parseLong(properties.getProperty(SEED).trim());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("The scenario's " + SEED + " is not a whole number: " + properties.getProperty(SEED));
+			}
+		}
+		reportFile = properties.getProperty(REPORT, reportFile);
+		vsync = getBoolean(properties, VSYNC, vsync);
+	}
+
+	/**
+	 * Gets a whole number that is at least 0 from the properties.
+	 */
+	private static int getInt(Properties properties, String key, int defaultValue) {
+		String value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			int number = Integer.parseInt(value.trim());
+			if (number < 0) {
+				throw new IllegalArgumentException("The scenario's " + key + " cannot be negative: " + value);
+			}
+			return number;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("The scenario's " + key + " is not a whole number: " + value);
+		}
+	}
+
+	/**
+	 * Gets a number that is at least 0 from the properties.
+	 */
+	private static float getFloat(Properties properties, String key, float defaultValue) {
+		String value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			float number = Float.parseFloat(value.trim());
+			if (number < 0) {
+				throw new IllegalArgumentException("The scenario's " + key + " cannot be negative: " + value);
+			}
+			return number;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("The scenario's " + key + " is not a number: " + value);
+		}
+	}
+
+	/**
+	 * Gets true or false from the properties.
+	 */
+	private static boolean getBoolean(Properties properties, String key, boolean defaultValue) {
+		String value = properties.getProperty(key);
+		return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+	}
+
+	/**
+	 * Creates the Random that the game is played with.
+	 * @return random
+	 */
+	public Random createRandom() {
+		return seed == 0 ? new Random() : new Random(seed);
+	}
+
+	/**
+	 * Checks if the scenario has run for long enough.
+	 * @param tickCount : the number of ticks that have been run
+	 * @param elapsedSeconds : the number of seconds that have passed
+	 * @return finished
+	 */
+	public boolean isFinished(int tickCount, float elapsedSeconds) {
+		return (ticks > 0 && tickCount >= ticks) || (seconds > 0 && elapsedSeconds >= seconds);
+	}
+
+	/**
+	 * Describes the scenario in one line, for the log and the report.
+	 * @return description
+	 */
+	public String describe() {
+		return "map " + mapFile + ", " + ghosts + " ghosts, " + coins + " coins, ghost speed " + ghostSpeed + " to " + maxGhostSpeed
+				+ ", a coin every " + coinInterval + " ticks" + (ticks > 0 ? ", " + ticks + " ticks" : "")
+				+ (seconds > 0 ? ", " + seconds + " s" : "") + (autopilot ? ", autopilot" : "") + (immortal ? ", immortal" : "")
+				+ (seed != 0 ? ", seed " + seed : "");
+	}
+
+	/**
+	 * Checks if this is a stress test started from the command line, rather than a normal game.
+	 * @return stressTest
+	 */
+	public boolean isStressTest() {
+		return stressTest;
+	}
+
+	/**
+	 * Gets the file of the map.
+	 * @return mapFile
+	 */
+	public String getMapFile() {
+		return mapFile;
+	}
+
+	/**
+	 * Gets the number of ghosts at the start.
+	 * @return ghosts
+	 */
+	public int getGhosts() {
+		return ghosts;
+	}
+
+	/**
+	 * Gets the number of coins at the start.
+	 * @return coins
+	 */
+	public int getCoins() {
+		return coins;
+	}
+
+	/**
+	 * Gets the speed of the first ghosts.
+	 * @return ghostSpeed
+	 */
+	public int getGhostSpeed() {
+		return ghostSpeed;
+	}
+
+	/**
+	 * Gets the most speed that new ghosts reach.
+	 * @return maxGhostSpeed
+	 */
+	public int getMaxGhostSpeed() {
+		return maxGhostSpeed;
+	}
+
+	/**
+	 * Gets the number of ticks between new coins.
+	 * @return coinInterval
+	 */
+	public int getCoinInterval() {
+		return coinInterval;
+	}
+
+	/**
+	 * Gets the number of ticks the scenario runs for, where 0 is no limit.
+	 * @return ticks
+	 */
+	public int getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * Gets the number of seconds the scenario runs for, where 0 is no limit.
+	 * @return seconds
+	 */
+	public float getSeconds() {
+		return seconds;
+	}
+
+	/**
+	 * Checks if the autopilot plays instead of the keyboard.
+	 * @return autopilot
+	 */
+	public boolean isAutopilot() {
+		return autopilot;
+	}
+
+	/**
+	 * Checks if the player cannot die.
+	 * @return immortal
+	 */
+	public boolean isImmortal() {
+		return immortal;
+	}
+
+	/**
+	 * Gets the seed of the game, where 0 picks a new one each time.
+	 * @return seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Gets the file the frame times are written to, or null to only log them.
+	 * @return reportFile
+	 */
+	public String getReportFile() {
+		return reportFile;
+	}
+
+	/**
+	 * Checks if the frames wait for the screen to refresh.
+	 * @return vsync
+	 */
+	public boolean isVsync() {
+		return vsync;
+	}
+
+}
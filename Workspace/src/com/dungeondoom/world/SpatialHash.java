@@ -0,0 +1,194 @@
+package com.dungeondoom.world;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * @author Roshan Munjal
+ * The SpatialHash is the broadphase of the collision checks. The world is
+ * split into square cells, and every item (usually the index of an entity
+ * in an EntityStore) is put into each cell its bounding box touches. A
+ * query then only looks at the items in the cells that the query box
+ * touches, so the cost of a check depends on how crowded that part of the
+ * world is, not on how many items there are in total. The items that come
+ * back are only candidates; the caller still tests them exactly.
+ *
+ * The cells are hashed into a fixed number of buckets, and the entries are
+ * linked lists stored in int arrays, so building and querying the hash
+ * creates no objects once the arrays are big enough. The hash counts the
+ * candidates it hands out, which is the number of exact tests the callers
+ * have to do.
+ */
+public class SpatialHash {
+
+	// The value used to end a list of entries.
+	private static final int END = -1;
+
+	// The size of a cell in pixels.
+	private float cellSize;
+
+	// The first entry in each bucket, and the bucket mask (the number of buckets is a power of two).
+	private int[] heads;
+	private int bucketMask;
+
+	// For each entry, the item it holds and the next entry in the same bucket.
+	private int[] items;
+	private int[] next;
+	private int entryCount = 0;
+
+	// The query each item was last returned by, so an item in several cells is only returned once.
+	private int[] marks = new int[64];
+	private int stamp = 0;
+
+	// The number of candidates handed out since the counter was reset.
+	private int candidateCount = 0;
+
+	/**
+	 * Constructor for the SpatialHash class.
+	 * @param cellSize : the size of a cell in pixels
+	 * @param buckets : the number of buckets, which is rounded up to a power of two
+	 */
+	public SpatialHash(float cellSize, int buckets) {
+		this.cellSize = cellSize;
+		heads = new int[MathUtils.nextPowerOfTwo(buckets)];
+		bucketMask = heads.length - 1;
+		items = new int[256];
+		next = new int[256];
+		clear();
+	}
+
+	/**
+	 * Removes every item from the hash.
+	 */
+	public void clear() {
+		Arrays.fill(heads, END);
+		entryCount = 0;
+	}
+
+	/**
+	 * Clears the hash and puts every entity of a store into it, by index.
+	 * @param store : the entities to put in the hash
+	 */
+	public void build(EntityStore store) {
+		clear();
+		reserve(store.getCapacity());
+		for (int i = 0; i < store.size; i++) {
+			insert(i, store.x[i], store.y[i], store.width[i], store.height[i]);
+		}
+	}
+
+	/**
+	 * Makes the arrays big enough for a number of items that are each no bigger than a cell, so that the
+	 * hash only grows when the number of items does, and not when they happen to straddle more cells.
+	 */
+	private void reserve(int itemCount) {
+		if (marks.length < itemCount) {
+			marks = Arrays.copyOf(marks, itemCount);
+		}
+		// A box that is no bigger than a cell touches at most four cells.
+		if (items.length < itemCount * 4) {
+			items = Arrays.copyOf(items, itemCount * 4);
+			next = Arrays.copyOf(next, itemCount * 4);
+		}
+	}
+
+	/**
+	 * Puts an item into every cell its bounding box touches.
+	 * @param item : the item, which must not be negative
+	 * @param x : the x-position of the bounding box
+	 * @param y : the y-position of the bounding box
+	 * @param width : the width of the bounding box
+	 * @param height : the height of the bounding box
+	 */
+	public void insert(int item, float x, float y, float width, float height) {
+		if (item >= marks.length) {
+			marks = Arrays.copyOf(marks, Math.max(item + 1, marks.length * 2));
+		}
+		int minX = cell(x), maxX = cell(x + width);
+		int minY = cell(y), maxY = cell(y + height);
+		for (int cellX = minX; cellX <= maxX; cellX++) {
+			for (int cellY = minY; cellY <= maxY; cellY++) {
+				if (entryCount == items.length) {
+					items = Arrays.copyOf(items, entryCount * 2);
+					next = Arrays.copyOf(next, entryCount * 2);
+				}
+				int bucket = bucket(cellX, cellY);
+				items[entryCount] = item;
+				next[entryCount] = heads[bucket];
+				heads[bucket] = entryCount++;
+			}
+		}
+	}
+
+	/**
+	 * Finds the items whose cells the given box touches. Each item is only returned once.
+	 * @param x : the x-position of the box
+	 * @param y : the y-position of the box
+	 * @param width : the width of the box
+	 * @param height : the height of the box
+	 * @param out : the list the items are put in, which is cleared first
+	 * @return out
+	 */
+	public IntArray query(float x, float y, float width, float height, IntArray out) {
+		out.clear();
+		stamp++;
+		int minX = cell(x), maxX = cell(x + width);
+		int minY = cell(y), maxY = cell(y + height);
+		for (int cellX = minX; cellX <= maxX; cellX++) {
+			for (int cellY = minY; cellY <= maxY; cellY++) {
+				for (int entry = heads[bucket(cellX, cellY)]; entry != END; entry = next[entry]) {
+					int item = items[entry];
+					if (marks[item] != stamp) {
+						marks[item] = stamp;
+						out.add(item);
+					}
+				}
+			}
+		}
+		candidateCount += out.size;
+		return out;
+	}
+
+	/**
+	 * Finds the items whose cells a rectangle touches.
+	 * @param rect : the rectangle
+	 * @param out : the list the items are put in, which is cleared first
+	 * @return out
+	 */
+	public IntArray query(Rectangle rect, IntArray out) {
+		return query(rect.x, rect.y, rect.width, rect.height, out);
+	}
+
+	/**
+	 * Gets the number of candidates handed out since the counter was last reset.
+	 * @return candidateCount
+	 */
+	public int getCandidateCount() {
+		return candidateCount;
+	}
+
+	/**
+	 * Resets the number of candidates handed out.
+	 */
+	public void resetCandidateCount() {
+		candidateCount = 0;
+	}
+
+	/**
+	 * Gets the cell that a coordinate is in.
+	 */
+	private int cell(float coordinate) {
+		return MathUtils.floor(coordinate / cellSize);
+	}
+
+	/**
+	 * Gets the bucket that a cell is hashed into.
+	 */
+	private int bucket(int cellX, int cellY) {
+		return (cellX * 73856093 ^ cellY * 19349663) & bucketMask;
+	}
+
+}
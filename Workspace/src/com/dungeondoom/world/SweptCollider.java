@@ -0,0 +1,270 @@
+package com.dungeondoom.world;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * @author Roshan Munjal
+ * The SweptCollider moves boxes through a CollisionGrid without letting
+ * them pass into solid tiles. Instead of moving a box and then checking if
+ * it ended up inside a wall, it sweeps the box along its whole movement for
+ * the tick and finds the first solid tile it would touch, so a fast box
+ * cannot skip over a thin wall. When the box hits a wall it stops against
+ * it and carries on along the wall with whatever movement is left, which is
+ * what lets a character slide along walls instead of sticking to them.
+ * A box that already overlaps a tile is allowed to move out of it.
+ *
+ * The result of the last move is kept in the collider instead of being
+ * returned in a new object, so moving boxes creates no garbage.
+ */
+public class SweptCollider {
+
+	// The most walls a box can hit in one move. Two is enough for a corner.
+	private static final int MAX_HITS = 3;
+
+	// The grid that boxes are moved through.
+	private CollisionGrid grid;
+
+	// The result of the last move.
+	private float resultX, resultY; // Where the box ended up.
+	private boolean hitX, hitY; // Whether the box was stopped along each axis.
+
+	// The number of solid tiles that were swept against, since the counter was reset.
+	private int tilesTested = 0;
+
+	// The time and normal of the closest hit found by the last sweep.
+	private float hitTime;
+	private int normalX, normalY;
+
+	/**
+	 * Constructor for the SweptCollider class.
+	 * @param grid : the grid of obstacles to move boxes through
+	 */
+	public SweptCollider(CollisionGrid grid) {
+		this.grid = grid;
+	}
+
+	/**
+	 * Moves a box as far as it can go, sliding along any walls it hits.
+	 * The position it ends up at is read with getX and getY afterwards.
+	 * @param x : the x-position of the box
+	 * @param y : the y-position of the box
+	 * @param width : the width of the box
+	 * @param height : the height of the box
+	 * @param dx : the distance to move along x
+	 * @param dy : the distance to move along y
+	 * @return hit : true if the box hit a wall
+	 */
+	public boolean move(float x, float y, float width, float height, float dx, float dy) {
+		hitX = false;
+		hitY = false;
+
+		for (int i = 0; i < MAX_HITS && (dx != 0 || dy != 0); i++) {
+			sweep(x, y, width, height, dx, dy);
+			if (hitTime >= 1) {
+				x += dx;
+				y += dy;
+				break;
+			}
+
+			// Moves the box up to the wall, and puts it exactly against the wall.
+			x += dx * hitTime;
+			y += dy * hitTime;
+			float remaining = 1 - hitTime;
+			if (normalX != 0) {
+				x = snap(x, width, normalX, grid.getTileWidth());
+				hitX = true;
+				dx = 0;
+				dy *= remaining;
+			} else {
+				y = snap(y, height, normalY, grid.getTileHeight());
+				hitY = true;
+				dy = 0;
+				dx *= remaining;
+			}
+		}
+
+		resultX = x;
+		resultY = y;
+		return hitX || hitY;
+	}
+
+	/**
+	 * Moves every entity in a store by its velocity for one tick, sliding along walls.
+	 * @param store : the entities to move
+	 * @param delta : the length of the tick
+	 */
+	public void moveAll(EntityStore store, float delta) {
+		moveRange(store, 0, store.size, delta);
+	}
+
+	/**
+	 * Moves a range of the entities in a store by their velocity for one tick, sliding along walls.
+	 * A collider keeps the result of its last move, so one collider must not be used by two threads at once.
+	 * @param store : the entities to move
+	 * @param from : the index of the first entity
+	 * @param to : one past the index of the last entity
+	 * @param delta : the length of the tick
+	 */
+	public void moveRange(EntityStore store, int from, int to, float delta) {
+		for (int i = from; i < to; i++) {
+			if (move(store.x[i], store.y[i], store.width[i], store.height[i], store.velocityX[i] * delta, store.velocityY[i] * delta)) {
+				// The entity stops moving along the axis it hit a wall on.
+				if (hitX) {
+					store.velocityX[i] = 0;
+				}
+				if (hitY) {
+					store.velocityY[i] = 0;
+				}
+			}
+			store.x[i] = resultX;
+			store.y[i] = resultY;
+			store.animationTime[i] += delta;
+		}
+	}
+
+	/**
+	 * Finds the first solid tile that a moving box touches, and when and from which side it touches it.
+	 * The result is left in hitTime (1 or more for no hit), normalX and normalY.
+	 */
+	private void sweep(float x, float y, float width, float height, float dx, float dy) {
+		hitTime = 1;
+		normalX = 0;
+		normalY = 0;
+		float tileWidth = grid.getTileWidth();
+		float tileHeight = grid.getTileHeight();
+
+		// Only the tiles inside the area the box moves through can be hit.
+		int minX = Math.max(0, MathUtils.floor(Math.min(x, x + dx) / tileWidth));
+		int maxX = Math.min(grid.getWidth() - 1, MathUtils.floor((Math.max(x, x + dx) + width) / tileWidth));
+		int minY = Math.max(0, MathUtils.floor(Math.min(y, y + dy) / tileHeight));
+		int maxY = Math.min(grid.getHeight() - 1, MathUtils.floor((Math.max(y, y + dy) + height) / tileHeight));
+
+		for (int tileY = minY; tileY <= maxY; tileY++) {
+			for (int tileX = minX; tileX <= maxX; tileX++) {
+				if (grid.isSolid(tileX, tileY) == false) {
+					continue;
+				}
+				tilesTested++;
+				float left = tileX * tileWidth, right = left + tileWidth;
+				float bottom = tileY * tileHeight, top = bottom + tileHeight;
+
+				// A tile the box is already inside of does not stop it, so it can get out.
+				if (x < right && x + width > left && y < top && y + height > bottom) {
+					continue;
+				}
+
+				// The times at which the box starts and stops overlapping the tile along each axis.
+				float entryX, exitX, entryY, exitY;
+				if (dx > 0) {
+					entryX = (left - (x + width)) / dx;
+					exitX = (right - x) / dx;
+				} else if (dx < 0) {
+					entryX = (right - x) / dx;
+					exitX = (left - (x + width)) / dx;
+				} else if (x < right && x + width > left) {
+					entryX = Float.NEGATIVE_INFINITY;
+					exitX = Float.POSITIVE_INFINITY;
+				} else {
+					continue;
+				}
+				if (dy > 0) {
+					entryY = (bottom - (y + height)) / dy;
+					exitY = (top - y) / dy;
+				} else if (dy < 0) {
+					entryY = (top - y) / dy;
+					exitY = (bottom - (y + height)) / dy;
+				} else if (y < top && y + height > bottom) {
+					entryY = Float.NEGATIVE_INFINITY;
+					exitY = Float.POSITIVE_INFINITY;
+				} else {
+					continue;
+				}
+
+				// The box touches the tile once it overlaps along both axes.
+				float entry = Math.max(entryX, entryY);
+				float exit = Math.min(exitX, exitY);
+				if (entry < exit && entry >= 0 && entry < hitTime) {
+					hitTime = entry;
+					if (entryX > entryY) {
+						normalX = dx > 0 ? -1 : 1;
+						normalY = 0;
+					} else {
+						normalX = 0;
+						normalY = dy > 0 ? -1 : 1;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Puts a box exactly against the tile edge it hit, so rounding never leaves it inside the tile.
+	 * @param position : the position of the box along the axis it hit
+	 * @param size : the size of the box along that axis
+	 * @param normal : the side of the tile that was hit (-1 if the box was moving forwards)
+	 * @param tileSize : the size of a tile along that axis
+	 * @return position : the position against the edge
+	 */
+	private static float snap(float position, float size, int normal, float tileSize) {
+		if (normal < 0) {
+			return Math.round((position + size) / tileSize) * tileSize - size;
+		}
+		return Math.round(position / tileSize) * tileSize;
+	}
+
+	/**
+	 * Gets the x-position the box ended up at in the last move.
+	 * @return resultX
+	 */
+	public float getX() {
+		return resultX;
+	}
+
+	/**
+	 * Gets the y-position the box ended up at in the last move.
+	 * @return resultY
+	 */
+	public float getY() {
+		return resultY;
+	}
+
+	/**
+	 * Checks if the box was stopped along x in the last move.
+	 * @return hitX
+	 */
+	public boolean isHitX() {
+		return hitX;
+	}
+
+	/**
+	 * Checks if the box was stopped along y in the last move.
+	 * @return hitY
+	 */
+	public boolean isHitY() {
+		return hitY;
+	}
+
+	/**
+	 * Gets the number of solid tiles swept against since the counter was reset.
+	 * @return tilesTested
+	 */
+	public int getTilesTested() {
+		return tilesTested;
+	}
+
+	/**
+	 * Resets the number of solid tiles swept against.
+	 */
+	public void resetTilesTested() {
+		tilesTested = 0;
+	}
+
+	/**
+	 * Gets the grid of obstacles the collider moves boxes through.
+	 * @return grid
+	 */
+	public CollisionGrid getGrid() {
+		return grid;
+	}
+
+}
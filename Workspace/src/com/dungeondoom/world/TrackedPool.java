@@ -0,0 +1,122 @@
+package com.dungeondoom.world;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * @author Roshan Munjal
+ * The TrackedPool is a libGDX Pool that keeps count of how well it works.
+ * Every object it hands out is either reused from the pool (a hit) or
+ * newly created (a miss), and it remembers the most objects that were in
+ * use at once. Objects that implement Pool.Poolable are reset when they
+ * are freed, which puts them back in the state they were spawned in. The
+ * pool can be filled before the game starts so that spawning never has to
+ * create anything.
+ * @param <T> : the type of object in the pool
+ */
+public abstract class TrackedPool<T> extends Pool<T> {
+
+	// Counters for tuning the size of the pool.
+	private int hits = 0; // Objects that were reused.
+	private int misses = 0; // Objects that had to be created.
+	private int live = 0; // Objects that are in use now.
+	private int peakLive = 0; // The most objects that were in use at once.
+
+	/**
+	 * Constructor for the TrackedPool class.
+	 * @param initialCapacity : the number of free objects to make room for at first
+	 * @param max : the most free objects the pool keeps
+	 */
+	public TrackedPool(int initialCapacity, int max) {
+		super(initialCapacity, max);
+	}
+
+	/**
+	 * Gets an object from the pool, or creates one if the pool is empty.
+	 * @return object
+	 */
+	@Override
+	public T obtain() {
+		if (getFree() > 0) {
+			hits++;
+		} else {
+			misses++;
+		}
+		live++;
+		peakLive = Math.max(peakLive, live);
+		return super.obtain();
+	}
+
+	/**
+	 * Puts an object back in the pool, resetting it if it is Poolable.
+	 * @param object : the object to free
+	 */
+	@Override
+	public void free(T object) {
+		live--;
+		super.free(object);
+	}
+
+	/**
+	 * Puts all of the objects in a list back in the pool.
+	 * @param objects : the objects to free
+	 */
+	@Override
+	public void freeAll(Array<T> objects) {
+		for (int i = 0; i < objects.size; i++) {
+			free(objects.get(i));
+		}
+	}
+
+	/**
+	 * Creates objects until the pool holds a given number of free objects.
+	 * @param count : the number of free objects to have ready
+	 */
+	public void prewarm(int count) {
+		while (getFree() < count && getFree() < max) {
+			super.free(newObject());
+		}
+	}
+
+	/**
+	 * Gets the share of the objects handed out that were reused.
+	 * @return hitRate : between 0 and 1, or 1 if nothing has been handed out
+	 */
+	public float getHitRate() {
+		int total = hits + misses;
+		return total == 0 ? 1 : (float) hits / total;
+	}
+
+	/**
+	 * Gets the number of objects that had to be created.
+	 * @return misses
+	 */
+	public int getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Gets the number of objects in use now.
+	 * @return live
+	 */
+	public int getLive() {
+		return live;
+	}
+
+	/**
+	 * Gets the most objects that were in use at once.
+	 * @return peakLive
+	 */
+	public int getPeakLive() {
+		return peakLive;
+	}
+
+	/**
+	 * Describes how the pool has been used, for the log.
+	 * @return description
+	 */
+	public String describeUsage() {
+		return "hit rate " + Math.round(getHitRate() * 100) + "%, " + misses + " created, peak " + peakLive + " in use";
+	}
+
+}